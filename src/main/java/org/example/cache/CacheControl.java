@@ -0,0 +1,111 @@
+package org.example.cache;
+
+import org.example.client.StoredResponses;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The Cache-Control directives a private client cache acts on (RFC 9111). s-maxage, public and
+ * proxy-* are for shared caches and ignored; no heuristic freshness is applied, so a response
+ * without max-age or Expires is always revalidated.
+ */
+final class CacheControl {
+
+    // Marks a response that must not be stored
+    static final long NOT_STORABLE = -1;
+
+    final boolean noStore;
+    final boolean noCache;
+    // -1 when absent
+    final long maxAgeSeconds;
+
+    private CacheControl(boolean noStore, boolean noCache, long maxAgeSeconds) {
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    static CacheControl parse(String header) {
+        boolean noStore = false;
+        boolean noCache = false;
+        long maxAge = -1;
+        if (header != null) {
+            for (String directive : header.toLowerCase(Locale.ROOT).split(",")) {
+                String name = directive.trim();
+                String value = null;
+                int eq = name.indexOf('=');
+                if (eq > 0) {
+                    value = name.substring(eq + 1).trim().replace("\"", "");
+                    name = name.substring(0, eq).trim();
+                }
+                switch (name) {
+                    case "no-store":
+                        noStore = true;
+                        break;
+                    case "no-cache":
+                        noCache = true;
+                        break;
+                    case "max-age":
+                        maxAge = parseSeconds(value);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return new CacheControl(noStore, noCache, maxAge);
+    }
+
+    /*
+     * Time until which a response with these headers, received at nowMillis, may be served without
+     * revalidation: max-age (minus Age) wins over Expires - Date. NOT_STORABLE for no-store
+     */
+    static long freshUntil(Map<String, String> headers, long nowMillis) {
+        CacheControl cacheControl = parse(StoredResponses.header(headers, "Cache-Control"));
+        if (cacheControl.noStore) {
+            return NOT_STORABLE;
+        }
+        if (cacheControl.noCache) {
+            return 0;
+        }
+        if (cacheControl.maxAgeSeconds >= 0) {
+            long age = Math.max(0, parseSeconds(StoredResponses.header(headers, "Age")));
+            return nowMillis + Math.max(0, cacheControl.maxAgeSeconds - age) * 1000;
+        }
+        long expires = parseDate(StoredResponses.header(headers, "Expires"));
+        if (expires < 0) {
+            return 0;
+        }
+        long date = parseDate(StoredResponses.header(headers, "Date"));
+        return nowMillis + Math.max(0, expires - (date < 0 ? nowMillis : date));
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /*
+     * HTTP-date in epoch millis, -1 when absent or invalid (an invalid Expires means already expired)
+     */
+    private static long parseDate(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.cache;
+
+import io.restassured.response.Response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.client.StoredResponses;
+
+import java.util.Map;
+
+/**
+ * One cached 200 response with its validators (ETag, Last-Modified) and freshness lifetime
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedResponse {
+    private String key;
+    private int statusCode;
+    private String statusLine;
+    private Map<String, String> headers;
+    private byte[] body;
+    private String etag;
+    private String lastModified;
+    // Request header values named by the response's Vary header, lower-case name -> value
+    private Map<String, String> varyValues;
+    private long storedAtMillis;
+    // Served without revalidation until then; 0 = revalidate every time
+    private long freshUntilMillis;
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < freshUntilMillis;
+    }
+
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    /*
+     * Approximate heap cost for the cache weigher
+     */
+    int weight() {
+        int weight = 256 + body.length + key.length() * 2;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            weight += (header.getKey().length() + header.getValue().length()) * 2 + 32;
+        }
+        return weight;
+    }
+
+    public Response toResponse() {
+        return StoredResponses.toResponse(statusCode, statusLine, headers, body);
+    }
+}
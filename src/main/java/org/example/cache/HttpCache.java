@@ -0,0 +1,201 @@
+package org.example.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory store behind HttpCacheFilter, bounded by the approximate size of the cached
+ * responses. Eviction is Caffeine's W-TinyLFU: a small LRU window admits new entries and a
+ * frequency sketch decides whether they displace older ones, so a burst of one-off GETs
+ * (pagination, search) does not flush the entries the suite keeps reading.
+ *
+ * An entry with a validator (ETag, Last-Modified) stays after it goes stale, since a 304 is still
+ * cheaper than a full transfer; an entry without one is dropped when its freshness runs out.
+ *
+ * Settings: http.cache.enabled (false), http.cache.max.bytes (64 MB),
+ * http.cache.max.entry.bytes (1 MB) - larger bodies are not cached
+ */
+public class HttpCache {
+
+    private static final Logger logger = LogManager.getLogger(HttpCache.class);
+
+    private static volatile HttpCache shared;
+
+    private final Cache<String, CachedResponse> entries;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public HttpCache(long maxBytes, int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfter(new FreshnessExpiry())
+                .recordStats()
+                .build();
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("http.cache.enabled", false);
+    }
+
+    public static HttpCache shared() {
+        HttpCache cache = shared;
+        if (cache == null) {
+            synchronized (HttpCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    ConfigReader config = ConfigReader.getInstance();
+                    cache = new HttpCache(config.getIntProperty("http.cache.max.bytes", 64 * 1024 * 1024),
+                            config.getIntProperty("http.cache.max.entry.bytes", 1024 * 1024));
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    /*
+     * false when the body is over http.cache.max.entry.bytes
+     */
+    public boolean put(CachedResponse response) {
+        if (response.getBody().length > maxEntryBytes) {
+            entries.invalidate(response.getKey());
+            return false;
+        }
+        entries.put(response.getKey(), response);
+        stores.increment();
+        return true;
+    }
+
+    public void invalidate(String key) {
+        entries.invalidate(key);
+    }
+
+    /*
+     * Drop every cached GET of uri, with or without a query string, for any credentials
+     */
+    public void invalidateUri(String uri) {
+        String exact = "GET " + uri + " ";
+        String withQuery = "GET " + uri + "?";
+        if (entries.asMap().keySet().removeIf(key -> key.startsWith(exact) || key.startsWith(withQuery))) {
+            invalidations.increment();
+        }
+    }
+
+    void onHit(CachedResponse response) {
+        hits.increment();
+        bytesSaved.add(response.getBody().length);
+    }
+
+    void onMiss() {
+        misses.increment();
+    }
+
+    void onRevalidation() {
+        revalidations.increment();
+    }
+
+    void onNotModified(CachedResponse response) {
+        notModified.increment();
+        bytesSaved.add(response.getBody().length);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public HttpCacheStats getStats() {
+        return HttpCacheStats.builder()
+                .entries(entries.estimatedSize())
+                .weightBytes(entries.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .maxBytes(maxBytes)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .revalidations(revalidations.sum())
+                .notModified(notModified.sum())
+                .stores(stores.sum())
+                .invalidations(invalidations.sum())
+                .evictions(entries.stats().evictionCount())
+                .bytesSaved(bytesSaved.sum())
+                .build();
+    }
+
+    /*
+     * No-op unless the shared cache was used this run
+     */
+    public static void logStats() {
+        HttpCache cache = shared;
+        if (cache == null) {
+            return;
+        }
+        HttpCacheStats stats = cache.getStats();
+        logger.info("HTTP cache: entries={} bytes={} hits={} misses={} revalidations={} notModified={} stores={} "
+                        + "invalidations={} evictions={} bytesSaved={}",
+                stats.getEntries(), stats.getWeightBytes(), stats.getHits(), stats.getMisses(),
+                stats.getRevalidations(), stats.getNotModified(), stats.getStores(), stats.getInvalidations(),
+                stats.getEvictions(), stats.getBytesSaved());
+    }
+
+    public static void exportJson(String filePath) {
+        HttpCache cache = shared;
+        if (cache != null) {
+            JsonUtils.serializeToFile(cache.getStats(), filePath);
+        }
+    }
+
+    /*
+     * Drop the shared cache and its counters, e.g. between independent runs in one JVM
+     */
+    public static synchronized void reset() {
+        if (shared != null) {
+            shared.clear();
+            shared = null;
+        }
+    }
+
+    /*
+     * Entries with a validator live until evicted; the rest expire with their freshness
+     */
+    private static final class FreshnessExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            if (response.hasValidators()) {
+                return Long.MAX_VALUE;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, response.getFreshUntilMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.cache;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.client.RequestKeys;
+import org.example.client.StoredResponses;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Private HTTP cache for GET requests, see HttpCache. A fresh entry (max-age / Expires) is served
+ * without a request; a stale entry with an ETag or Last-Modified is revalidated with
+ * If-None-Match / If-Modified-Since and a 304 is answered from the cache as the original 200.
+ * Entries are keyed by RequestKeys, so different credentials never share a response.
+ *
+ * A successful POST, PUT, PATCH or DELETE drops the cached GETs of its URI, of the Location it
+ * returns and of the parent collection, whose listing includes the changed item.
+ * Requests that set their own validators or Cache-Control: no-store bypass the cache;
+ * Cache-Control: no-cache on the request forces a revalidation.
+ */
+public class HttpCacheFilter implements OrderedFilter {
+
+    private static final Logger logger = LogManager.getLogger(HttpCacheFilter.class);
+
+    // Describe the 304 itself, so they must not replace the stored entity headers
+    private static final Set<String> ENTITY_HEADERS = Set.of("content-length", "content-type", "content-encoding",
+            "transfer-encoding");
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String method = requestSpec.getMethod().toUpperCase(Locale.ROOT);
+        if (!"GET".equals(method)) {
+            Response response = ctx.next(requestSpec, responseSpec);
+            if (!"HEAD".equals(method) && !"OPTIONS".equals(method) && response.getStatusCode() < 400) {
+                invalidate(requestSpec.getURI(), response.getHeader("Location"));
+            }
+            return response;
+        }
+        if (requestSpec.getHeaders().hasHeaderWithName("If-None-Match")
+                || requestSpec.getHeaders().hasHeaderWithName("If-Modified-Since")) {
+            // The caller is testing conditional requests itself
+            return ctx.next(requestSpec, responseSpec);
+        }
+        CacheControl requestCacheControl = CacheControl.parse(requestSpec.getHeaders().getValue("Cache-Control"));
+        if (requestCacheControl.noStore) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        HttpCache cache = HttpCache.shared();
+        String key = RequestKeys.of(requestSpec);
+        CachedResponse cached = cache.get(key);
+        if (cached != null && !varyMatches(cached, requestSpec)) {
+            cached = null;
+        }
+        long now = System.currentTimeMillis();
+        if (cached != null && !requestCacheControl.noCache && cached.isFresh(now)) {
+            cache.onHit(cached);
+            return cached.toResponse();
+        }
+
+        if (cached != null && cached.hasValidators()) {
+            cache.onRevalidation();
+            if (cached.getEtag() != null) {
+                requestSpec.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                requestSpec.header("If-Modified-Since", cached.getLastModified());
+            }
+        } else {
+            cache.onMiss();
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        now = System.currentTimeMillis();
+        if (response.getStatusCode() == 304 && cached != null) {
+            CachedResponse refreshed = revalidated(cached, response, now);
+            cache.onNotModified(refreshed);
+            if (refreshed.getFreshUntilMillis() == CacheControl.NOT_STORABLE) {
+                cache.invalidate(key);
+            } else {
+                cache.put(refreshed);
+            }
+            logger.debug("Revalidated {}", key);
+            return refreshed.toResponse();
+        }
+        if (response.getStatusCode() == 200) {
+            store(cache, key, requestSpec, response, now);
+        } else if (cached != null && response.getStatusCode() != 304) {
+            cache.invalidate(key);
+        }
+        return response;
+    }
+
+    private static void store(HttpCache cache, String key, FilterableRequestSpecification requestSpec,
+                              Response response, long now) {
+        Map<String, String> headers = StoredResponses.headersOf(response);
+        long freshUntil = CacheControl.freshUntil(headers, now);
+        String vary = StoredResponses.header(headers, "Vary");
+        String etag = StoredResponses.header(headers, "ETag");
+        String lastModified = StoredResponses.header(headers, "Last-Modified");
+        if (freshUntil == CacheControl.NOT_STORABLE || "*".equals(vary == null ? null : vary.trim())
+                || (freshUntil <= now && etag == null && lastModified == null)) {
+            // Nothing to gain: could neither be served nor revalidated
+            cache.invalidate(key);
+            return;
+        }
+        byte[] body = response.asByteArray();
+        cache.put(CachedResponse.builder()
+                .key(key)
+                .statusCode(response.getStatusCode())
+                .statusLine(response.getStatusLine())
+                .headers(headers)
+                .body(body == null ? new byte[0] : body)
+                .etag(etag)
+                .lastModified(lastModified)
+                .varyValues(varyValues(vary, requestSpec))
+                .storedAtMillis(now)
+                .freshUntilMillis(freshUntil)
+                .build());
+    }
+
+    /*
+     * Stored entry with the 304's headers merged in and a new freshness lifetime (RFC 9111 4.3.4)
+     */
+    private static CachedResponse revalidated(CachedResponse cached, Response notModified, long now) {
+        Map<String, String> headers = new LinkedHashMap<>(cached.getHeaders());
+        StoredResponses.headersOf(notModified).forEach((name, value) -> {
+            if (!ENTITY_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.keySet().removeIf(existing -> existing.equalsIgnoreCase(name));
+                headers.put(name, value);
+            }
+        });
+        String etag = StoredResponses.header(headers, "ETag");
+        String lastModified = StoredResponses.header(headers, "Last-Modified");
+        return cached.toBuilder()
+                .headers(headers)
+                .etag(etag)
+                .lastModified(lastModified)
+                .storedAtMillis(now)
+                .freshUntilMillis(CacheControl.freshUntil(headers, now))
+                .build();
+    }
+
+    private static Map<String, String> varyValues(String vary, FilterableRequestSpecification requestSpec) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (vary != null) {
+            for (String name : vary.split(",")) {
+                String header = name.trim().toLowerCase(Locale.ROOT);
+                if (!header.isEmpty()) {
+                    values.put(header, String.valueOf(requestSpec.getHeaders().getValue(header)));
+                }
+            }
+        }
+        return values;
+    }
+
+    private static boolean varyMatches(CachedResponse cached, FilterableRequestSpecification requestSpec) {
+        for (Map.Entry<String, String> vary : cached.getVaryValues().entrySet()) {
+            if (!vary.getValue().equals(String.valueOf(requestSpec.getHeaders().getValue(vary.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void invalidate(String uri, String location) {
+        HttpCache cache = HttpCache.shared();
+        String target = stripQuery(uri);
+        cache.invalidateUri(target);
+        int slash = target.lastIndexOf('/');
+        if (slash > target.indexOf("//") + 1) {
+            cache.invalidateUri(target.substring(0, slash));
+        }
+        if (location != null) {
+            cache.invalidateUri(stripQuery(URI.create(uri).resolve(location.trim()).toString()));
+        }
+    }
+
+    private static String stripQuery(String uri) {
+        int query = uri.indexOf('?');
+        return query < 0 ? uri : uri.substring(0, query);
+    }
+
+    /*
+     * Inside replay (a replayed response is never cached twice), outside the throttle - a fresh
+     * hit does not take a permit, and a revalidation is throttled, logged and measured like any request
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 50;
+    }
+}
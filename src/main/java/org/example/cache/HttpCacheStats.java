@@ -0,0 +1,28 @@
+package org.example.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpCacheStats {
+    private long entries;
+    private long weightBytes;
+    private long maxBytes;
+    // Fresh entries served without a request
+    private long hits;
+    // No usable entry, unconditional request sent
+    private long misses;
+    // Stale entries revalidated with If-None-Match / If-Modified-Since
+    private long revalidations;
+    // Revalidations answered 304 - cached body served, transfer saved
+    private long notModified;
+    private long stores;
+    private long invalidations;
+    private long evictions;
+    private long bytesSaved;
+}
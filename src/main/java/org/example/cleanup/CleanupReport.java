@@ -0,0 +1,22 @@
+package org.example.cleanup;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleanupReport {
+    private int total;
+    private int deleted;
+    private int alreadyGone;
+    private int failed;
+    private long durationMs;
+    // "type/id: reason" for every resource that could not be deleted
+    private List<String> failures;
+}
@@ -0,0 +1,256 @@
+package org.example.cleanup;
+
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.client.RetryPolicy;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Suite-wide registry of resources created through the service layer.
+ *
+ * Services report successful creates (trackCreated) and deletes (trackDeleted), so anything a test
+ * left behind - including tests that failed before their own delete - is still known at suite end.
+ * cleanup() deletes what is left with bounded parallelism, an optional request rate cap and retries
+ * for throttled or failed calls. Resource types are cleaned in ascending cleanup order, one type
+ * at a time, so dependents (posts) go before the resources they reference (users).
+ *
+ * Settings: cleanup.parallelism (32), cleanup.max.retries (3), cleanup.rate.per.second (0 = no cap),
+ * cleanup.timeout.seconds (120).
+ */
+public class ResourceTracker {
+
+    private static final Logger logger = LogManager.getLogger(ResourceTracker.class);
+
+    private static final int DEFAULT_PARALLELISM = 32;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final int DEFAULT_TIMEOUT_SECONDS = 120;
+    private static final long BASE_BACKOFF_MS = 100;
+
+    private static final ConcurrentMap<String, Set<Long>> resources = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LongFunction<Response>> deleters = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Integer> cleanupOrder = new ConcurrentHashMap<>();
+
+    private ResourceTracker() {
+    }
+
+    /*
+     * Register how resources of a type are deleted, e.g. ("user", 1, id -> new UserService().deleteUser(id)).
+     * Types with a lower order are cleaned first
+     */
+    public static void registerDeleter(String type, int order, LongFunction<Response> deleter) {
+        cleanupOrder.put(type, order);
+        deleters.put(type, deleter);
+    }
+
+    /*
+     * Record the id from a successful create response. Returns the response for chaining
+     */
+    public static Response trackCreated(String type, Response response) {
+        if (response.getStatusCode() == 201) {
+            try {
+                track(type, response.jsonPath().getLong("id"));
+            } catch (RuntimeException e) {
+                logger.warn("Could not read id of created {} for cleanup: {}", type, e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    public static void track(String type, Long id) {
+        if (id == null) {
+            return;
+        }
+        resources.computeIfAbsent(type, key -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    /*
+     * Forget a resource once a delete succeeded or it is already gone. Returns the response for chaining
+     */
+    public static Response trackDeleted(String type, Long id, Response response) {
+        int status = response.getStatusCode();
+        if (status < 300 || status == 404) {
+            untrack(type, id);
+        }
+        return response;
+    }
+
+    public static void untrack(String type, Long id) {
+        Set<Long> ids = resources.get(type);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    public static int pendingCount() {
+        return resources.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /*
+     * Delete everything still tracked and report the outcome
+     */
+    public static CleanupReport cleanup() {
+        ConfigReader config = ConfigReader.getInstance();
+        int parallelism = Math.max(1, config.getIntProperty("cleanup.parallelism", DEFAULT_PARALLELISM));
+        int maxRetries = config.getIntProperty("cleanup.max.retries", DEFAULT_MAX_RETRIES);
+        int ratePerSecond = config.getIntProperty("cleanup.rate.per.second", 0);
+        int timeoutSeconds = config.getIntProperty("cleanup.timeout.seconds", DEFAULT_TIMEOUT_SECONDS);
+
+        long start = System.nanoTime();
+        AtomicInteger deleted = new AtomicInteger();
+        AtomicInteger alreadyGone = new AtomicInteger();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        RatePacer pacer = new RatePacer(ratePerSecond);
+        int total = 0;
+
+        List<String> types = new ArrayList<>(resources.keySet());
+        types.sort(Comparator.comparing(type -> cleanupOrder.getOrDefault(type, Integer.MAX_VALUE)));
+        for (String type : types) {
+            List<Long> ids = new ArrayList<>(resources.getOrDefault(type, Collections.emptySet()));
+            if (ids.isEmpty()) {
+                continue;
+            }
+            total += ids.size();
+            LongFunction<Response> deleter = deleters.get(type);
+            if (deleter == null) {
+                ids.forEach(id -> failures.add(type + "/" + id + ": no deleter registered"));
+                continue;
+            }
+
+            logger.info("Cleaning up {} {} resource(s) with parallelism {}", ids.size(), type, parallelism);
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(parallelism, ids.size()), daemonThreads());
+            for (Long id : ids) {
+                workers.execute(() -> {
+                    String outcome = delete(type, id, deleter, maxRetries, pacer);
+                    if (outcome == null) {
+                        deleted.incrementAndGet();
+                    } else if (outcome.isEmpty()) {
+                        alreadyGone.incrementAndGet();
+                    } else {
+                        failures.add(type + "/" + id + ": " + outcome);
+                    }
+                });
+            }
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                    failures.add(type + ": cleanup timed out after " + timeoutSeconds + " s");
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        CleanupReport report = CleanupReport.builder()
+                .total(total)
+                .deleted(deleted.get())
+                .alreadyGone(alreadyGone.get())
+                .failed(failures.size())
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .failures(new ArrayList<>(failures))
+                .build();
+        if (total > 0) {
+            logger.info("Cleanup finished in {} ms: {} deleted, {} already gone, {} failed",
+                    report.getDurationMs(), report.getDeleted(), report.getAlreadyGone(), report.getFailed());
+        }
+        if (!failures.isEmpty()) {
+            logger.warn("Resources that could not be cleaned up:\n{}", String.join("\n", failures));
+        }
+        return report;
+    }
+
+    public static void exportJson(CleanupReport report, String filePath) {
+        if (report.getTotal() > 0) {
+            JsonUtils.serializeToFile(report, filePath);
+        }
+    }
+
+    /*
+     * Returns null when deleted, "" when already gone, otherwise the failure reason.
+     * 429 and 5xx responses and transport errors are retried with exponential backoff - here only, each
+     * call goes out once through RestClient, so RetryPolicy does not multiply the attempts
+     */
+    private static String delete(String type, Long id, LongFunction<Response> deleter, int maxRetries,
+                                 RatePacer pacer) {
+        String reason = null;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(BASE_BACKOFF_MS << (attempt - 1)));
+            }
+            pacer.acquire();
+            int status;
+            try {
+                Response response = RetryPolicy.withoutRetries(() -> deleter.apply(id));
+                status = response.getStatusCode();
+            } catch (RuntimeException e) {
+                reason = e.toString();
+                continue;
+            }
+            if (status < 300) {
+                untrack(type, id);
+                return null;
+            }
+            if (status == 404) {
+                untrack(type, id);
+                return "";
+            }
+            reason = "status " + status;
+            if (status != 429 && status < 500) {
+                break;
+            }
+        }
+        return reason;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cleanup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Spaces calls evenly at a fixed rate; each caller reserves the next free slot
+     */
+    private static final class RatePacer {
+
+        private final long intervalNanos;
+        private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+        RatePacer(int ratePerSecond) {
+            this.intervalNanos = ratePerSecond > 0 ? 1_000_000_000L / ratePerSecond : 0;
+        }
+
+        void acquire() {
+            if (intervalNanos == 0) {
+                return;
+            }
+            long slot = nextSlot.getAndUpdate(next -> Math.max(next, System.nanoTime()) + intervalNanos);
+            long wait = slot - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.client;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.VirtualThreads;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor shared by the async RestClient verbs.
+ * Size with async.pool.size and async.queue.capacity; when the queue is full the
+ * submitting thread runs the request itself, which throttles callers fanning out work.
+ * In virtual thread mode the workers are virtual threads, so async.pool.size can be raised freely.
+ */
+public class AsyncExecutor {
+
+    private static final Logger logger = LogManager.getLogger(AsyncExecutor.class);
+
+    private static final int DEFAULT_POOL_SIZE = 64;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static volatile ExecutorService executor;
+
+    private AsyncExecutor() {
+    }
+
+    public static ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (AsyncExecutor.class) {
+                if (executor == null) {
+                    executor = createExecutor();
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static ExecutorService createExecutor() {
+        int poolSize = ConfigReader.getInstance().getIntProperty("async.pool.size", DEFAULT_POOL_SIZE);
+        int queueCapacity = ConfigReader.getInstance().getIntProperty("async.queue.capacity", DEFAULT_QUEUE_CAPACITY);
+        logger.info("Creating async executor with {} threads and queue capacity {}", poolSize, queueCapacity);
+
+        ThreadFactory threadFactory = VirtualThreads.isEnabled() ? VirtualThreads.factory("rest-async-vt-") : null;
+        if (threadFactory == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "rest-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, AsyncExecutor::rejected);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /*
+     * A full queue makes the submitting thread run the request itself. After shutdown the task is
+     * refused, so supplyAsync fails instead of returning a future that never completes
+     */
+    private static void rejected(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Async executor is shut down");
+        }
+        task.run();
+    }
+
+    /*
+     * Stop the executor after in-flight requests complete
+     */
+    public static void shutdown() {
+        synchronized (AsyncExecutor.class) {
+            if (executor == null) {
+                return;
+            }
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package org.example.client;
+
+import io.restassured.config.DecoderConfig;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.brotli.dec.BrotliInputStream;
+import org.example.utils.ConfigReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-coding on the pooled HttpClient, in place of REST Assured's decoders (which are switched
+ * off in SpecBuilder, see decoderConfig()):
+ * - Accept-Encoding is added to every request that does not set its own
+ * - gzip, deflate (zlib-wrapped or raw) and br response bodies are decoded while REST Assured reads
+ *   them - one pass, no intermediate copy of the compressed body. Content-Encoding and
+ *   Content-Length are removed from the decoded response, as they describe the wire form
+ * - request bodies of at least http.compression.request.min.bytes are sent gzip-compressed
+ *
+ * Wire vs. decoded sizes and decode time of the current exchange are collected in a Transfer that
+ * MetricsFilter opens around each request (see begin()), and in suite-wide counters.
+ *
+ * Settings: http.compression.enabled (true), http.compression.accept (gzip, deflate, br),
+ * http.compression.request.min.bytes (-1 = never compress request bodies; the server must accept
+ * Content-Encoding: gzip)
+ */
+@SuppressWarnings("deprecation")
+public class Compression {
+
+    private static final Logger logger = LogManager.getLogger(Compression.class);
+
+    private static final ThreadLocal<Transfer> currentTransfer = new ThreadLocal<>();
+
+    private static final LongAdder decodedResponses = new LongAdder();
+    private static final LongAdder responseWireBytes = new LongAdder();
+    private static final LongAdder responseDecodedBytes = new LongAdder();
+    private static final LongAdder decodeNanos = new LongAdder();
+    private static final LongAdder compressedRequests = new LongAdder();
+    private static final LongAdder requestRawBytes = new LongAdder();
+    private static final LongAdder requestWireBytes = new LongAdder();
+
+    private Compression() {
+    }
+
+    /*
+     * REST Assured decoders off: it would otherwise replace Accept-Encoding and decode without metrics
+     */
+    public static DecoderConfig decoderConfig() {
+        return DecoderConfig.decoderConfig().noContentDecoders();
+    }
+
+    /*
+     * Called once for the shared client in ConnectionPool
+     */
+    static void install(DefaultHttpClient client) {
+        ConfigReader config = ConfigReader.getInstance();
+        boolean enabled = config.getBooleanProperty("http.compression.enabled", true);
+        String accept = config.getProperty("http.compression.accept");
+        String acceptEncoding = accept == null || accept.isBlank() ? "gzip, deflate, br" : accept.trim();
+        int requestMinBytes = config.getIntProperty("http.compression.request.min.bytes", -1);
+        logger.info("HTTP compression: accept={}, request bodies >= {} bytes",
+                enabled ? acceptEncoding : "identity", requestMinBytes < 0 ? "never" : requestMinBytes);
+
+        if (enabled) {
+            client.addRequestInterceptor(acceptEncoding(acceptEncoding));
+        }
+        if (requestMinBytes >= 0) {
+            client.addRequestInterceptor(requestCompression(requestMinBytes));
+        }
+        // Always installed, so a server that compresses unasked still yields readable bodies
+        client.addResponseInterceptor(responseDecoding());
+    }
+
+    private static HttpRequestInterceptor acceptEncoding(String value) {
+        return (request, context) -> {
+            if (!request.containsHeader("Accept-Encoding")) {
+                request.addHeader("Accept-Encoding", value);
+            }
+        };
+    }
+
+    /*
+     * Bodies of known length >= minBytes, not already encoded, are replaced by their gzip form;
+     * a resend of the same request keeps the compressed entity
+     */
+    private static HttpRequestInterceptor requestCompression(int minBytes) {
+        return (request, context) -> {
+            if (!(request instanceof HttpEntityEnclosingRequest) || request.containsHeader("Content-Encoding")) {
+                return;
+            }
+            HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+            HttpEntity entity = enclosing.getEntity();
+            if (entity == null || entity.getContentLength() < minBytes || entity.getContentEncoding() != null
+                    || entity.getContentLength() < 0) {
+                return;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) entity.getContentLength() / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                entity.writeTo(gzip);
+            }
+            ByteArrayEntity compressed = new ByteArrayEntity(bytes.toByteArray());
+            compressed.setContentType(entity.getContentType());
+            enclosing.setEntity(compressed);
+            // RequestContent has already framed the original body
+            request.setHeader("Content-Length", Long.toString(compressed.getContentLength()));
+            request.addHeader("Content-Encoding", "gzip");
+
+            compressedRequests.increment();
+            requestRawBytes.add(entity.getContentLength());
+            requestWireBytes.add(compressed.getContentLength());
+            Transfer transfer = currentTransfer.get();
+            if (transfer != null) {
+                transfer.requestWireBytes = compressed.getContentLength();
+            }
+        };
+    }
+
+    private static HttpResponseInterceptor responseDecoding() {
+        return (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity == null || entity.getContentEncoding() == null) {
+                return;
+            }
+            String encoding = entity.getContentEncoding().getValue().trim().toLowerCase(Locale.ROOT);
+            if (encoding.isEmpty() || "identity".equals(encoding)) {
+                return;
+            }
+            if (!isSupported(encoding)) {
+                logger.warn("Leaving response with unsupported Content-Encoding {} undecoded", encoding);
+                return;
+            }
+            Transfer transfer = currentTransfer.get();
+            if (transfer == null) {
+                transfer = new Transfer();
+            }
+            transfer.encoding = encoding;
+            response.setEntity(new DecodingEntity(entity, encoding, transfer));
+            response.removeHeaders("Content-Encoding");
+            response.removeHeaders("Content-Length");
+            response.removeHeaders("Content-MD5");
+        };
+    }
+
+    private static boolean isSupported(String encoding) {
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+            case "deflate":
+            case "br":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /*
+     * Start collecting wire sizes for the request about to run on this thread
+     */
+    public static Transfer begin() {
+        Transfer transfer = new Transfer();
+        currentTransfer.set(transfer);
+        return transfer;
+    }
+
+    public static void end() {
+        currentTransfer.remove();
+    }
+
+    public static void logStats() {
+        long responses = decodedResponses.sum();
+        long requests = compressedRequests.sum();
+        if (responses == 0 && requests == 0) {
+            return;
+        }
+        logger.info("HTTP compression: decodedResponses={} wireBytes={} decodedBytes={} decodeMs={} "
+                        + "compressedRequests={} requestBytes={} requestWireBytes={}",
+                responses, responseWireBytes.sum(), responseDecodedBytes.sum(),
+                String.format("%.1f", decodeNanos.sum() / 1_000_000.0),
+                requests, requestRawBytes.sum(), requestWireBytes.sum());
+    }
+
+    public static void reset() {
+        decodedResponses.reset();
+        responseWireBytes.reset();
+        responseDecodedBytes.reset();
+        decodeNanos.reset();
+        compressedRequests.reset();
+        requestRawBytes.reset();
+        requestWireBytes.reset();
+    }
+
+    /**
+     * Wire-level view of one exchange; -1 means the body went uncompressed
+     */
+    public static class Transfer {
+        private volatile String encoding;
+        private volatile long requestWireBytes = -1;
+        private final LongAdder responseWireBytes = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+
+        public boolean isResponseEncoded() {
+            return encoding != null;
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public long getRequestWireBytes() {
+            return requestWireBytes;
+        }
+
+        public long getResponseWireBytes() {
+            return encoding == null ? -1 : responseWireBytes.sum();
+        }
+
+        public long getDecodeNanos() {
+            return decodeNanos.sum();
+        }
+    }
+
+    /*
+     * Decodes while the caller reads. Decode time is the time spent in read() minus the time spent
+     * waiting for compressed bytes, so a slow network does not count as decoding
+     */
+    private static class DecodingEntity extends HttpEntityWrapper {
+
+        private final String encoding;
+        private final Transfer transfer;
+
+        DecodingEntity(HttpEntity wrapped, String encoding, Transfer transfer) {
+            super(wrapped);
+            this.encoding = encoding;
+            this.transfer = transfer;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            WireStream wire = new WireStream(wrappedEntity.getContent());
+            return new DecodedStream(wire, decoder(wire));
+        }
+
+        private InputStream decoder(InputStream wire) throws IOException {
+            switch (encoding) {
+                case "gzip":
+                case "x-gzip":
+                    return new GZIPInputStream(wire, 8192);
+                case "br":
+                    return new BrotliInputStream(wire);
+                default:
+                    return inflater(wire);
+            }
+        }
+
+        /*
+         * "deflate" should be zlib-wrapped (RFC 9110), but some servers send a raw stream - check the header
+         */
+        private static InputStream inflater(InputStream wire) throws IOException {
+            PushbackInputStream in = new PushbackInputStream(wire, 2);
+            int first = in.read();
+            int second = first < 0 ? -1 : in.read();
+            if (second >= 0) {
+                in.unread(second);
+            }
+            if (first >= 0) {
+                in.unread(first);
+            }
+            boolean zlib = first >= 0 && second >= 0 && (first & 0x0f) == 8 && ((first << 8) | second) % 31 == 0;
+            return new InflaterInputStream(in, new Inflater(!zlib), 8192);
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return wrappedEntity.isStreaming();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream in = getContent()) {
+                in.transferTo(out);
+            }
+        }
+
+        /*
+         * Counts compressed bytes and the time spent waiting for them
+         */
+        private final class WireStream extends FilterInputStream {
+            private long waitNanos;
+
+            WireStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                long start = System.nanoTime();
+                int b = super.read();
+                waitNanos += System.nanoTime() - start;
+                if (b >= 0) {
+                    transfer.responseWireBytes.increment();
+                    responseWireBytes.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                long start = System.nanoTime();
+                int n = super.read(buffer, offset, length);
+                waitNanos += System.nanoTime() - start;
+                if (n > 0) {
+                    transfer.responseWireBytes.add(n);
+                    responseWireBytes.add(n);
+                }
+                return n;
+            }
+        }
+
+        private final class DecodedStream extends FilterInputStream {
+            private final WireStream wire;
+            private boolean finished;
+
+            DecodedStream(WireStream wire, InputStream decoder) {
+                super(decoder);
+                this.wire = wire;
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                int n = read(one, 0, 1);
+                return n < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                long start = System.nanoTime();
+                long waitBefore = wire.waitNanos;
+                int n = super.read(buffer, offset, length);
+                long decode = System.nanoTime() - start - (wire.waitNanos - waitBefore);
+                transfer.decodeNanos.add(decode);
+                decodeNanos.add(decode);
+                if (n > 0) {
+                    responseDecodedBytes.add(n);
+                } else if (n < 0 && !finished) {
+                    finished = true;
+                    decodedResponses.increment();
+                }
+                return n;
+            }
+        }
+    }
+}
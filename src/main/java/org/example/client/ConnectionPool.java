@@ -0,0 +1,235 @@
+package org.example.client;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared, keep-alive HTTP connection pool used by every request spec built in SpecBuilder.
+ * REST Assured still drives the Apache HttpClient 4 "AbstractHttpClient" API, so the pool is a
+ * PoolingClientConnectionManager behind a single DefaultHttpClient that is reused across requests.
+ *
+ * Config keys: http.pool.max.total, http.pool.max.per.route, http.pool.idle.timeout.ms,
+ * http.keepalive.ms; connect/read timeouts come from ConfigReader.getTimeout(). Content-coding
+ * interceptors are added by Compression.
+ */
+@SuppressWarnings("deprecation")
+public class ConnectionPool {
+
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+
+    private static final int DEFAULT_MAX_TOTAL = 200;
+    private static final int DEFAULT_MAX_PER_ROUTE = 50;
+    private static final int DEFAULT_IDLE_TIMEOUT_MS = 30000;
+    private static final int DEFAULT_KEEP_ALIVE_MS = 30000;
+
+    // Every new physical connection (and TLS handshake for https) goes through openConnection
+    private static final AtomicLong connectionsOpened = new AtomicLong();
+
+    private static volatile PoolingClientConnectionManager connectionManager;
+    private static volatile DefaultHttpClient httpClient;
+    private static volatile Thread evictor;
+
+    private ConnectionPool() {
+    }
+
+    /*
+     * HttpClientConfig that makes REST Assured reuse the pooled client instead of creating one per request
+     */
+    public static HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(ConnectionPool::getHttpClient);
+    }
+
+    public static DefaultHttpClient getHttpClient() {
+        if (httpClient == null) {
+            synchronized (ConnectionPool.class) {
+                if (httpClient == null) {
+                    httpClient = createHttpClient();
+                }
+            }
+        }
+        return httpClient;
+    }
+
+    private static DefaultHttpClient createHttpClient() {
+        ConfigReader config = ConfigReader.getInstance();
+        int maxTotal = config.getIntProperty("http.pool.max.total", DEFAULT_MAX_TOTAL);
+        int maxPerRoute = config.getIntProperty("http.pool.max.per.route", DEFAULT_MAX_PER_ROUTE);
+        int idleTimeoutMs = config.getIntProperty("http.pool.idle.timeout.ms", DEFAULT_IDLE_TIMEOUT_MS);
+        int keepAliveMs = config.getIntProperty("http.keepalive.ms", DEFAULT_KEEP_ALIVE_MS);
+        int timeout = config.getTimeout();
+
+        logger.info("Creating HTTP connection pool: maxTotal={}, maxPerRoute={}, idleTimeout={} ms, keepAlive={} ms, timeout={} ms",
+                maxTotal, maxPerRoute, idleTimeoutMs, keepAliveMs, timeout);
+
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault()) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemeRegistry) {
+                return new CountingConnectionOperator(schemeRegistry);
+            }
+        };
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+
+        DefaultHttpClient client = new DefaultHttpClient(manager);
+        HttpParams params = client.getParams();
+        HttpConnectionParams.setConnectionTimeout(params, timeout);
+        HttpConnectionParams.setSoTimeout(params, timeout);
+        params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, timeout);
+        client.setKeepAliveStrategy(keepAliveStrategy(keepAliveMs));
+        client.setHttpRequestRetryHandler(unsentRequestRetryHandler());
+        Compression.install(client);
+
+        connectionManager = manager;
+        startEvictor(manager, idleTimeoutMs);
+        return client;
+    }
+
+    /*
+     * Honour the server's Keep-Alive timeout header, otherwise keep connections for http.keepalive.ms
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMs) {
+        return (response, context) -> {
+            HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (it.hasNext()) {
+                HeaderElement element = it.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException ignored) {
+                        // fall back to the configured keep-alive
+                    }
+                }
+            }
+            return defaultKeepAliveMs;
+        };
+    }
+
+    /*
+     * HttpClient's default handler silently resends idempotent requests up to 3 times, which would
+     * multiply with RetryPolicy. Only resend once when the request never left (e.g. a pooled connection
+     * the server had already closed) - safe for every verb; everything else is RetryPolicy's call
+     */
+    private static HttpRequestRetryHandler unsentRequestRetryHandler() {
+        return (exception, executionCount, context) ->
+                executionCount <= 1 && !HttpClientContext.adapt(context).isRequestSent();
+    }
+
+    /*
+     * Background thread closing expired and idle connections
+     */
+    private static void startEvictor(PoolingClientConnectionManager manager, long idleTimeoutMs) {
+        Thread thread = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    TimeUnit.MILLISECONDS.sleep(Math.max(1000, idleTimeoutMs / 2));
+                    manager.closeExpiredConnections();
+                    manager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "http-pool-evictor");
+        thread.setDaemon(true);
+        thread.start();
+        evictor = thread;
+    }
+
+    /*
+     * Pool counters: leased, idle (available), pending and max connections
+     */
+    public static PoolStats getStats() {
+        PoolingClientConnectionManager manager = connectionManager;
+        return manager == null ? new PoolStats(0, 0, 0, 0) : manager.getTotalStats();
+    }
+
+    /*
+     * Counters of the route to one host. Pooled routes always carry the port, so a URL without one
+     * is looked up on the scheme's default port
+     */
+    public static PoolStats getStats(String baseUrl) {
+        PoolingClientConnectionManager manager = connectionManager;
+        if (manager == null) {
+            return new PoolStats(0, 0, 0, 0);
+        }
+        HttpHost host = HttpHost.create(baseUrl);
+        boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+        if (host.getPort() < 0) {
+            host = new HttpHost(host.getHostName(), secure ? 443 : 80, host.getSchemeName());
+        }
+        return manager.getStats(new HttpRoute(host, null, secure));
+    }
+
+    /*
+     * Physical connections opened since start - equals the TLS handshake count for https targets
+     */
+    public static long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    public static void logStats() {
+        PoolStats stats = getStats();
+        logger.info("HTTP pool: leased={}, idle={}, pending={}, max={}, connectionsOpened={}",
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax(), getConnectionsOpened());
+    }
+
+    /*
+     * Close all pooled connections and stop the evictor
+     */
+    public static void shutdown() {
+        synchronized (ConnectionPool.class) {
+            if (httpClient == null) {
+                return;
+            }
+            logStats();
+            evictor.interrupt();
+            connectionManager.shutdown();
+            httpClient = null;
+            connectionManager = null;
+            evictor = null;
+        }
+    }
+
+    private static class CountingConnectionOperator extends DefaultClientConnectionOperator {
+
+        CountingConnectionOperator(SchemeRegistry schemeRegistry) {
+            super(schemeRegistry);
+        }
+
+        @Override
+        public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local,
+                                   HttpContext context, HttpParams params) throws IOException {
+            super.openConnection(conn, target, local, context, params);
+            connectionsOpened.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.client;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request/response logging through log4j (async appenders) instead of REST Assured's System.out logging.
+ * Verbosity is set with http.log.mode:
+ * ALL - full request and response for every call
+ * FAILURE - full detail for 4xx/5xx responses, one summary line otherwise (default)
+ * SUMMARY - one summary line per call
+ * NONE - no HTTP logging
+ */
+public class HttpLogFilter implements OrderedFilter {
+
+    private static final Logger logger = LogManager.getLogger(HttpLogFilter.class);
+
+    public enum Mode { ALL, FAILURE, SUMMARY, NONE }
+
+    private final Mode mode;
+
+    public HttpLogFilter(Mode mode) {
+        this.mode = mode;
+    }
+
+    public static HttpLogFilter fromConfig() {
+        String mode = ConfigReader.getInstance().getProperty("http.log.mode");
+        return new HttpLogFilter(mode == null ? Mode.FAILURE : Mode.valueOf(mode.trim().toUpperCase()));
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        if (mode == Mode.ALL || (mode == Mode.FAILURE && response.getStatusCode() >= 400)) {
+            logFull(requestSpec, response, elapsedMs);
+        } else if (mode != Mode.NONE) {
+            logger.info("{} {} -> {} in {} ms", requestSpec.getMethod(), requestSpec.getURI(),
+                    response.getStatusCode(), elapsedMs);
+        }
+        return response;
+    }
+
+    private void logFull(FilterableRequestSpecification requestSpec, Response response, long elapsedMs) {
+        StringBuilder message = new StringBuilder(512)
+                .append(requestSpec.getMethod()).append(' ').append(requestSpec.getURI())
+                .append(" -> ").append(response.getStatusCode()).append(" in ").append(elapsedMs).append(" ms")
+                .append("\nRequest headers:");
+        appendHeaders(message, requestSpec.getHeaders());
+        message.append("\nRequest body: ").append(bodyAsString(requestSpec.getBody()))
+                .append("\nResponse headers:");
+        appendHeaders(message, response.getHeaders());
+        message.append("\nResponse body: ").append(response.asString());
+
+        if (response.getStatusCode() >= 400) {
+            logger.warn(message);
+        } else {
+            logger.info(message);
+        }
+    }
+
+    private static void appendHeaders(StringBuilder message, Headers headers) {
+        for (Header header : headers) {
+            String value = "Authorization".equalsIgnoreCase(header.getName()) ? "[masked]" : header.getValue();
+            message.append("\n\t").append(header.getName()).append(": ").append(value);
+        }
+    }
+
+    private static String bodyAsString(Object body) {
+        if (body == null) {
+            return "<none>";
+        }
+        if (body instanceof byte[]) {
+            return new String((byte[]) body, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(body);
+    }
+
+    /*
+     * Run just outside MetricsFilter so timings exclude other filters
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 1;
+    }
+}
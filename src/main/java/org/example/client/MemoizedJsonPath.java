@@ -0,0 +1,205 @@
+package org.example.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import io.restassured.path.json.JsonPath;
+import org.example.utils.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JsonPath over a response body that is parsed at most once.
+ *
+ * REST Assured's JsonPath re-parses the whole document on every get(). Here each path result is
+ * memoized per response, and simple paths (e.g. "id", "data.user.name", "[0].id") are compiled once,
+ * shared across responses and evaluated against a Jackson tree of the body. Anything the compiled form
+ * cannot answer exactly like GPath - floats, objects, lists, spreads, functions - falls back to
+ * super.get(), whose result is then memoized as well.
+ *
+ * Memoized maps and lists are shared between callers of the same response, so treat them as read-only.
+ */
+class MemoizedJsonPath extends JsonPath {
+
+    // Stand-in for null results, ConcurrentHashMap does not accept null values
+    private static final Object NULL = new Object();
+
+    // Compiled paths are shared by every response; bounded so generated paths cannot grow it forever
+    private static final int MAX_COMPILED_PATHS = 1024;
+    private static final ConcurrentMap<String, CompiledPath> compiledPaths = new ConcurrentHashMap<>();
+
+    private final byte[] body;
+    private final ConcurrentMap<String, Object> results = new ConcurrentHashMap<>();
+    private volatile JsonNode tree;
+
+    MemoizedJsonPath(String text, byte[] body) {
+        super(text);
+        this.body = body;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String path) {
+        Object result = results.get(path);
+        if (result == null) {
+            result = evaluate(path);
+            Object previous = results.putIfAbsent(path, result == null ? NULL : result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+        return result == NULL ? null : (T) result;
+    }
+
+    private Object evaluate(String path) {
+        CompiledPath compiled = compile(path);
+        if (compiled != null) {
+            JsonNode node = compiled.navigate(getTree());
+            if (node != null && (node.isNull() || node.isTextual() || node.isBoolean()
+                    || (node.isIntegralNumber() && node.canConvertToLong()))) {
+                return toValue(node);
+            }
+        }
+        return super.get(path);
+    }
+
+    private JsonNode getTree() {
+        JsonNode result = tree;
+        if (result == null) {
+            result = JsonUtils.readTree(body);
+            tree = result;
+        }
+        return result;
+    }
+
+    /*
+     * Same types Groovy's JsonSlurper produces for these scalars
+     */
+    private static Object toValue(JsonNode node) {
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isIntegralNumber()) {
+            return node.canConvertToInt() ? (Object) node.intValue() : (Object) node.longValue();
+        }
+        return null;
+    }
+
+    static CompiledPath compile(String path) {
+        CompiledPath compiled = compiledPaths.get(path);
+        if (compiled == null) {
+            compiled = CompiledPath.parse(path);
+            if (compiledPaths.size() < MAX_COMPILED_PATHS) {
+                compiledPaths.putIfAbsent(path, compiled);
+            }
+        }
+        return compiled == CompiledPath.UNSUPPORTED ? null : compiled;
+    }
+
+    /**
+     * Path made only of field names and [index] steps, e.g. "data[0].user.id"
+     */
+    static final class CompiledPath {
+
+        static final CompiledPath UNSUPPORTED = new CompiledPath(new Object[0]);
+
+        // String = field name, Integer = list index (negative counts from the end)
+        private final Object[] steps;
+
+        private CompiledPath(Object[] steps) {
+            this.steps = steps;
+        }
+
+        static CompiledPath parse(String path) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty() || "$".equals(trimmed)) {
+                return new CompiledPath(new Object[0]);
+            }
+            List<Object> steps = new ArrayList<>();
+            int i = 0;
+            while (i < trimmed.length()) {
+                char c = trimmed.charAt(i);
+                if (c == '[') {
+                    int end = trimmed.indexOf(']', i);
+                    if (end < 0) {
+                        return UNSUPPORTED;
+                    }
+                    try {
+                        steps.add(Integer.parseInt(trimmed.substring(i + 1, end)));
+                    } catch (NumberFormatException e) {
+                        return UNSUPPORTED;
+                    }
+                    i = end + 1;
+                } else if (c == '.' && i > 0 && i + 1 < trimmed.length() && isNameStart(trimmed.charAt(i + 1))) {
+                    i++;
+                } else if (isNameStart(c)) {
+                    int end = i + 1;
+                    while (end < trimmed.length() && isNamePart(trimmed.charAt(end))) {
+                        end++;
+                    }
+                    String name = trimmed.substring(i, end);
+                    // GPath keywords and functions ("size()", "find", ...) need the real evaluator
+                    if (end < trimmed.length() && trimmed.charAt(end) == '(') {
+                        return UNSUPPORTED;
+                    }
+                    steps.add(name);
+                    i = end;
+                } else {
+                    return UNSUPPORTED;
+                }
+            }
+            return new CompiledPath(steps.toArray());
+        }
+
+        private static boolean isNameStart(char c) {
+            return Character.isLetter(c) || c == '_';
+        }
+
+        private static boolean isNamePart(char c) {
+            return Character.isLetterOrDigit(c) || c == '_';
+        }
+
+        /*
+         * Walk the tree; null means the compiled form cannot answer and GPath must decide
+         */
+        JsonNode navigate(JsonNode root) {
+            JsonNode node = root;
+            for (Object step : steps) {
+                if (node == null || node.isMissingNode()) {
+                    return null;
+                }
+                if (step instanceof String) {
+                    if (node.isNull()) {
+                        return node;
+                    }
+                    if (!node.isObject()) {
+                        // Field access on a list spreads over its elements in GPath
+                        return null;
+                    }
+                    JsonNode child = node.get((String) step);
+                    if (child == null) {
+                        // Missing field - GPath returns null
+                        return NullNode.getInstance();
+                    }
+                    node = child;
+                } else {
+                    if (!node.isArray()) {
+                        return null;
+                    }
+                    int index = (Integer) step;
+                    int resolved = index < 0 ? node.size() + index : index;
+                    if (resolved < 0 || resolved >= node.size()) {
+                        return null;
+                    }
+                    node = node.get(resolved);
+                }
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.client;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Response wrapper that parses the body at most once.
+ *
+ * jsonPath() returns the same MemoizedJsonPath on every call, path(...) is answered from it, and
+ * as(Class) / as(Type) results are cached per target type. Every other method goes straight to the
+ * wrapped REST Assured response, so callers keep using the plain Response interface.
+ *
+ * Objects returned by as() are shared between callers of the same response - copy before mutating.
+ */
+public final class MemoizedResponse implements InvocationHandler {
+
+    private final Response delegate;
+    private final ConcurrentMap<Type, Object> typedViews = new ConcurrentHashMap<>();
+    private volatile MemoizedJsonPath jsonPath;
+    private Response proxy;
+
+    private MemoizedResponse(Response delegate) {
+        this.delegate = delegate;
+    }
+
+    /*
+     * Wrap a response; wrapping an already memoized response returns it unchanged
+     */
+    public static Response wrap(Response response) {
+        if (response == null || isMemoized(response)) {
+            return response;
+        }
+        MemoizedResponse handler = new MemoizedResponse(response);
+        handler.proxy = (Response) Proxy.newProxyInstance(MemoizedResponse.class.getClassLoader(),
+                new Class<?>[]{Response.class}, handler);
+        return handler.proxy;
+    }
+
+    public static boolean isMemoized(Response response) {
+        return Proxy.isProxyClass(response.getClass())
+                && Proxy.getInvocationHandler(response) instanceof MemoizedResponse;
+    }
+
+    @Override
+    public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+        int argCount = args == null ? 0 : args.length;
+        switch (method.getName()) {
+            case "jsonPath":
+                if (argCount == 0) {
+                    return getJsonPath();
+                }
+                break;
+            case "path":
+                // path(String, String...) - only the plain form maps onto a cached lookup
+                if (argCount == 2 && ((Object[]) args[1]).length == 0 && isJson()) {
+                    return getJsonPath().get((String) args[0]);
+                }
+                break;
+            case "as":
+                if (argCount == 1 && args[0] instanceof Type) {
+                    return as((Type) args[0], method, args);
+                }
+                break;
+            case "body":
+            case "getBody":
+            case "peek":
+            case "prettyPeek":
+                // Keep chained calls on the memoized view
+                if (argCount == 0) {
+                    invokeDelegate(method, args);
+                    return proxy;
+                }
+                break;
+            case "equals":
+                return argCount == 1 && proxyInstance == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxyInstance);
+            default:
+                break;
+        }
+        return invokeDelegate(method, args);
+    }
+
+    private JsonPath getJsonPath() {
+        MemoizedJsonPath result = jsonPath;
+        if (result == null) {
+            synchronized (this) {
+                result = jsonPath;
+                if (result == null) {
+                    result = new MemoizedJsonPath(delegate.asString(), delegate.asByteArray());
+                    jsonPath = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Object as(Type type, Method method, Object[] args) throws Throwable {
+        Object view = typedViews.get(type);
+        if (view == null) {
+            view = invokeDelegate(method, args);
+            if (view != null) {
+                Object previous = typedViews.putIfAbsent(type, view);
+                if (previous != null) {
+                    view = previous;
+                }
+            }
+        }
+        return view;
+    }
+
+    private boolean isJson() {
+        String contentType = delegate.getContentType();
+        return contentType != null && contentType.toLowerCase().contains("json");
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.client;
+
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stable identity of a request for response stores (replay log, HTTP cache):
+ * method, URL with sorted query params, a hash of the Authorization header - an unauthenticated
+ * call never gets an authenticated answer - and a hash of the body.
+ */
+public class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    public static String of(FilterableRequestSpecification requestSpec) {
+        StringBuilder key = new StringBuilder(requestSpec.getMethod()).append(' ')
+                .append(canonicalUri(requestSpec.getURI()));
+        String authorization = requestSpec.getHeaders().getValue("Authorization");
+        key.append(" auth=").append(authorization == null ? "-" : Long.toHexString(hash64(authorization)));
+        Object body = requestSpec.getBody();
+        if (body != null) {
+            key.append(" body=").append(Long.toHexString(hash64(String.valueOf(body))));
+        }
+        return key.toString();
+    }
+
+    /*
+     * Query params in a stable order, so ?a=1&b=2 and ?b=2&a=1 map to the same key
+     */
+    public static String canonicalUri(String uri) {
+        int query = uri.indexOf('?');
+        if (query < 0 || query == uri.length() - 1) {
+            return uri;
+        }
+        String[] params = uri.substring(query + 1).split("&");
+        Arrays.sort(params);
+        return uri.substring(0, query + 1) + String.join("&", params);
+    }
+
+    /*
+     * 64-bit FNV-1a over the UTF-8 bytes
+     */
+    public static long hash64(String value) {
+        return hash64(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long hash64(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
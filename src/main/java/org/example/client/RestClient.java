@@ -1,32 +1,41 @@
 package org.example.client;
 
 import io.restassured.RestAssured;
+import io.restassured.http.Method;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.schema.SchemaRegistry;
+
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class RestClient {
 
     private static final Logger logger = LogManager.getLogger(RestClient.class);
 
-    // ThreadLocal to store request for current thread
-    private final ThreadLocal<RequestSpecification> request = new ThreadLocal<>();
+    // Request being built - a RestClient is created per call and used by one thread,
+    // so a plain field avoids a ThreadLocal entry on every (possibly virtual) thread
+    private RequestSpecification request;
+    // Validate the next response against its endpoint's schema, see SchemaRegistry
+    private boolean validateSchema;
 
     public RestClient() {
-        // Initialize request with thread-safe RequestSpec
-        request.set(RestAssured.given().spec(SpecBuilder.getRequestSpec()));
+        // Initialize request with a per-request copy of the shared RequestSpec
+        request = SpecBuilder.newRequest();
     }
 
     /*
-     * Get current thread's request specification
+     * Get the request specification being built
      */
     private RequestSpecification getRequest() {
-        if (request.get() == null) {
-            request.set(RestAssured.given().spec(SpecBuilder.getRequestSpec()));
+        if (request == null) {
+            request = SpecBuilder.newRequest();
         }
-        return request.get();
+        return request;
     }
 
     public RestClient addHeader(String key, String value) {
@@ -64,82 +73,38 @@ public class RestClient {
         return this;
     }
 
+    /*
+     * Check the next response body against the schema registered for its endpoint template; every
+     * violation is reported in one AssertionError. No-op with schema.validation.enabled=false
+     */
+    public RestClient validateSchema() {
+        validateSchema = true;
+        return this;
+    }
+
     public Response get(String endpoint) {
         logger.info("GET Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
-        Response response = getRequest()
-                .when()
-                .get(endpoint)
-                .then()
-                .spec(SpecBuilder.getResponseSpec())
-                .extract()
-                .response();
-
-        logResponse(response);
-        cleanupRequest();
-        return response;
+        return execute(takeRequest(), Method.GET, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
     }
 
     public Response post(String endpoint, Object body) {
         logger.info("POST Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
-        Response response = getRequest()
-                .body(body)
-                .when()
-                .post(endpoint)
-                .then()
-                .spec(SpecBuilder.getResponseSpec())
-                .extract()
-                .response();
-
-        logResponse(response);
-        cleanupRequest();
-        return response;
+        return execute(takeRequest().body(body), Method.POST, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
     }
 
     public Response put(String endpoint, Object body) {
         logger.info("PUT Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
-        Response response = getRequest()
-                .body(body)
-                .when()
-                .put(endpoint)
-                .then()
-                .spec(SpecBuilder.getResponseSpec())
-                .extract()
-                .response();
-
-        logResponse(response);
-        cleanupRequest();
-        return response;
+        return execute(takeRequest().body(body), Method.PUT, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
     }
 
     public Response patch(String endpoint, Object body) {
         logger.info("PATCH Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
-        Response response = getRequest()
-                .body(body)
-                .when()
-                .patch(endpoint)
-                .then()
-                .spec(SpecBuilder.getResponseSpec())
-                .extract()
-                .response();
-
-        logResponse(response);
-        cleanupRequest();
-        return response;
+        return execute(takeRequest().body(body), Method.PATCH, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
     }
 
     public Response delete(String endpoint) {
         logger.info("DELETE Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
-        Response response = getRequest()
-                .when()
-                .delete(endpoint)
-                .then()
-                .spec(SpecBuilder.getResponseSpec())
-                .extract()
-                .response();
-
-        logResponse(response);
-        cleanupRequest();
-        return response;
+        return execute(takeRequest(), Method.DELETE, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
     }
 
     /*
@@ -148,32 +113,96 @@ public class RestClient {
     public Response postWithExpectedStatus(String endpoint, Object body, int expectedStatus) {
         logger.info("POST Request with expected status {} to: {} by thread: {}",
                 expectedStatus, endpoint, Thread.currentThread().getId());
+        return execute(takeRequest().body(body), Method.POST, endpoint,
+                SpecBuilder.getResponseSpecWithStatus(expectedStatus), takeSchemaCheck());
+    }
+
+    /*
+     * Async variants - the request is captured on the calling thread and sent on the AsyncExecutor pool
+     */
+    public CompletableFuture<Response> getAsync(String endpoint) {
+        logger.info("Async GET Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
+        return executeAsync(takeRequest(), Method.GET, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
+    }
+
+    public CompletableFuture<Response> postAsync(String endpoint, Object body) {
+        logger.info("Async POST Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
+        return executeAsync(takeRequest().body(body), Method.POST, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
+    }
 
-        Response response = getRequest()
-                .body(body)
-                .when()
-                .post(endpoint)
+    public CompletableFuture<Response> putAsync(String endpoint, Object body) {
+        logger.info("Async PUT Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
+        return executeAsync(takeRequest().body(body), Method.PUT, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
+    }
+
+    public CompletableFuture<Response> patchAsync(String endpoint, Object body) {
+        logger.info("Async PATCH Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
+        return executeAsync(takeRequest().body(body), Method.PATCH, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
+    }
+
+    public CompletableFuture<Response> deleteAsync(String endpoint) {
+        logger.info("Async DELETE Request to: {} by thread: {}", endpoint, Thread.currentThread().getId());
+        return executeAsync(takeRequest(), Method.DELETE, endpoint, SpecBuilder.getResponseSpec(), takeSchemaCheck());
+    }
+
+    public CompletableFuture<Response> postWithExpectedStatusAsync(String endpoint, Object body, int expectedStatus) {
+        logger.info("Async POST Request with expected status {} to: {} by thread: {}",
+                expectedStatus, endpoint, Thread.currentThread().getId());
+        return executeAsync(takeRequest().body(body), Method.POST, endpoint,
+                SpecBuilder.getResponseSpecWithStatus(expectedStatus), takeSchemaCheck());
+    }
+
+    /*
+     * Send the request and validate it against the given response spec.
+     * Transient failures of idempotent calls are retried by RetryPolicy before validation, each attempt
+     * on its own copy of the request so it passes through the throttle, log and metrics filters again.
+     * Status and timing are logged by HttpLogFilter; the body is parsed once however often it is read
+     */
+    private Response execute(RequestSpecification spec, Method method, String endpoint,
+                             ResponseSpecification responseSpec, boolean checkSchema) {
+        Supplier<Response> send = RetryPolicy.isIdempotent(method)
+                ? () -> RestAssured.given().spec(spec).when().request(method, endpoint)
+                : () -> spec.when().request(method, endpoint);
+        Response response = MemoizedResponse.wrap(RetryPolicy.execute(method, endpoint, send)
                 .then()
-                .spec(SpecBuilder.getResponseSpecWithStatus(expectedStatus))
+                .spec(responseSpec)
                 .extract()
-                .response();
+                .response());
+        // Error bodies ({"message": ...}) have their own shape; the status assertion covers them
+        if (checkSchema && response.getStatusCode() < 300) {
+            SchemaRegistry.assertValid(endpoint, response);
+        }
+        return response;
+    }
 
-        logResponse(response);
+    private CompletableFuture<Response> executeAsync(RequestSpecification spec, Method method, String endpoint,
+                                                     ResponseSpecification responseSpec, boolean checkSchema) {
+        return CompletableFuture.supplyAsync(() -> execute(spec, method, endpoint, responseSpec, checkSchema),
+                AsyncExecutor.getExecutor());
+    }
+
+    /*
+     * Hand the request over to a single execution so the next call starts from a fresh copy
+     */
+    private RequestSpecification takeRequest() {
+        RequestSpecification spec = getRequest();
         cleanupRequest();
-        return response;
+        return spec;
     }
 
-    private void logResponse(Response response) {
-        logger.info("Response Status Code: {} | Thread: {}",
-                response.getStatusCode(), Thread.currentThread().getId());
-        logger.info("Response Time: {} ms | Thread: {}",
-                response.getTime(), Thread.currentThread().getId());
+    /*
+     * Like the request, a schema check applies to one execution
+     */
+    private boolean takeSchemaCheck() {
+        boolean check = validateSchema && SchemaRegistry.isEnabled();
+        validateSchema = false;
+        return check;
     }
 
     /*
-     * Cleanup ThreadLocal request after use
+     * Cleanup request after use
      */
     private void cleanupRequest() {
-        request.remove();
+        request = null;
     }
 }
@@ -0,0 +1,243 @@
+package org.example.client;
+
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request-level retry used by RestClient. Only idempotent verbs are retried - a POST or PATCH that
+ * timed out may already have been applied - and only on transient failures: a connection-level error
+ * (connection reset or refused, socket/connect timeout, no response) or a 502, 503 or 504 answer.
+ *
+ * Retry n waits random(0, min(backoff.max, backoff.base * 2^(n-1))) ("full jitter"), so clients
+ * failing together do not come back together. A suite-wide budget caps retries at a percentage
+ * of all requests, so a dead backend fails fast instead of multiplying the load, and no attempt
+ * starts once the call's deadline has passed.
+ *
+ * Settings:
+ * http.retry.enabled (true), http.retry.max.attempts (3, first attempt included)
+ * http.retry.backoff.base.ms (100), http.retry.backoff.max.ms (2000)
+ * http.retry.budget.percent (10) and http.retry.budget.min (10) - retries allowed per suite
+ * are min + percent of all requests sent so far
+ * http.request.deadline.ms (timeout) - wall-clock limit for all attempts of one call
+ */
+public class RetryPolicy {
+
+    private static final Logger logger = LogManager.getLogger(RetryPolicy.class);
+
+    private static final Set<Method> IDEMPOTENT = EnumSet.of(Method.GET, Method.HEAD, Method.OPTIONS,
+            Method.PUT, Method.DELETE);
+
+    private static final LongAdder requests = new LongAdder();
+    private static final AtomicLong retries = new AtomicLong();
+    private static final LongAdder recovered = new LongAdder();
+    private static final LongAdder exhausted = new LongAdder();
+    private static final LongAdder budgetDenied = new LongAdder();
+    private static final LongAdder deadlineExceeded = new LongAdder();
+    // Set while a caller that runs its own retry loop (e.g. ResourceTracker cleanup) sends requests
+    private static final ThreadLocal<Boolean> suppressed = ThreadLocal.withInitial(() -> false);
+
+    private RetryPolicy() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("http.retry.enabled", true);
+    }
+
+    public static boolean isIdempotent(Method method) {
+        return IDEMPOTENT.contains(method);
+    }
+
+    public static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /*
+     * Transient when anything in the cause chain is a connection-level failure - refused or reset
+     * sockets, connect/read timeouts, or a server that closed the connection without answering.
+     * Other I/O errors (e.g. Jackson's JsonProcessingException on a malformed body) are not resent.
+     * REST Assured rethrows HttpClient's checked exceptions unwrapped, so the top-level exception
+     * may be one too
+     */
+    public static boolean isRetryableException(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SocketException || t instanceof SocketTimeoutException
+                    || t instanceof ConnectTimeoutException || t instanceof NoHttpResponseException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Run calls on this thread with a single attempt each, for callers that retry themselves -
+     * otherwise both retry loops multiply
+     */
+    public static <T> T withoutRetries(Supplier<T> calls) {
+        boolean previous = suppressed.get();
+        suppressed.set(true);
+        try {
+            return calls.get();
+        } finally {
+            suppressed.set(previous);
+        }
+    }
+
+    /*
+     * Run one call, sending it again through attempt while the policy allows.
+     * attempt must build a fresh request each time - a sent RequestSpecification is not reused
+     */
+    public static Response execute(Method method, String endpoint, Supplier<Response> attempt) {
+        requests.increment();
+        if (!isIdempotent(method) || !isEnabled() || suppressed.get()) {
+            return attempt.get();
+        }
+
+        ConfigReader config = ConfigReader.getInstance();
+        int maxAttempts = Math.max(1, config.getIntProperty("http.retry.max.attempts", 3));
+        long baseMs = config.getIntProperty("http.retry.backoff.base.ms", 100);
+        long maxBackoffMs = config.getIntProperty("http.retry.backoff.max.ms", 2000);
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(config.getIntProperty("http.request.deadline.ms", config.getTimeout()));
+
+        for (int attemptNo = 1; ; attemptNo++) {
+            Response response = null;
+            Exception error = null;
+            try {
+                response = attempt.get();
+                if (!isRetryableStatus(response.getStatusCode())) {
+                    if (attemptNo > 1) {
+                        recovered.increment();
+                    }
+                    return response;
+                }
+            } catch (Exception e) {
+                // Also catches checked I/O exceptions that REST Assured throws undeclared
+                if (!isRetryableException(e)) {
+                    throw e;
+                }
+                error = e;
+            }
+
+            String failure = response != null ? String.valueOf(response.getStatusCode()) : describe(error);
+            long delayMs = backoffMs(attemptNo, baseMs, maxBackoffMs);
+            if (attemptNo >= maxAttempts) {
+                exhausted.increment();
+                logger.warn("{} {} failed with {} - giving up after {} attempts", method, endpoint, failure, attemptNo);
+            } else if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs) - deadline >= 0) {
+                deadlineExceeded.increment();
+                logger.warn("{} {} failed with {} - request deadline reached after {} attempts",
+                        method, endpoint, failure, attemptNo);
+            } else if (!tryAcquireBudget(config)) {
+                budgetDenied.increment();
+                logger.warn("{} {} failed with {} - retry budget exhausted ({} retries for {} requests)",
+                        method, endpoint, failure, retries.get(), requests.sum());
+            } else {
+                logger.warn("{} {} failed with {} - retrying in {} ms (attempt {}/{})",
+                        method, endpoint, failure, delayMs, attemptNo + 1, maxAttempts);
+                if (sleep(delayMs)) {
+                    continue;
+                }
+            }
+
+            if (error != null) {
+                throw RetryPolicy.<RuntimeException>rethrow(error);
+            }
+            return response;
+        }
+    }
+
+    public static RetryStats getStats() {
+        return RetryStats.builder()
+                .requests(requests.sum())
+                .retries(retries.get())
+                .recovered(recovered.sum())
+                .exhausted(exhausted.sum())
+                .budgetDenied(budgetDenied.sum())
+                .deadlineExceeded(deadlineExceeded.sum())
+                .build();
+    }
+
+    public static void logStats() {
+        RetryStats stats = getStats();
+        logger.info("HTTP retries: requests={} retries={} recovered={} exhausted={} budgetDenied={} deadlineExceeded={}",
+                stats.getRequests(), stats.getRetries(), stats.getRecovered(), stats.getExhausted(),
+                stats.getBudgetDenied(), stats.getDeadlineExceeded());
+    }
+
+    public static void exportJson(String filePath) {
+        if (retries.get() > 0 || budgetDenied.sum() > 0) {
+            JsonUtils.serializeToFile(getStats(), filePath);
+        }
+    }
+
+    /*
+     * Start a fresh budget, e.g. between independent runs in one JVM
+     */
+    public static void reset() {
+        requests.reset();
+        retries.set(0);
+        recovered.reset();
+        exhausted.reset();
+        budgetDenied.reset();
+        deadlineExceeded.reset();
+    }
+
+    /*
+     * Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))]
+     */
+    static long backoffMs(int attemptNo, long baseMs, long maxBackoffMs) {
+        long ceiling = Math.min(maxBackoffMs, baseMs << Math.min(attemptNo - 1, 30));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean tryAcquireBudget(ConfigReader config) {
+        long allowed = config.getIntProperty("http.retry.budget.min", 10)
+                + requests.sum() * config.getIntProperty("http.retry.budget.percent", 10) / 100;
+        if (retries.incrementAndGet() > allowed) {
+            retries.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean sleep(long delayMs) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(delayMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /*
+     * Rethrow the original exception as is, checked or not, so callers see what HttpClient threw
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(Exception error) throws E {
+        throw (E) error;
+    }
+
+    private static String describe(Throwable error) {
+        return error.getClass().getSimpleName() + (error.getMessage() == null ? "" : ": " + error.getMessage());
+    }
+}
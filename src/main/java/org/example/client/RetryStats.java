@@ -0,0 +1,19 @@
+package org.example.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetryStats {
+    private long requests;
+    private long retries;
+    private long recovered;
+    private long exhausted;
+    private long budgetDenied;
+    private long deadlineExceeded;
+}
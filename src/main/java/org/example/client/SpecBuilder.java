@@ -1,141 +1,216 @@
 package org.example.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.mapper.ObjectMapperType;
 import io.restassured.specification.*;
-import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.cache.HttpCache;
+import org.example.cache.HttpCacheFilter;
+import org.example.metrics.MetricsFilter;
+import org.example.replay.ReplayFilter;
+import org.example.throttle.ThrottleFilter;
+import org.example.throttle.Throttles;
 import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class SpecBuilder {
 
     private static final Logger logger = LogManager.getLogger(SpecBuilder.class);
 
-    // ThreadLocal to ensure thread safety during parallel execution
+    private static final String AUTH_CONFIG_TOKEN = "config-token";
+    private static final String AUTH_CUSTOM_TOKEN = "custom-token";
+    private static final String AUTH_NONE = "none";
+
+    // Status key used for the response spec without a status code expectation
+    private static final int ANY_STATUS = 0;
+
+    private static final int DEFAULT_REQUEST_SPEC_CACHE_SIZE = 256;
+
+    // Shared specs, built once and never mutated afterwards - safe to read from any thread.
+    // Request specs are bounded (spec.cache.max.size), as every custom token gets its own
+    private static final Cache<String, RequestSpecification> requestSpecCache = Caffeine.newBuilder()
+            .maximumSize(ConfigReader.getInstance().getIntProperty("spec.cache.max.size",
+                    DEFAULT_REQUEST_SPEC_CACHE_SIZE))
+            .build();
+    private static final ConcurrentMap<Integer, ResponseSpecification> responseSpecCache = new ConcurrentHashMap<>();
+
+    // ThreadLocal overrides pointing at a cached spec (custom token, no auth, expected status)
     private static final ThreadLocal<RequestSpecification> requestSpec = new ThreadLocal<>();
     private static final ThreadLocal<ResponseSpecification> responseSpec = new ThreadLocal<>();
 
+    static {
+        // Base URL, token and log mode are baked into the specs - rebuild them when config changes
+        ConfigReader.getInstance().addReloadListener(snapshot -> clearCache());
+    }
+
     /*
-     * Get RequestSpecification for current thread
+     * Get RequestSpecification for current thread.
+     * The returned spec is shared - do not modify it, layer changes on newRequest() instead
      */
     public static RequestSpecification getRequestSpec() {
-        if (requestSpec.get() == null) {
-            requestSpec.set(createRequestSpec());
+        RequestSpecification override = requestSpec.get();
+        if (override != null) {
+            return override;
         }
-        return requestSpec.get();
-
+        return requestSpecCache.get(cacheKey(AUTH_CONFIG_TOKEN, null),
+                key -> createRequestSpec(ConfigReader.getInstance().getAuthToken()));
     }
 
     /*
-     * Get ResponseSpecification for current thread
+     * Get ResponseSpecification for current thread.
+     * The returned spec is shared - do not modify it
      */
     public static ResponseSpecification getResponseSpec() {
-        if (responseSpec.get() == null) {
-            responseSpec.set(createResponseSpec());
+        ResponseSpecification override = responseSpec.get();
+        if (override != null) {
+            return override;
         }
-        return responseSpec.get();
+        return responseSpecCache.computeIfAbsent(ANY_STATUS, SpecBuilder::createResponseSpec);
+    }
+
+    /*
+     * Create a per-request copy of the current thread's RequestSpecification.
+     * Headers, params and body set on the copy never leak into the shared spec
+     */
+    public static RequestSpecification newRequest() {
+        return RestAssured.given().spec(getRequestSpec());
     }
 
     /*
      * Create RequestSpecification with common configurations
      */
-    private static RequestSpecification createRequestSpec() {
-        logger.info("Creating RequestSpecification for thread: {}", Thread.currentThread().getId());
+    private static RequestSpecification createRequestSpec(String token) {
+        logger.info("Creating shared RequestSpecification in thread: {}", Thread.currentThread().getId());
 
-        RequestSpecification spec = new RequestSpecBuilder()
+        RequestSpecBuilder builder = new RequestSpecBuilder()
                 .setBaseUri(ConfigReader.getInstance().getBaseUrl())
+                .setConfig(RestAssuredConfig.config()
+                        .httpClient(ConnectionPool.httpClientConfig())
+                        .decoderConfig(Compression.decoderConfig())
+                        .objectMapperConfig(objectMapperConfig()))
                 .setContentType(ContentType.JSON)
-                .setAccept(ContentType.JSON)
-                .addHeader("Authorization", "Bearer " + ConfigReader.getInstance().getAuthToken())
-                .log(LogDetail.ALL)
+                .setAccept(ContentType.JSON);
+
+        if (token != null) {
+            builder.addHeader("Authorization", "Bearer " + token);
+        }
+
+        ReplayFilter replayFilter = ReplayFilter.fromConfig();
+        if (replayFilter != null) {
+            builder.addFilter(replayFilter);
+        }
+
+        if (HttpCache.isEnabled()) {
+            builder.addFilter(new HttpCacheFilter());
+        }
+
+        if (Throttles.isEnabled()) {
+            builder.addFilter(new ThrottleFilter());
+        }
+
+        return builder
+                .addFilter(HttpLogFilter.fromConfig())
+                .addFilter(new MetricsFilter())
                 .build();
+    }
 
-        return spec;
+    /*
+     * Request bodies and response.as() go through the same shared mapper as JsonUtils
+     */
+    private static ObjectMapperConfig objectMapperConfig() {
+        return ObjectMapperConfig.objectMapperConfig()
+                .defaultObjectMapperType(ObjectMapperType.JACKSON_2)
+                .jackson2ObjectMapperFactory((type, charset) -> JsonUtils.getMapper());
     }
 
     /*
      * Create ResponseSpecification with common validations
      */
-    private static ResponseSpecification createResponseSpec() {
-        logger.info("Creating ResponseSpecification for thread: {}", Thread.currentThread().getId());
+    private static ResponseSpecification createResponseSpec(int statusCode) {
+        logger.info("Creating shared ResponseSpecification for status {} in thread: {}",
+                statusCode == ANY_STATUS ? "any" : statusCode, Thread.currentThread().getId());
 
-        ResponseSpecification spec = new ResponseSpecBuilder()
-                .log(LogDetail.ALL)
-                .build();
+        ResponseSpecBuilder builder = new ResponseSpecBuilder();
+        if (statusCode != ANY_STATUS) {
+            builder.expectStatusCode(statusCode);
+        }
 
-        return spec;
+        return builder.build();
     }
 
     /*
-     * Create RequestSpec with custom auth token
+     * Get RequestSpec with custom auth token and make it current for this thread
      */
     public static RequestSpecification getRequestSpecWithToken(String token) {
-        logger.info("Creating RequestSpecification with custom token for thread: {}",
-                Thread.currentThread().getId());
-
-        RequestSpecification spec = new RequestSpecBuilder()
-                .setBaseUri(ConfigReader.getInstance().getBaseUrl())
-                .setContentType(ContentType.JSON)
-                .setAccept(ContentType.JSON)
-                .addHeader("Authorization", "Bearer " + token)
-                .log(LogDetail.ALL)
-                .build();
+        RequestSpecification spec = requestSpecCache.get(cacheKey(AUTH_CUSTOM_TOKEN, token),
+                key -> createRequestSpec(token));
 
         requestSpec.set(spec);
         return spec;
     }
 
     /*
-     * Create RequestSpec without authentication
+     * Get RequestSpec without authentication and make it current for this thread
      */
     public static RequestSpecification getRequestSpecWithoutAuth() {
-        logger.info("Creating RequestSpecification without auth for thread: {}",
-                Thread.currentThread().getId());
-
-        RequestSpecification spec = new RequestSpecBuilder()
-                .setBaseUri(ConfigReader.getInstance().getBaseUrl())
-                .setContentType(ContentType.JSON)
-                .setAccept(ContentType.JSON)
-                .log(LogDetail.ALL)
-                .build();
+        RequestSpecification spec = requestSpecCache.get(cacheKey(AUTH_NONE, null),
+                key -> createRequestSpec(null));
 
         requestSpec.set(spec);
         return spec;
     }
 
     /*
-     * Create ResponseSpec with expected status code
+     * Get ResponseSpec with expected status code and make it current for this thread
      */
     public static ResponseSpecification getResponseSpecWithStatus(int statusCode) {
-        logger.info("Creating ResponseSpecification with status {} for thread: {}",
-                statusCode, Thread.currentThread().getId());
-
-        ResponseSpecification spec = new ResponseSpecBuilder()
-                .expectStatusCode(statusCode)
-                .log(LogDetail.ALL)
-                .build();
+        ResponseSpecification spec = responseSpecCache.computeIfAbsent(statusCode, SpecBuilder::createResponseSpec);
 
         responseSpec.set(spec);
         return spec;
     }
 
+    /*
+     * Cache key: environment | auth mode | token hash - the token itself is not kept in the key
+     */
+    private static String cacheKey(String authMode, String token) {
+        return ConfigReader.getInstance().getSnapshot().getEnv() + "|" + authMode + "|"
+                + (token == null ? "-" : Long.toHexString(RequestKeys.hash64(token)));
+    }
+
+    /*
+     * Drop all shared specs so they are rebuilt from the current configuration
+     */
+    public static void clearCache() {
+        logger.info("Clearing shared spec cache");
+        requestSpecCache.invalidateAll();
+        responseSpecCache.clear();
+    }
+
     /*
      * Clean up ThreadLocal variables to prevent memory leaks
      */
     public static void removeThreadLocalSpecs() {
-        logger.info("Removing ThreadLocal specs for thread: {}", Thread.currentThread().getId());
         requestSpec.remove();
         responseSpec.remove();
     }
 
     /*
-     * Reset specs for new test execution
+     * Reset specs for new test execution - drops thread overrides, shared specs are reused
      */
     public static void resetSpecs() {
-        logger.info("Resetting specs for thread: {}", Thread.currentThread().getId());
-        requestSpec.set(createRequestSpec());
-        responseSpec.set(createResponseSpec());
+        requestSpec.remove();
+        responseSpec.remove();
     }
 }
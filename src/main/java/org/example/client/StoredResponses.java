@@ -0,0 +1,60 @@
+package org.example.client;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversions between a live Response and the plain status/headers/body kept by response stores
+ */
+public class StoredResponses {
+
+    private StoredResponses() {
+    }
+
+    /*
+     * Response headers in order; repeated headers are joined with ", "
+     */
+    public static Map<String, String> headersOf(Response response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Header header : response.getHeaders()) {
+            headers.merge(header.getName(), header.getValue(), (first, next) -> first + ", " + next);
+        }
+        return headers;
+    }
+
+    /*
+     * Header value by case-insensitive name - servers differ (the JDK server sends Content-type)
+     */
+    public static String header(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /*
+     * A detached Response that supports the usual reads (body, jsonPath, as, then) without a connection
+     */
+    public static Response toResponse(int statusCode, String statusLine, Map<String, String> headers, byte[] body) {
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine(statusLine)
+                .setBody(body);
+        List<Header> headerList = new ArrayList<>(headers.size());
+        headers.forEach((name, value) -> headerList.add(new Header(name, value)));
+        String contentType = header(headers, "Content-Type");
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.setHeaders(new Headers(headerList)).build();
+    }
+}
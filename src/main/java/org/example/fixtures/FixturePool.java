@@ -0,0 +1,143 @@
+package org.example.fixtures;
+
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.client.AsyncExecutor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool of pre-created entities (users, products) handed out to tests on demand.
+ *
+ * Entities are created ahead of time in parallel batches on the AsyncExecutor, so tests that only
+ * need "an existing user" do not create one on their critical path. Every acquire tops the pool
+ * back up in the background; when the pool is empty the fixture is created synchronously instead.
+ * Each fixture is handed out once and belongs to the test that acquired it. Fixtures are created
+ * through the service layer, so ResourceTracker deletes whatever is left at suite end.
+ */
+public class FixturePool<T> {
+
+    private static final Logger logger = LogManager.getLogger(FixturePool.class);
+
+    private final String name;
+    private final Class<T> type;
+    private final Supplier<T> template;
+    private final Function<T, Response> creator;
+    private final Function<T, Long> idOf;
+    private final Function<Long, Response> deleter;
+    private final int targetSize;
+    private final int batchSize;
+
+    private final BlockingQueue<T> available = new LinkedBlockingQueue<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public FixturePool(String name, Class<T> type, Supplier<T> template, Function<T, Response> creator,
+                       Function<T, Long> idOf, Function<Long, Response> deleter, int targetSize, int batchSize) {
+        this.name = name;
+        this.type = type;
+        this.template = template;
+        this.creator = creator;
+        this.idOf = idOf;
+        this.deleter = deleter;
+        this.targetSize = targetSize;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /*
+     * Take a ready fixture, or create one now if the pool has run dry
+     */
+    public T acquire() {
+        T fixture = available.poll();
+        refill();
+        if (fixture != null) {
+            return fixture;
+        }
+        logger.debug("Fixture pool '{}' empty, creating synchronously", name);
+        return create(template.get());
+    }
+
+    /*
+     * Start topping the pool up to its target size in the background. Returns immediately
+     */
+    public void refill() {
+        if (closed.get() || targetSize <= 0 || available.size() >= targetSize) {
+            return;
+        }
+        if (refilling.compareAndSet(false, true)) {
+            fillNextBatch();
+        }
+    }
+
+    public int availableCount() {
+        return available.size();
+    }
+
+    /*
+     * Stop refilling and drop the unused fixtures. They were created through the service layer,
+     * so ResourceTracker deletes them with everything else at suite end
+     */
+    public void close() {
+        closed.set(true);
+        available.clear();
+    }
+
+    /*
+     * One batch in flight at a time; the next batch starts when this one completes.
+     * A failed batch stops refilling until the next acquire, so a down service is not hammered
+     */
+    private void fillNextBatch() {
+        int missing = targetSize - available.size();
+        if (closed.get() || missing <= 0) {
+            refilling.set(false);
+            return;
+        }
+
+        int count = Math.min(batchSize, missing);
+        CompletableFuture<?>[] batch = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            batch[i] = CompletableFuture.supplyAsync(() -> create(template.get()), AsyncExecutor.getExecutor())
+                    .thenAccept(this::offer);
+        }
+
+        CompletableFuture.allOf(batch).whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.warn("Fixture pool '{}' refill failed, pausing: {}", name, error.getCause() != null
+                        ? error.getCause().toString() : error.toString());
+                refilling.set(false);
+                return;
+            }
+            fillNextBatch();
+        });
+    }
+
+    /*
+     * A batch that finishes after close() - possibly after suite cleanup ran - deletes its own fixture
+     */
+    private void offer(T fixture) {
+        if (!closed.get()) {
+            available.add(fixture);
+            return;
+        }
+        deleter.apply(idOf.apply(fixture));
+    }
+
+    private T create(T entity) {
+        Response response = creator.apply(entity);
+        if (response.getStatusCode() != 201) {
+            throw new RuntimeException("Failed to create " + name + " fixture: status " + response.getStatusCode()
+                    + ", body " + response.asString());
+        }
+        T created = response.as(type);
+        if (idOf.apply(created) == null) {
+            throw new RuntimeException("Created " + name + " fixture has no id: " + response.asString());
+        }
+        return created;
+    }
+}
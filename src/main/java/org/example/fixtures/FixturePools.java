@@ -0,0 +1,141 @@
+package org.example.fixtures;
+
+import org.example.models.Product;
+import org.example.models.User;
+import org.example.services.ProductService;
+import org.example.services.UserService;
+import org.example.utils.ConfigReader;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared User and Product fixture pools for the suite.
+ * Sizes come from fixture.pool.size and fixture.pool.batch.size; a size of 0 disables pre-provisioning
+ * (acquire() then always creates synchronously).
+ */
+public class FixturePools {
+
+    private static final int DEFAULT_POOL_SIZE = 8;
+    private static final int DEFAULT_BATCH_SIZE = 4;
+
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private static volatile FixturePool<User> users;
+    private static volatile FixturePool<Product> products;
+    // Posts must belong to an existing user - gorest answers 422 otherwise. Resolved without the class
+    // lock, as taking a user from the pool may create one over HTTP
+    private static final AtomicReference<CompletableFuture<Long>> productOwnerId = new AtomicReference<>();
+
+    public static FixturePool<User> users() {
+        if (users == null) {
+            synchronized (FixturePools.class) {
+                if (users == null) {
+                    UserService userService = new UserService();
+                    users = new FixturePool<>("user", User.class, FixturePools::newUser,
+                            userService::createUser, User::getId, userService::deleteUser,
+                            poolSize(), batchSize());
+                }
+            }
+        }
+        return users;
+    }
+
+    public static FixturePool<Product> products() {
+        if (products == null) {
+            synchronized (FixturePools.class) {
+                if (products == null) {
+                    ProductService productService = new ProductService();
+                    products = new FixturePool<>("product", Product.class, FixturePools::newProduct,
+                            productService::createProduct, Product::getId, productService::deleteProduct,
+                            poolSize(), batchSize());
+                }
+            }
+        }
+        return products;
+    }
+
+    /*
+     * Id of the pooled user that owns fixture and test products, taken from the user pool once
+     */
+    public static Long productOwnerId() {
+        while (true) {
+            CompletableFuture<Long> owner = productOwnerId.get();
+            if (owner != null) {
+                try {
+                    return owner.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+            // The first caller takes the user, the others wait for its future
+            CompletableFuture<Long> resolving = new CompletableFuture<>();
+            if (productOwnerId.compareAndSet(null, resolving)) {
+                try {
+                    Long id = users().acquire().getId();
+                    resolving.complete(id);
+                    return id;
+                } catch (RuntimeException e) {
+                    // Let the next caller try again
+                    productOwnerId.compareAndSet(resolving, null);
+                    resolving.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /*
+     * Start filling both pools in the background - call once at suite start
+     */
+    public static void prefill() {
+        users().refill();
+        products().refill();
+    }
+
+    /*
+     * Stop refilling - call once at suite end, before ResourceTracker.cleanup()
+     */
+    public static void close() {
+        synchronized (FixturePools.class) {
+            if (users != null) {
+                users.close();
+                users = null;
+            }
+            if (products != null) {
+                products.close();
+                products = null;
+            }
+        }
+        productOwnerId.set(null);
+    }
+
+    private static User newUser() {
+        long n = sequence.incrementAndGet();
+        return User.builder()
+                .name("Fixture User " + n)
+                .email("fixture.user" + System.currentTimeMillis() + "." + n + "@test.com")
+                .gender(n % 2 == 0 ? "female" : "male")
+                .status("active")
+                .build();
+    }
+
+    private static Product newProduct() {
+        long n = sequence.incrementAndGet();
+        return Product.builder()
+                .userId(productOwnerId())
+                .title("Fixture Product " + n)
+                .body("This is a fixture product description")
+                .build();
+    }
+
+    private static int poolSize() {
+        return ConfigReader.getInstance().getIntProperty("fixture.pool.size", DEFAULT_POOL_SIZE);
+    }
+
+    private static int batchSize() {
+        return ConfigReader.getInstance().getIntProperty("fixture.pool.batch.size", DEFAULT_BATCH_SIZE);
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.load;
+
+import io.restassured.response.Response;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.VirtualThreads;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives a scenario built on the service layer (e.g. () -> userService.getUser(id)) according to a LoadProfile.
+ *
+ * Every request has an intended send time taken from the arrival schedule. Response time is measured
+ * from that intended time, so a stalled server cannot hide its queueing delay by slowing the load
+ * generator down (coordinated omission). Service time, measured from the actual send, is reported alongside.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LogManager.getLogger(LoadGenerator.class);
+
+    // Status bucket for calls that threw instead of returning a response
+    public static final int NO_RESPONSE = 0;
+
+    private final String name;
+    private final LoadProfile profile;
+    private final Supplier<Response> scenario;
+
+    private final Histogram responseTime = new ConcurrentHistogram(3);
+    private final Histogram serviceTime = new ConcurrentHistogram(3);
+    private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public LoadGenerator(String name, LoadProfile profile, Supplier<Response> scenario) {
+        this.name = name;
+        this.profile = profile;
+        this.scenario = scenario;
+    }
+
+    public LoadReport run() {
+        if (profile.getModel() == LoadProfile.Model.OPEN && profile.getTargetRps() <= 0) {
+            throw new IllegalArgumentException("Open model requires targetRps > 0");
+        }
+        if (profile.getConcurrency() <= 0) {
+            throw new IllegalArgumentException("concurrency must be > 0");
+        }
+
+        logger.info("Starting load run '{}': {}", name, profile);
+        long start = System.nanoTime();
+        long deadline = start + profile.getDuration().toNanos();
+
+        if (profile.getModel() == LoadProfile.Model.OPEN) {
+            runOpen(start, deadline);
+        } else {
+            runClosed(start, deadline);
+        }
+
+        LoadReport report = buildReport(System.nanoTime() - start);
+        logger.info("Load run finished:\n{}", report.toSummary());
+        return report;
+    }
+
+    /*
+     * Open model: one dispatcher follows the arrival schedule, workers execute.
+     * When all workers are busy arrivals queue up and their wait counts towards response time
+     */
+    private void runOpen(long start, long deadline) {
+        ExecutorService workers = Executors.newFixedThreadPool(profile.getConcurrency(), threadFactory());
+        try {
+            for (long i = 0; profile.getMaxIterations() == 0 || i < profile.getMaxIterations(); i++) {
+                long intended = start + arrivalOffsetNanos(i);
+                if (intended >= deadline) {
+                    break;
+                }
+                sleepUntil(intended);
+                workers.execute(() -> execute(intended));
+            }
+        } finally {
+            awaitCompletion(workers);
+        }
+    }
+
+    /*
+     * Closed model: each worker sends its next request when the previous one returns.
+     * Worker starts are spread over rampUp; with targetRps set each worker is paced on a fixed schedule
+     */
+    private void runClosed(long start, long deadline) {
+        int concurrency = profile.getConcurrency();
+        long pacingNanos = profile.getTargetRps() > 0 ? Math.round(concurrency * 1e9 / profile.getTargetRps()) : 0;
+        long rampStepNanos = profile.getRampUp().toNanos() / concurrency;
+        AtomicLong issued = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, threadFactory());
+        try {
+            for (int worker = 0; worker < concurrency; worker++) {
+                long workerStart = start + worker * rampStepNanos;
+                workers.execute(() -> {
+                    for (long n = 0; ; n++) {
+                        long intended = pacingNanos > 0 ? workerStart + n * pacingNanos
+                                : Math.max(workerStart, System.nanoTime());
+                        if (intended >= deadline || Thread.currentThread().isInterrupted()) {
+                            return;
+                        }
+                        if (profile.getMaxIterations() > 0 && issued.incrementAndGet() > profile.getMaxIterations()) {
+                            return;
+                        }
+                        sleepUntil(intended);
+                        execute(intended);
+                    }
+                });
+            }
+        } finally {
+            awaitCompletion(workers);
+        }
+    }
+
+    private void execute(long intendedNanos) {
+        long sent = System.nanoTime();
+        int status;
+        try {
+            Response response = scenario.get();
+            status = response.getStatusCode();
+        } catch (RuntimeException | AssertionError e) {
+            logger.debug("Load request failed: {}", e.toString());
+            status = NO_RESPONSE;
+        }
+        long done = System.nanoTime();
+
+        responseTime.recordValue((done - intendedNanos) / 1000);
+        serviceTime.recordValue((done - sent) / 1000);
+        statusCounts.computeIfAbsent(status, code -> new LongAdder()).increment();
+        if (status != NO_RESPONSE && status < 400) {
+            successes.increment();
+        } else {
+            failures.increment();
+        }
+    }
+
+    /*
+     * Offset of the i-th arrival: rate ramps linearly from 0 to targetRps over rampUp, then stays constant
+     */
+    long arrivalOffsetNanos(long i) {
+        double rate = profile.getTargetRps();
+        double rampSeconds = profile.getRampUp().toNanos() / 1e9;
+        double seconds;
+        if (rampSeconds <= 0) {
+            seconds = i / rate;
+        } else if (i < rate * rampSeconds / 2) {
+            seconds = Math.sqrt(2 * i * rampSeconds / rate);
+        } else {
+            seconds = rampSeconds + (i - rate * rampSeconds / 2) / rate;
+        }
+        return (long) (seconds * 1e9);
+    }
+
+    private LoadReport buildReport(long elapsedNanos) {
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((code, count) -> statuses.put(code, count.sum()));
+        long requests = responseTime.getTotalCount();
+
+        return LoadReport.builder()
+                .name(name)
+                .model(profile.getModel())
+                .targetRps(profile.getTargetRps())
+                .achievedRps(requests / (elapsedNanos / 1e9))
+                .durationMs(elapsedNanos / 1_000_000)
+                .requests(requests)
+                .successes(successes.sum())
+                .failures(failures.sum())
+                .statusCodes(statuses)
+                .responseTime(percentiles(responseTime))
+                .serviceTime(percentiles(serviceTime))
+                .build();
+    }
+
+    private static LoadReport.Percentiles percentiles(Histogram histogram) {
+        return LoadReport.Percentiles.builder()
+                .meanMs(histogram.getMean() / 1000.0)
+                .p50Ms(histogram.getValueAtPercentile(50) / 1000.0)
+                .p90Ms(histogram.getValueAtPercentile(90) / 1000.0)
+                .p99Ms(histogram.getValueAtPercentile(99) / 1000.0)
+                .p999Ms(histogram.getValueAtPercentile(99.9) / 1000.0)
+                .maxMs(histogram.getMaxValue() / 1000.0)
+                .build();
+    }
+
+    private void awaitCompletion(ExecutorService workers) {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(profile.getDuration().toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+                logger.warn("Load run '{}' did not drain in time, cancelling outstanding requests", name);
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ThreadFactory threadFactory() {
+        ThreadFactory factory = VirtualThreads.isEnabled() ? VirtualThreads.factory("load-vt-") : null;
+        if (factory != null) {
+            return factory;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "load-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
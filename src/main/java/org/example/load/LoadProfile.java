@@ -0,0 +1,41 @@
+package org.example.load;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Load shape for LoadGenerator.
+ * OPEN - requests arrive at targetRps (ramped linearly over rampUp) regardless of how fast the server answers.
+ * CLOSED - concurrency workers each send the next request when the previous one completes,
+ * optionally paced so that together they aim for targetRps.
+ * The run stops at duration or maxIterations, whichever comes first.
+ */
+@Data
+@Builder
+public class LoadProfile {
+
+    public enum Model { OPEN, CLOSED }
+
+    @Builder.Default
+    private Model model = Model.OPEN;
+
+    // Requests per second; required for OPEN, optional pacing for CLOSED
+    @Builder.Default
+    private double targetRps = 0;
+
+    @Builder.Default
+    private Duration rampUp = Duration.ZERO;
+
+    // CLOSED: number of workers. OPEN: maximum requests in flight before arrivals queue up
+    @Builder.Default
+    private int concurrency = 16;
+
+    @Builder.Default
+    private Duration duration = Duration.ofSeconds(30);
+
+    // 0 means unlimited
+    @Builder.Default
+    private long maxIterations = 0;
+}
@@ -0,0 +1,57 @@
+package org.example.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Result of a LoadGenerator run.
+ * responseTime is measured from the intended send time (coordinated-omission corrected);
+ * serviceTime from the actual send time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadReport {
+    private String name;
+    private LoadProfile.Model model;
+    private double targetRps;
+    private double achievedRps;
+    private long durationMs;
+    private long requests;
+    private long successes;
+    private long failures;
+    private Map<Integer, Long> statusCodes;
+    private Percentiles responseTime;
+    private Percentiles serviceTime;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Percentiles {
+        private double meanMs;
+        private double p50Ms;
+        private double p90Ms;
+        private double p99Ms;
+        private double p999Ms;
+        private double maxMs;
+    }
+
+    public String toSummary() {
+        return String.format("%s [%s] requests=%d ok=%d failed=%d target=%.1f rps achieved=%.1f rps in %d ms%n"
+                        + "  response time (CO corrected) ms: mean=%.1f p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n"
+                        + "  service time ms:                 mean=%.1f p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n"
+                        + "  status codes: %s",
+                name, model, requests, successes, failures, targetRps, achievedRps, durationMs,
+                responseTime.getMeanMs(), responseTime.getP50Ms(), responseTime.getP90Ms(),
+                responseTime.getP99Ms(), responseTime.getP999Ms(), responseTime.getMaxMs(),
+                serviceTime.getMeanMs(), serviceTime.getP50Ms(), serviceTime.getP90Ms(),
+                serviceTime.getP99Ms(), serviceTime.getP999Ms(), serviceTime.getMaxMs(),
+                statusCodes);
+    }
+}
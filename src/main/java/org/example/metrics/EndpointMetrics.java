@@ -0,0 +1,104 @@
+package org.example.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds), status code counters and byte counts (payload and on the wire)
+ * for one method + endpoint template.
+ * Recording is wait-free, so worker threads never contend on a lock.
+ */
+public class EndpointMetrics {
+
+    private final String method;
+    private final String endpoint;
+
+    // Auto-resizing, 3 significant digits
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    // As sent/received, after content-coding; equal to bytesIn/bytesOut for uncompressed exchanges
+    private final LongAdder wireBytesIn = new LongAdder();
+    private final LongAdder wireBytesOut = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+
+    public EndpointMetrics(String method, String endpoint) {
+        this.method = method;
+        this.endpoint = endpoint;
+    }
+
+    public void record(long latencyMicros, int statusCode, long requestBytes, long responseBytes) {
+        record(latencyMicros, statusCode, requestBytes, responseBytes, -1, -1, 0);
+    }
+
+    /*
+     * Wire sizes of -1 mean the body was not content-coded
+     */
+    public void record(long latencyMicros, int statusCode, long requestBytes, long responseBytes,
+                       long requestWireBytes, long responseWireBytes, long decodeNanos) {
+        this.latencyMicros.recordValue(Math.max(0, latencyMicros));
+        statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        bytesOut.add(requestBytes);
+        bytesIn.add(responseBytes);
+        wireBytesOut.add(requestWireBytes < 0 ? requestBytes : requestWireBytes);
+        wireBytesIn.add(responseWireBytes < 0 ? responseBytes : responseWireBytes);
+        if (responseWireBytes >= 0) {
+            compressedResponses.increment();
+            this.decodeNanos.add(decodeNanos);
+        }
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /*
+     * Copy of the histogram, safe to query while recording continues
+     */
+    public Histogram getHistogram() {
+        return latencyMicros.copy();
+    }
+
+    public EndpointSummary summarize() {
+        Histogram histogram = getHistogram();
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((code, count) -> statuses.put(code, count.sum()));
+
+        return EndpointSummary.builder()
+                .method(method)
+                .endpoint(endpoint)
+                .count(histogram.getTotalCount())
+                .minMs(toMillis(histogram.getMinValue()))
+                .meanMs(histogram.getMean() / 1000.0)
+                .p50Ms(toMillis(histogram.getValueAtPercentile(50)))
+                .p90Ms(toMillis(histogram.getValueAtPercentile(90)))
+                .p99Ms(toMillis(histogram.getValueAtPercentile(99)))
+                .p999Ms(toMillis(histogram.getValueAtPercentile(99.9)))
+                .maxMs(toMillis(histogram.getMaxValue()))
+                .statusCodes(statuses)
+                .bytesIn(bytesIn.sum())
+                .bytesOut(bytesOut.sum())
+                .wireBytesIn(wireBytesIn.sum())
+                .wireBytesOut(wireBytesOut.sum())
+                .compressedResponses(compressedResponses.sum())
+                .decodeMs(decodeNanos.sum() / 1_000_000.0)
+                .histogram(LatencyRecorder.encodeHistogram(histogram))
+                .build();
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
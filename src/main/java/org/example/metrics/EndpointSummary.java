@@ -0,0 +1,35 @@
+package org.example.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointSummary {
+    private String method;
+    private String endpoint;
+    private long count;
+    private double minMs;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+    private Map<Integer, Long> statusCodes;
+    private long bytesIn;
+    private long bytesOut;
+    private long wireBytesIn;
+    private long wireBytesOut;
+    private long compressedResponses;
+    // Total time spent decompressing response bodies
+    private double decodeMs;
+    // Base64 compressed HdrHistogram (microseconds), so summaries of several runs can be merged exactly
+    private String histogram;
+}
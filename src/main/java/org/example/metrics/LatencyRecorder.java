@@ -0,0 +1,175 @@
+package org.example.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.JsonUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+
+/**
+ * Suite-wide registry of per-endpoint latency metrics, fed by MetricsFilter.
+ * Endpoints are keyed by HTTP method and path template (/public/v2/users/{userId}), not the expanded URL.
+ */
+public class LatencyRecorder {
+
+    private static final Logger logger = LogManager.getLogger(LatencyRecorder.class);
+
+    private static final ConcurrentMap<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+    private LatencyRecorder() {
+    }
+
+    public static void record(String method, String endpoint, long latencyMicros, int statusCode,
+                              long requestBytes, long responseBytes) {
+        metrics.computeIfAbsent(method + " " + endpoint, key -> new EndpointMetrics(method, endpoint))
+                .record(latencyMicros, statusCode, requestBytes, responseBytes);
+    }
+
+    public static void record(String method, String endpoint, long latencyMicros, int statusCode,
+                              long requestBytes, long responseBytes, long requestWireBytes, long responseWireBytes,
+                              long decodeNanos) {
+        metrics.computeIfAbsent(method + " " + endpoint, key -> new EndpointMetrics(method, endpoint))
+                .record(latencyMicros, statusCode, requestBytes, responseBytes, requestWireBytes, responseWireBytes,
+                        decodeNanos);
+    }
+
+    public static EndpointMetrics getMetrics(String method, String endpoint) {
+        return metrics.get(method + " " + endpoint);
+    }
+
+    public static List<EndpointMetrics> getAllMetrics() {
+        return List.copyOf(metrics.values());
+    }
+
+    public static List<EndpointSummary> getSummaries() {
+        return metrics.values().stream()
+                .map(EndpointMetrics::summarize)
+                .sorted(Comparator.comparing(EndpointSummary::getEndpoint).thenComparing(EndpointSummary::getMethod))
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * Log p50/p90/p99/p99.9 per endpoint
+     */
+    public static void printSummary() {
+        List<EndpointSummary> summaries = getSummaries();
+        if (summaries.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder("Endpoint latency (ms):\n")
+                .append(String.format("%-7s %-40s %7s %9s %9s %9s %9s %9s%n",
+                        "METHOD", "ENDPOINT", "COUNT", "P50", "P90", "P99", "P99.9", "MAX"));
+        for (EndpointSummary summary : summaries) {
+            table.append(String.format("%-7s %-40s %7d %9.1f %9.1f %9.1f %9.1f %9.1f  status=%s in=%dB out=%dB",
+                    summary.getMethod(), summary.getEndpoint(), summary.getCount(), summary.getP50Ms(),
+                    summary.getP90Ms(), summary.getP99Ms(), summary.getP999Ms(), summary.getMaxMs(),
+                    summary.getStatusCodes(), summary.getBytesIn(), summary.getBytesOut()));
+            if (summary.getWireBytesIn() != summary.getBytesIn() || summary.getWireBytesOut() != summary.getBytesOut()) {
+                table.append(String.format(" wireIn=%dB wireOut=%dB decode=%.1fms",
+                        summary.getWireBytesIn(), summary.getWireBytesOut(), summary.getDecodeMs()));
+            }
+            table.append(System.lineSeparator());
+        }
+        logger.info(table.toString());
+    }
+
+    /*
+     * Write all endpoint summaries as a JSON array
+     */
+    public static void exportJson(String filePath) {
+        JsonUtils.serializeToFile(getSummaries(), filePath);
+        logger.info("Latency metrics written to: {}", filePath);
+    }
+
+    /*
+     * Combine summaries of the same endpoints from several runs (e.g. shards of one suite): counters
+     * are summed and percentiles recomputed from the merged histograms, so they are exact
+     */
+    public static List<EndpointSummary> merge(Collection<List<EndpointSummary>> runs) {
+        Map<String, EndpointSummary> merged = new LinkedHashMap<>();
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        for (List<EndpointSummary> run : runs) {
+            for (EndpointSummary summary : run) {
+                String key = summary.getMethod() + " " + summary.getEndpoint();
+                if (summary.getHistogram() != null) {
+                    Histogram histogram = decodeHistogram(summary.getHistogram());
+                    histograms.merge(key, histogram, (total, next) -> {
+                        total.add(next);
+                        return total;
+                    });
+                }
+                merged.merge(key, summary, LatencyRecorder::addCounters);
+            }
+        }
+        return merged.entrySet().stream()
+                .map(entry -> withPercentiles(entry.getValue(), histograms.get(entry.getKey())))
+                .sorted(Comparator.comparing(EndpointSummary::getEndpoint).thenComparing(EndpointSummary::getMethod))
+                .collect(Collectors.toList());
+    }
+
+    private static EndpointSummary addCounters(EndpointSummary total, EndpointSummary next) {
+        Map<Integer, Long> statuses = new TreeMap<>(total.getStatusCodes());
+        next.getStatusCodes().forEach((code, count) -> statuses.merge(code, count, Long::sum));
+        return total.toBuilder()
+                .count(total.getCount() + next.getCount())
+                .statusCodes(statuses)
+                .bytesIn(total.getBytesIn() + next.getBytesIn())
+                .bytesOut(total.getBytesOut() + next.getBytesOut())
+                .wireBytesIn(total.getWireBytesIn() + next.getWireBytesIn())
+                .wireBytesOut(total.getWireBytesOut() + next.getWireBytesOut())
+                .compressedResponses(total.getCompressedResponses() + next.getCompressedResponses())
+                .decodeMs(total.getDecodeMs() + next.getDecodeMs())
+                .build();
+    }
+
+    private static EndpointSummary withPercentiles(EndpointSummary summary, Histogram histogram) {
+        if (histogram == null) {
+            return summary;
+        }
+        return summary.toBuilder()
+                .count(histogram.getTotalCount())
+                .minMs(histogram.getMinValue() / 1000.0)
+                .meanMs(histogram.getMean() / 1000.0)
+                .p50Ms(histogram.getValueAtPercentile(50) / 1000.0)
+                .p90Ms(histogram.getValueAtPercentile(90) / 1000.0)
+                .p99Ms(histogram.getValueAtPercentile(99) / 1000.0)
+                .p999Ms(histogram.getValueAtPercentile(99.9) / 1000.0)
+                .maxMs(histogram.getMaxValue() / 1000.0)
+                .histogram(encodeHistogram(histogram))
+                .build();
+    }
+
+    /*
+     * Base64 of the compressed HdrHistogram encoding
+     */
+    public static String encodeHistogram(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    public static Histogram decodeHistogram(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid encoded latency histogram", e);
+        }
+    }
+
+    public static void reset() {
+        metrics.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.metrics;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.example.client.Compression;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Records latency, status code, payload and wire sizes of every request into LatencyRecorder
+ */
+public class MetricsFilter implements OrderedFilter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Compression.Transfer transfer = Compression.begin();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } finally {
+            Compression.end();
+        }
+        long latencyMicros = (System.nanoTime() - start) / 1000;
+
+        // Reads the body if REST Assured has not yet, so a compressed body is fully decoded and counted
+        long responseBytes = responseBytes(response);
+        LatencyRecorder.record(requestSpec.getMethod(), endpointTemplate(requestSpec), latencyMicros,
+                response.getStatusCode(), requestBytes(requestSpec.getBody()), responseBytes,
+                transfer.getRequestWireBytes(), transfer.getResponseWireBytes(), transfer.getDecodeNanos());
+        return response;
+    }
+
+    /*
+     * Path as written by the caller, with {placeholders} left in
+     */
+    static String endpointTemplate(FilterableRequestSpecification requestSpec) {
+        String path = requestSpec.getUserDefinedPath();
+        if (path == null || path.isEmpty()) {
+            path = requestSpec.getDerivedPath();
+        }
+        return path == null || path.isEmpty() ? "/" : path;
+    }
+
+    private static long requestBytes(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        return String.valueOf(body).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static long responseBytes(Response response) {
+        String contentLength = response.getHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException ignored) {
+                // fall through to the body size
+            }
+        }
+        byte[] body = response.asByteArray();
+        return body == null ? 0 : body.length;
+    }
+
+    /*
+     * Run closest to the HTTP call so logging and other filters are not counted as latency
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+}
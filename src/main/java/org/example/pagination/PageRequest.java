@@ -0,0 +1,13 @@
+package org.example.pagination;
+
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * Sends the request for one page (1-based) of a list endpoint, e.g. with RestClient.getAsync
+ */
+@FunctionalInterface
+public interface PageRequest {
+    CompletableFuture<Response> fetch(int page, int perPage);
+}
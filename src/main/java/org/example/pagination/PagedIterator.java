@@ -0,0 +1,168 @@
+package org.example.pagination;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import io.restassured.response.Response;
+import org.example.utils.JsonUtils;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Items of every page of a list endpoint, in page order. The first page is fetched when the
+ * iterator is first used; its X-Pagination-Pages (or -Total and -Limit) header gives the page count,
+ * and the following pages are requested ahead of the consumer, at most `prefetch` at a time. A full
+ * scan so takes about pages / prefetch round trips instead of one per page, while no more than
+ * prefetch + 1 pages are held at once. Items of a page are bound one at a time as they are consumed.
+ *
+ * Without pagination headers pages are fetched one by one until a short or empty page.
+ * Close the iterator (or the stream from Pagination.stream) when abandoning a scan early;
+ * requests still in flight are then discarded.
+ */
+public class PagedIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final String endpoint;
+    private final PageRequest request;
+    private final Class<T> type;
+    private final int perPage;
+    private final int prefetch;
+
+    private final ArrayDeque<CompletableFuture<Response>> window = new ArrayDeque<>();
+    private MappingIterator<T> current;
+    private boolean started;
+    private boolean finished;
+    // -1 until known from the first page
+    private int totalPages = -1;
+    private int nextPage = 1;
+    private int currentPageSize;
+
+    private long startNanos;
+    private long pages;
+    private long items;
+    private int maxInFlight;
+
+    PagedIterator(String endpoint, PageRequest request, Class<T> type, int perPage, int prefetch) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.type = type;
+        this.perPage = perPage;
+        this.prefetch = Math.max(1, prefetch);
+    }
+
+    /*
+     * Page count from the first response, -1 while unknown or without pagination headers
+     */
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        if (!started) {
+            started = true;
+            startNanos = System.nanoTime();
+            Response first = join(request.fetch(nextPage++, perPage));
+            totalPages = Pagination.totalPages(first);
+            open(first);
+            topUp();
+        }
+        while (!current.hasNext()) {
+            closeCurrent();
+            if (window.isEmpty()) {
+                // Without headers the next page is only worth asking for after a full one
+                if (totalPages >= 0 || currentPageSize < perPage) {
+                    finish();
+                    return false;
+                }
+                window.add(request.fetch(nextPage++, perPage));
+            }
+            open(join(window.poll()));
+            topUp();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more items of " + endpoint);
+        }
+        currentPageSize++;
+        items++;
+        return current.next();
+    }
+
+    /*
+     * Stop the scan: requests in flight are cancelled, their responses ignored
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        window.forEach(page -> page.cancel(false));
+        window.clear();
+        closeCurrent();
+        finish();
+    }
+
+    private void open(Response page) {
+        if (page.getStatusCode() != 200) {
+            close();
+            throw new RuntimeException("Page " + (pages + 1) + " of " + endpoint + " returned status "
+                    + page.getStatusCode() + ": " + page.asString());
+        }
+        pages++;
+        currentPageSize = 0;
+        current = JsonUtils.iterateArray(page, type);
+    }
+
+    private void topUp() {
+        while (totalPages >= 0 && nextPage <= totalPages && window.size() < prefetch) {
+            window.add(request.fetch(nextPage++, perPage));
+        }
+        maxInFlight = Math.max(maxInFlight, window.size());
+    }
+
+    private void closeCurrent() {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close page of " + endpoint, e);
+        }
+        current = null;
+    }
+
+    private void finish() {
+        finished = true;
+        if (started) {
+            Pagination.record(endpoint, pages, items, System.nanoTime() - startNanos, maxInFlight);
+        }
+    }
+
+    private Response join(CompletableFuture<Response> page) {
+        try {
+            return page.join();
+        } catch (CompletionException | CancellationException e) {
+            close();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to fetch page of " + endpoint, cause);
+        }
+    }
+}
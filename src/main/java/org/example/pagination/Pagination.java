@@ -0,0 +1,147 @@
+package org.example.pagination;
+
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Full scans of paginated list endpoints (page / per_page parameters, X-Pagination-* headers), with
+ * the following pages prefetched in parallel - see PagedIterator. Services expose them as streams,
+ * e.g. UserService.streamAllUsers(); scans are summarised per endpoint in logStats() / exportJson().
+ *
+ * Settings:
+ * pagination.per.page (100) - page size requested; gorest allows at most 100
+ * pagination.prefetch (4) - page requests kept in flight ahead of the consumer
+ */
+public class Pagination {
+
+    private static final Logger logger = LogManager.getLogger(Pagination.class);
+
+    private static final ConcurrentMap<String, Totals> totals = new ConcurrentHashMap<>();
+
+    private Pagination() {
+    }
+
+    public static int perPage() {
+        return Math.max(1, ConfigReader.getInstance().getIntProperty("pagination.per.page", 100));
+    }
+
+    public static int prefetch() {
+        return Math.max(1, ConfigReader.getInstance().getIntProperty("pagination.prefetch", 4));
+    }
+
+    public static <T> PagedIterator<T> iterate(String endpoint, PageRequest request, Class<T> type) {
+        return new PagedIterator<>(endpoint, request, type, perPage(), prefetch());
+    }
+
+    /*
+     * Lazy, ordered stream over every item; closing it cancels requests still in flight
+     */
+    public static <T> Stream<T> stream(String endpoint, PageRequest request, Class<T> type) {
+        PagedIterator<T> items = iterate(endpoint, request, type);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(items,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(items::close);
+    }
+
+    /*
+     * Page count announced by a list response: X-Pagination-Pages, else from -Total and -Limit; -1 if absent
+     */
+    static int totalPages(Response page) {
+        Integer pages = header(page, "X-Pagination-Pages");
+        if (pages != null) {
+            return pages;
+        }
+        Integer total = header(page, "X-Pagination-Total");
+        Integer limit = header(page, "X-Pagination-Limit");
+        if (total != null && limit != null && limit > 0) {
+            return (total + limit - 1) / limit;
+        }
+        return -1;
+    }
+
+    static void record(String endpoint, long pages, long items, long nanos, int maxInFlight) {
+        totals.computeIfAbsent(endpoint, key -> new Totals()).add(pages, items, nanos, maxInFlight);
+        logger.debug("Scanned {}: {} items in {} pages, {} ms", endpoint, items, pages, nanos / 1_000_000);
+    }
+
+    public static List<PaginationStats> getStats() {
+        return totals.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey()))
+                .sorted(Comparator.comparing(PaginationStats::getEndpoint))
+                .collect(Collectors.toList());
+    }
+
+    public static void logStats() {
+        for (PaginationStats stats : getStats()) {
+            logger.info("Pagination {}: scans={} pages={} items={} time={} ms ({} ms/page) maxInFlight={}",
+                    stats.getEndpoint(), stats.getScans(), stats.getPages(), stats.getItems(),
+                    String.format("%.1f", stats.getTotalMs()), String.format("%.2f", stats.getMsPerPage()),
+                    stats.getMaxInFlight());
+        }
+    }
+
+    public static void exportJson(String filePath) {
+        List<PaginationStats> stats = getStats();
+        if (!stats.isEmpty()) {
+            JsonUtils.serializeToFile(stats, filePath);
+        }
+    }
+
+    public static void reset() {
+        totals.clear();
+    }
+
+    private static Integer header(Response response, String name) {
+        String value = response.getHeader(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring non-numeric {} header: {}", name, value);
+            return null;
+        }
+    }
+
+    private static final class Totals {
+        private long scans;
+        private long pages;
+        private long items;
+        private long nanos;
+        private int maxInFlight;
+
+        private synchronized void add(long scanPages, long scanItems, long scanNanos, int scanInFlight) {
+            scans++;
+            pages += scanPages;
+            items += scanItems;
+            nanos += scanNanos;
+            maxInFlight = Math.max(maxInFlight, scanInFlight);
+        }
+
+        private synchronized PaginationStats toStats(String endpoint) {
+            return PaginationStats.builder()
+                    .endpoint(endpoint)
+                    .scans(scans)
+                    .pages(pages)
+                    .items(items)
+                    .totalMs(nanos / 1_000_000.0)
+                    .msPerPage(pages == 0 ? 0 : nanos / 1_000_000.0 / pages)
+                    .maxInFlight(maxInFlight)
+                    .build();
+        }
+    }
+}
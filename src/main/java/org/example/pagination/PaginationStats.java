@@ -0,0 +1,22 @@
+package org.example.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginationStats {
+    private String endpoint;
+    private long scans;
+    private long pages;
+    private long items;
+    // Wall time of the scans, first request to last item consumed
+    private double totalMs;
+    private double msPerPage;
+    // Most page requests one scan had in flight at once
+    private int maxInFlight;
+}
@@ -0,0 +1,23 @@
+package org.example.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored latency distribution of one endpoint; histogram is a Base64, compressed HdrHistogram (microseconds)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointBaseline {
+    private String method;
+    private String endpoint;
+    private long count;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private String histogram;
+}
@@ -0,0 +1,114 @@
+package org.example.perf;
+
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Response-time SLA checks inside functional tests, e.g.
+ *
+ *   LatencyAssert.measure("getProduct", 5, 50, () -> productService.getProduct(id))
+ *           .percentileBelow(95, 200)
+ *           .maxBelow(1000);
+ *
+ * Each sample is the wall-clock time of one call as the test sees it, so retries and throttle
+ * waits count against the SLA. Failures throw AssertionError with the measured distribution.
+ */
+public class LatencyAssert {
+
+    private static final Logger logger = LogManager.getLogger(LatencyAssert.class);
+
+    private final String label;
+    private final Histogram latencyMicros;
+
+    private LatencyAssert(String label, Histogram latencyMicros) {
+        this.label = label;
+        this.latencyMicros = latencyMicros;
+    }
+
+    public static LatencyAssert measure(String label, int samples, Supplier<?> call) {
+        return measure(label, 0, samples, call);
+    }
+
+    /*
+     * Run call warmup times unmeasured, then samples times measured, one after another
+     */
+    public static LatencyAssert measure(String label, int warmup, int samples, Supplier<?> call) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("samples must be > 0");
+        }
+        for (int i = 0; i < warmup; i++) {
+            call.get();
+        }
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            call.get();
+            histogram.recordValue(Math.max(0, (System.nanoTime() - start) / 1000));
+        }
+        LatencyAssert result = new LatencyAssert(label, histogram);
+        logger.info("{}: {}", label, result.describe());
+        return result;
+    }
+
+    /*
+     * Single-response check using the time REST Assured measured for it
+     */
+    public static void assertResponseTime(Response response, long maxMs) {
+        long timeMs = response.getTimeIn(TimeUnit.MILLISECONDS);
+        if (timeMs > maxMs) {
+            throw new AssertionError("Response time " + timeMs + " ms exceeds SLA " + maxMs + " ms");
+        }
+    }
+
+    public LatencyAssert percentileBelow(double percentile, double maxMs) {
+        double actualMs = getPercentileMs(percentile);
+        if (actualMs > maxMs) {
+            throw new AssertionError(String.format("%s p%s = %.1f ms exceeds SLA %s ms (%s)",
+                    label, formatPercentile(percentile), actualMs, formatPercentile(maxMs), describe()));
+        }
+        return this;
+    }
+
+    public LatencyAssert medianBelow(double maxMs) {
+        return percentileBelow(50, maxMs);
+    }
+
+    public LatencyAssert maxBelow(double maxMs) {
+        return percentileBelow(100, maxMs);
+    }
+
+    public LatencyAssert meanBelow(double maxMs) {
+        double meanMs = latencyMicros.getMean() / 1000.0;
+        if (meanMs > maxMs) {
+            throw new AssertionError(String.format("%s mean = %.1f ms exceeds SLA %s ms (%s)",
+                    label, meanMs, formatPercentile(maxMs), describe()));
+        }
+        return this;
+    }
+
+    public double getPercentileMs(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public long getCount() {
+        return latencyMicros.getTotalCount();
+    }
+
+    public Histogram getHistogram() {
+        return latencyMicros.copy();
+    }
+
+    public String describe() {
+        return String.format("n=%d p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms", getCount(),
+                getPercentileMs(50), getPercentileMs(95), getPercentileMs(99), getPercentileMs(100));
+    }
+
+    private static String formatPercentile(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.perf;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One-sided Mann-Whitney U test on two latency histograms, using the normal approximation with
+ * tie and continuity correction. Distribution-free, so it copes with the long right tail of
+ * response times where a t-test on means would not. Works on histogram buckets, so the cost
+ * depends on the number of distinct values, not the number of samples.
+ */
+class MannWhitney {
+
+    private MannWhitney() {
+    }
+
+    /*
+     * p-value for "current tends to be slower than baseline"; 1.0 when either side is empty
+     */
+    static double pValueSlower(Histogram current, Histogram baseline) {
+        double n1 = current.getTotalCount();
+        double n2 = baseline.getTotalCount();
+        if (n1 == 0 || n2 == 0) {
+            return 1.0;
+        }
+
+        // value -> {count in current, count in baseline}, ascending
+        TreeMap<Long, long[]> counts = new TreeMap<>();
+        addCounts(counts, current, 0);
+        addCounts(counts, baseline, 1);
+
+        double rankSumCurrent = 0;
+        double tieTerm = 0;
+        double ranked = 0;
+        for (Map.Entry<Long, long[]> entry : counts.entrySet()) {
+            double inCurrent = entry.getValue()[0];
+            double tied = inCurrent + entry.getValue()[1];
+            double averageRank = ranked + (tied + 1) / 2;
+            rankSumCurrent += inCurrent * averageRank;
+            tieTerm += tied * tied * tied - tied;
+            ranked += tied;
+        }
+
+        double n = n1 + n2;
+        double u = rankSumCurrent - n1 * (n1 + 1) / 2;
+        double mean = n1 * n2 / 2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return upperTail(z);
+    }
+
+    private static void addCounts(TreeMap<Long, long[]> counts, Histogram histogram, int side) {
+        for (HistogramIterationValue value : histogram.recordedValues()) {
+            counts.computeIfAbsent(histogram.highestEquivalentValue(value.getValueIteratedTo()), key -> new long[2])
+                    [side] += value.getCountAtValueIteratedTo();
+        }
+    }
+
+    /*
+     * P(Z > z) for a standard normal - erfc approximation with fractional error below 1.2e-7
+     */
+    static double upperTail(double z) {
+        return 0.5 * erfc(z / Math.sqrt(2));
+    }
+
+    private static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1 / (1 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? r : 2 - r;
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.perf;
+
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.metrics.EndpointMetrics;
+import org.example.metrics.LatencyRecorder;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Suite-level latency regression gate. Compares each endpoint's distribution in LatencyRecorder
+ * against a stored baseline and fails the suite when an endpoint got slower both
+ * statistically (one-sided Mann-Whitney U, p < alpha) and materially (median up by more than the
+ * tolerance) - the second condition keeps large runs from failing on sub-millisecond noise.
+ *
+ * Settings:
+ * perf.gate.enabled (false)
+ * perf.baseline.file (src/test/resources/perf/baseline-<env>.json)
+ * perf.baseline.update (false) - store this run as the new baseline instead of gating
+ * perf.gate.alpha (0.01), perf.gate.tolerance.percent (10), perf.gate.min.samples (30)
+ */
+public class PerformanceGate {
+
+    private static final Logger logger = LogManager.getLogger(PerformanceGate.class);
+
+    private PerformanceGate() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("perf.gate.enabled", false);
+    }
+
+    public static String getBaselinePath() {
+        String path = ConfigReader.getInstance().getProperty("perf.baseline.file");
+        return path != null ? path
+                : "src/test/resources/perf/baseline-" + ConfigReader.getInstance().getSnapshot().getEnv() + ".json";
+    }
+
+    /*
+     * Suite hook: update the baseline or gate against it, writing the comparison to reportPath.
+     * Throws AssertionError listing every regressed endpoint
+     */
+    public static List<RegressionResult> run(String reportPath) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        ConfigReader config = ConfigReader.getInstance();
+        String baselinePath = getBaselinePath();
+        if (config.getBooleanProperty("perf.baseline.update", false)) {
+            writeBaseline(baselinePath);
+            return List.of();
+        }
+        if (!new File(baselinePath).isFile()) {
+            logger.warn("No latency baseline at {} - run once with -Dperf.baseline.update=true to create it",
+                    baselinePath);
+            return List.of();
+        }
+
+        List<RegressionResult> results = compare(loadBaseline(baselinePath), LatencyRecorder.getAllMetrics(),
+                getAlpha(config), config.getIntProperty("perf.gate.tolerance.percent", 10),
+                config.getIntProperty("perf.gate.min.samples", 30));
+        JsonUtils.serializeToFile(results, reportPath);
+        logResults(results);
+
+        List<String> regressions = results.stream()
+                .filter(result -> result.getVerdict() == RegressionResult.Verdict.REGRESSION)
+                .map(result -> String.format("%s %s p50 %.1f -> %.1f ms (%+.0f%%), p95 %.1f -> %.1f ms, p=%.2g",
+                        result.getMethod(), result.getEndpoint(), result.getBaselineP50Ms(), result.getCurrentP50Ms(),
+                        result.getP50ChangePercent(), result.getBaselineP95Ms(), result.getCurrentP95Ms(),
+                        result.getPValue()))
+                .collect(Collectors.toList());
+        if (!regressions.isEmpty()) {
+            throw new AssertionError("Latency regression against " + baselinePath + ":\n"
+                    + String.join("\n", regressions));
+        }
+        return results;
+    }
+
+    public static List<RegressionResult> compare(List<EndpointBaseline> baseline, List<EndpointMetrics> current,
+                                                 double alpha, double tolerancePercent, int minSamples) {
+        Map<String, EndpointMetrics> currentByKey = new LinkedHashMap<>();
+        for (EndpointMetrics metrics : current) {
+            currentByKey.put(metrics.getMethod() + " " + metrics.getEndpoint(), metrics);
+        }
+
+        List<RegressionResult> results = new ArrayList<>();
+        for (EndpointBaseline stored : baseline) {
+            EndpointMetrics metrics = currentByKey.remove(stored.getMethod() + " " + stored.getEndpoint());
+            if (metrics == null) {
+                results.add(RegressionResult.builder()
+                        .method(stored.getMethod())
+                        .endpoint(stored.getEndpoint())
+                        .verdict(RegressionResult.Verdict.NOT_RUN)
+                        .baselineCount(stored.getCount())
+                        .baselineP50Ms(stored.getP50Ms())
+                        .baselineP95Ms(stored.getP95Ms())
+                        .pValue(1.0)
+                        .build());
+                continue;
+            }
+            results.add(compare(stored, metrics.getHistogram(), alpha, tolerancePercent, minSamples));
+        }
+        for (EndpointMetrics metrics : currentByKey.values()) {
+            Histogram histogram = metrics.getHistogram();
+            results.add(RegressionResult.builder()
+                    .method(metrics.getMethod())
+                    .endpoint(metrics.getEndpoint())
+                    .verdict(RegressionResult.Verdict.NEW_ENDPOINT)
+                    .currentCount(histogram.getTotalCount())
+                    .currentP50Ms(percentileMs(histogram, 50))
+                    .currentP95Ms(percentileMs(histogram, 95))
+                    .pValue(1.0)
+                    .build());
+        }
+        results.sort(Comparator.comparing(RegressionResult::getEndpoint).thenComparing(RegressionResult::getMethod));
+        return results;
+    }
+
+    private static RegressionResult compare(EndpointBaseline stored, Histogram current, double alpha,
+                                            double tolerancePercent, int minSamples) {
+        Histogram baseline = decode(stored.getHistogram());
+        double baselineP50 = percentileMs(baseline, 50);
+        double currentP50 = percentileMs(current, 50);
+        double baselineP95 = percentileMs(baseline, 95);
+        double currentP95 = percentileMs(current, 95);
+        double p50Change = changePercent(baselineP50, currentP50);
+
+        RegressionResult.Verdict verdict;
+        double pValue = 1.0;
+        if (baseline.getTotalCount() < minSamples || current.getTotalCount() < minSamples) {
+            verdict = RegressionResult.Verdict.INSUFFICIENT_SAMPLES;
+        } else {
+            pValue = MannWhitney.pValueSlower(current, baseline);
+            verdict = pValue < alpha && p50Change > tolerancePercent
+                    ? RegressionResult.Verdict.REGRESSION : RegressionResult.Verdict.PASS;
+        }
+
+        return RegressionResult.builder()
+                .method(stored.getMethod())
+                .endpoint(stored.getEndpoint())
+                .verdict(verdict)
+                .baselineCount(baseline.getTotalCount())
+                .currentCount(current.getTotalCount())
+                .baselineP50Ms(baselineP50)
+                .currentP50Ms(currentP50)
+                .baselineP95Ms(baselineP95)
+                .currentP95Ms(currentP95)
+                .p50ChangePercent(p50Change)
+                .p95ChangePercent(changePercent(baselineP95, currentP95))
+                .pValue(pValue)
+                .build();
+    }
+
+    /*
+     * Store every endpoint recorded so far as the baseline
+     */
+    public static void writeBaseline(String path) {
+        List<EndpointBaseline> baseline = LatencyRecorder.getAllMetrics().stream()
+                .map(metrics -> {
+                    Histogram histogram = metrics.getHistogram();
+                    return EndpointBaseline.builder()
+                            .method(metrics.getMethod())
+                            .endpoint(metrics.getEndpoint())
+                            .count(histogram.getTotalCount())
+                            .p50Ms(percentileMs(histogram, 50))
+                            .p95Ms(percentileMs(histogram, 95))
+                            .p99Ms(percentileMs(histogram, 99))
+                            .histogram(encode(histogram))
+                            .build();
+                })
+                .sorted(Comparator.comparing(EndpointBaseline::getEndpoint).thenComparing(EndpointBaseline::getMethod))
+                .collect(Collectors.toList());
+        JsonUtils.serializeToFile(baseline, path);
+        logger.info("Latency baseline for {} endpoints written to: {}", baseline.size(), path);
+    }
+
+    public static List<EndpointBaseline> loadBaseline(String path) {
+        return Arrays.asList(JsonUtils.deserializeFromFile(path, EndpointBaseline[].class));
+    }
+
+    private static double getAlpha(ConfigReader config) {
+        String alpha = config.getProperty("perf.gate.alpha");
+        return alpha == null || alpha.isBlank() ? 0.01 : Double.parseDouble(alpha.trim());
+    }
+
+    private static void logResults(List<RegressionResult> results) {
+        StringBuilder table = new StringBuilder("Latency vs baseline:\n")
+                .append(String.format("%-7s %-40s %-20s %9s %9s %8s %9s %9s %9s%n",
+                        "METHOD", "ENDPOINT", "VERDICT", "BASE P50", "P50", "CHANGE", "BASE P95", "P95", "P-VALUE"));
+        for (RegressionResult result : results) {
+            table.append(String.format("%-7s %-40s %-20s %9.1f %9.1f %+7.0f%% %9.1f %9.1f %9.2g%n",
+                    result.getMethod(), result.getEndpoint(), result.getVerdict(), result.getBaselineP50Ms(),
+                    result.getCurrentP50Ms(), result.getP50ChangePercent(), result.getBaselineP95Ms(),
+                    result.getCurrentP95Ms(), result.getPValue()));
+        }
+        logger.info(table.toString());
+    }
+
+    static String encode(Histogram histogram) {
+        return LatencyRecorder.encodeHistogram(histogram);
+    }
+
+    static Histogram decode(String encoded) {
+        return LatencyRecorder.decodeHistogram(encoded);
+    }
+
+    private static double percentileMs(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double changePercent(double before, double after) {
+        return before <= 0 ? 0 : (after - before) * 100 / before;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegressionResult {
+
+    public enum Verdict {
+        PASS, REGRESSION, INSUFFICIENT_SAMPLES, NEW_ENDPOINT, NOT_RUN
+    }
+
+    private String method;
+    private String endpoint;
+    private Verdict verdict;
+    private long baselineCount;
+    private long currentCount;
+    private double baselineP50Ms;
+    private double currentP50Ms;
+    private double baselineP95Ms;
+    private double currentP95Ms;
+    private double p50ChangePercent;
+    private double p95ChangePercent;
+    private double pValue;
+}
@@ -0,0 +1,24 @@
+package org.example.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One stored response; repeated headers are joined with ", "
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordedResponse {
+    private String key;
+    private int statusCode;
+    private String statusLine;
+    private Map<String, String> headers;
+    private byte[] body;
+    private long recordedAtMillis;
+}
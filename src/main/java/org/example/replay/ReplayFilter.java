@@ -0,0 +1,105 @@
+package org.example.replay;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.client.RequestKeys;
+import org.example.client.StoredResponses;
+import org.example.utils.ConfigReader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record/replay of read requests (GET, HEAD) against ReplayStore, see ReplayMode.
+ * Requests are keyed by RequestKeys; only 2xx responses are recorded.
+ *
+ * Settings: http.replay.mode (OFF), http.replay.dir (target/replay/<env>),
+ * http.replay.strict (true), http.replay.ttl.seconds (300, PASSTHROUGH only)
+ */
+public class ReplayFilter implements OrderedFilter {
+
+    private static final Logger logger = LogManager.getLogger(ReplayFilter.class);
+
+    private final ReplayMode mode;
+    private final boolean strict;
+    private final long ttlMillis;
+
+    public ReplayFilter(ReplayMode mode) {
+        ConfigReader config = ConfigReader.getInstance();
+        this.mode = mode;
+        this.strict = config.getBooleanProperty("http.replay.strict", true);
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(config.getIntProperty("http.replay.ttl.seconds", 300));
+    }
+
+    public static ReplayFilter fromConfig() {
+        ReplayMode mode = ReplayMode.fromConfig();
+        return mode == ReplayMode.OFF ? null : new ReplayFilter(mode);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!isReadOnly(requestSpec.getMethod())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        ReplayStore store = ReplayStore.shared();
+        String key = RequestKeys.of(requestSpec);
+
+        if (mode == ReplayMode.REPLAY || mode == ReplayMode.PASSTHROUGH) {
+            RecordedResponse recorded = store.get(key);
+            if (recorded != null && (mode == ReplayMode.REPLAY
+                    || System.currentTimeMillis() - recorded.getRecordedAtMillis() < ttlMillis)) {
+                store.onHit();
+                return toResponse(recorded);
+            }
+            if (recorded != null) {
+                store.onExpired();
+            } else {
+                store.onMiss();
+            }
+            if (mode == ReplayMode.REPLAY && strict) {
+                throw new IllegalStateException("No recorded response for " + key + " in replay store");
+            }
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (mode != ReplayMode.REPLAY && response.getStatusCode() / 100 == 2) {
+            store.put(toRecording(key, response));
+            logger.debug("Recorded {}", key);
+        }
+        return response;
+    }
+
+    private static boolean isReadOnly(String method) {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+    }
+
+    private static RecordedResponse toRecording(String key, Response response) {
+        byte[] body = response.asByteArray();
+        return RecordedResponse.builder()
+                .key(key)
+                .statusCode(response.getStatusCode())
+                .statusLine(response.getStatusLine())
+                .headers(StoredResponses.headersOf(response))
+                .body(body == null ? new byte[0] : body)
+                .recordedAtMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    private static Response toResponse(RecordedResponse recorded) {
+        return StoredResponses.toResponse(recorded.getStatusCode(), recorded.getStatusLine(), recorded.getHeaders(),
+                recorded.getBody());
+    }
+
+    /*
+     * Outside the throttle, log and metrics filters - a replayed response never touches the network
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.replay;
+
+import org.example.utils.ConfigReader;
+
+/**
+ * http.replay.mode:
+ * OFF - every request goes to the network (default)
+ * RECORD - send as usual and store successful read responses
+ * REPLAY - answer read requests from the store; a miss fails unless http.replay.strict=false
+ * PASSTHROUGH - answer from the store while a recording is younger than http.replay.ttl.seconds,
+ * otherwise send and store the new response
+ */
+public enum ReplayMode {
+    OFF, RECORD, REPLAY, PASSTHROUGH;
+
+    public static ReplayMode fromConfig() {
+        String mode = ConfigReader.getInstance().getProperty("http.replay.mode");
+        return mode == null || mode.isBlank() ? OFF : valueOf(mode.trim().toUpperCase());
+    }
+}
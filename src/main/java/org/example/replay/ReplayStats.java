@@ -0,0 +1,21 @@
+package org.example.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayStats {
+    private String mode;
+    private String directory;
+    private int entries;
+    private long dataBytes;
+    private long hits;
+    private long misses;
+    private long expired;
+    private long recorded;
+}
@@ -0,0 +1,366 @@
+package org.example.replay;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.client.RequestKeys;
+import org.example.utils.ConfigReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only response log with a hash index, one directory per store:
+ *
+ * responses.log - records of
+ *   int length (of the rest) | long keyHash | long recordedAt | int status | string key | string statusLine
+ *   | int headerCount | (string name | string value)* | int bodyLength | body
+ *   (string = int byteLength + UTF-8 bytes)
+ * responses.idx - long logLength | int count | (long keyHash | long offset)*, written on close
+ *
+ * Only the index (key hash -> offset of the latest record) lives in memory, so a 10k-request
+ * session costs a few hundred KB however large the bodies are. A lookup is one hash probe plus
+ * two positional reads. When the index file is missing or does not match the log (e.g. the run
+ * was killed) it is rebuilt by scanning record headers; a torn last record is cut off.
+ *
+ * A store locks its log while open: exclusively when it records, shared when it is read-only
+ * (REPLAY), so readers can share a directory but a recorder cannot share it with anyone. A store
+ * whose directory is locked by another run fails to open instead of interleaving appends - give
+ * concurrent recording runs their own http.replay.dir, as ShardRunner does for its shards.
+ */
+public class ReplayStore implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ReplayStore.class);
+
+    private static final String LOG_FILE = "responses.log";
+    private static final String INDEX_FILE = "responses.idx";
+
+    private static ReplayStore shared;
+
+    private final Path directory;
+    private final FileChannel log;
+    private final boolean readOnly;
+    private final ConcurrentMap<Long, Long> index = new ConcurrentHashMap<>();
+    private long logLength;
+    // Index file out of date - set by appends and by a rebuild
+    private boolean dirty;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder recorded = new LongAdder();
+
+    public ReplayStore(Path directory) {
+        this(directory, false);
+    }
+
+    /*
+     * readOnly: lookups only - put fails, and neither the log nor the index is rewritten
+     */
+    public ReplayStore(Path directory, boolean readOnly) {
+        this.directory = directory;
+        this.readOnly = readOnly;
+        try {
+            Files.createDirectories(directory);
+            log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            lock(readOnly);
+            logLength = log.size();
+            if (!loadIndex()) {
+                rebuildIndex();
+                dirty = true;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open replay store in " + directory, e);
+        }
+        logger.info("Opened replay store {} with {} entries ({} bytes)", directory, index.size(), logLength);
+    }
+
+    /*
+     * Store for this run: http.replay.dir, default target/replay/<env>
+     */
+    public static synchronized ReplayStore shared() {
+        if (shared == null) {
+            ConfigReader config = ConfigReader.getInstance();
+            String dir = config.getProperty("http.replay.dir");
+            shared = new ReplayStore(Paths.get(dir != null ? dir : "target/replay/" + config.getSnapshot().getEnv()),
+                    ReplayMode.fromConfig() == ReplayMode.REPLAY);
+        }
+        return shared;
+    }
+
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    public static synchronized ReplayStats sharedStats() {
+        return shared == null ? null : shared.getStats();
+    }
+
+    /*
+     * Latest recording for key, or null
+     */
+    public RecordedResponse get(String key) {
+        Long offset = index.get(hash(key));
+        if (offset == null) {
+            return null;
+        }
+        try {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            readFully(length, offset);
+            ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+            readFully(record, offset + Integer.BYTES);
+            record.flip();
+            return decode(record, key);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read replay record at " + offset, e);
+        }
+    }
+
+    public void put(RecordedResponse response) {
+        if (readOnly) {
+            throw new IllegalStateException("Replay store " + directory + " is open read-only");
+        }
+        byte[] record = encode(response);
+        synchronized (this) {
+            try {
+                long offset = logLength;
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    log.write(buffer, offset + buffer.position());
+                }
+                logLength += record.length;
+                index.put(hash(response.getKey()), offset);
+                dirty = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to replay store " + directory, e);
+            }
+        }
+        recorded.increment();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    void onHit() {
+        hits.increment();
+    }
+
+    void onMiss() {
+        misses.increment();
+    }
+
+    void onExpired() {
+        expired.increment();
+    }
+
+    public ReplayStats getStats() {
+        return ReplayStats.builder()
+                .mode(ReplayMode.fromConfig().name())
+                .directory(directory.toString())
+                .entries(index.size())
+                .dataBytes(logLength)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .expired(expired.sum())
+                .recorded(recorded.sum())
+                .build();
+    }
+
+    public void logStats() {
+        ReplayStats stats = getStats();
+        logger.info("Replay store {}: mode={} entries={} bytes={} hits={} misses={} expired={} recorded={}",
+                stats.getDirectory(), stats.getMode(), stats.getEntries(), stats.getDataBytes(), stats.getHits(),
+                stats.getMisses(), stats.getExpired(), stats.getRecorded());
+    }
+
+    /*
+     * Write the index next to the log if it changed and release the file
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            if (log.isOpen()) {
+                if (dirty && !readOnly) {
+                    log.force(false);
+                    writeIndex();
+                }
+                log.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close replay store " + directory, e);
+        }
+    }
+
+    /*
+     * Released when the log is closed
+     */
+    private void lock(boolean shared) throws IOException {
+        FileLock lock;
+        try {
+            lock = log.tryLock(0, Long.MAX_VALUE, shared);
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            log.close();
+            throw new IllegalStateException("Replay store " + directory
+                    + " is locked by another run - give each concurrent run its own http.replay.dir");
+        }
+    }
+
+    private boolean loadIndex() throws IOException {
+        Path indexFile = directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(indexFile)) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if (buffer.remaining() < Long.BYTES + Integer.BYTES || buffer.getLong() != logLength) {
+            return false;
+        }
+        int count = buffer.getInt();
+        if (buffer.remaining() != count * 2L * Long.BYTES) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            index.put(buffer.getLong(), buffer.getLong());
+        }
+        return true;
+    }
+
+    private void writeIndex() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + index.size() * 2 * Long.BYTES);
+        buffer.putLong(logLength).putInt(index.size());
+        index.forEach((hash, offset) -> buffer.putLong(hash).putLong(offset));
+        Path tmp = directory.resolve(INDEX_FILE + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Walk the record headers (length + key hash); later records for a key replace earlier ones
+     */
+    private void rebuildIndex() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+        long offset = 0;
+        while (offset + header.capacity() <= logLength) {
+            header.clear();
+            readFully(header, offset);
+            long next = offset + Integer.BYTES + header.getInt(0);
+            if (header.getInt(0) < Long.BYTES || next > logLength) {
+                break;
+            }
+            index.put(header.getLong(Integer.BYTES), offset);
+            offset = next;
+        }
+        if (offset != logLength) {
+            logger.warn("Replay store {}: dropping {} bytes of incomplete record at the end", directory,
+                    logLength - offset);
+            if (!readOnly) {
+                log.truncate(offset);
+            }
+            logLength = offset;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of replay log at " + position);
+            }
+        }
+    }
+
+    private static byte[] encode(RecordedResponse response) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + response.getBody().length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // length placeholder
+            out.writeLong(hash(response.getKey()));
+            out.writeLong(response.getRecordedAtMillis());
+            out.writeInt(response.getStatusCode());
+            writeString(out, response.getKey());
+            writeString(out, response.getStatusLine());
+            out.writeInt(response.getHeaders().size());
+            for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                writeString(out, header.getKey());
+                writeString(out, header.getValue());
+            }
+            out.writeInt(response.getBody().length);
+            out.write(response.getBody());
+            out.flush();
+
+            byte[] record = bytes.toByteArray();
+            ByteBuffer.wrap(record).putInt(record.length - Integer.BYTES);
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * null when the record belongs to a different key with the same hash
+     */
+    private static RecordedResponse decode(ByteBuffer record, String expectedKey) {
+        record.getLong(); // key hash
+        long recordedAt = record.getLong();
+        int status = record.getInt();
+        String key = readString(record);
+        if (!key.equals(expectedKey)) {
+            return null;
+        }
+        String statusLine = readString(record);
+        int headerCount = record.getInt();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(readString(record), readString(record));
+        }
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+        return RecordedResponse.builder()
+                .key(key)
+                .statusCode(status)
+                .statusLine(statusLine)
+                .headers(headers)
+                .body(body)
+                .recordedAtMillis(recordedAt)
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long hash(String key) {
+        return RequestKeys.hash64(key);
+    }
+}
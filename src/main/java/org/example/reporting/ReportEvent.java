@@ -0,0 +1,32 @@
+package org.example.reporting;
+
+import com.aventstack.extentreports.Status;
+
+/**
+ * Slot in the ReportWriter ring buffer. Instances are preallocated and reused, so producers fill
+ * them in place and the writer clears references once an event is handled.
+ */
+class ReportEvent {
+
+    enum Type { START, CATEGORY, LOG, END }
+
+    Type type;
+    long testId;
+    long timestampMillis;
+    String name;
+    String description;
+    String[] categories;
+    Status status;
+    String details;
+    Throwable throwable;
+
+    void clear() {
+        type = null;
+        name = null;
+        description = null;
+        categories = null;
+        status = null;
+        details = null;
+        throwable = null;
+    }
+}
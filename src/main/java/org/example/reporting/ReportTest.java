@@ -0,0 +1,69 @@
+package org.example.reporting;
+
+import com.aventstack.extentreports.Status;
+
+/**
+ * Handle for one test's report node. Calls only publish events to the ReportWriter - they never
+ * block on report I/O and never touch the shared ExtentReports model from the calling thread.
+ * Mirrors the ExtentTest methods the suites use.
+ */
+public class ReportTest {
+
+    private final ReportWriter writer;
+    private final long id;
+
+    ReportTest(ReportWriter writer, long id) {
+        this.writer = writer;
+        this.id = id;
+    }
+
+    public ReportTest assignCategory(String... categories) {
+        writer.publishCategories(id, categories);
+        return this;
+    }
+
+    public ReportTest log(Status status, String details) {
+        writer.publishLog(id, status, details, null);
+        return this;
+    }
+
+    public ReportTest log(Status status, Throwable throwable) {
+        writer.publishLog(id, status, null, throwable);
+        return this;
+    }
+
+    public ReportTest info(String details) {
+        return log(Status.INFO, details);
+    }
+
+    public ReportTest pass(String details) {
+        return log(Status.PASS, details);
+    }
+
+    public ReportTest warning(String details) {
+        return log(Status.WARNING, details);
+    }
+
+    public ReportTest fail(String details) {
+        return log(Status.FAIL, details);
+    }
+
+    public ReportTest fail(Throwable throwable) {
+        return log(Status.FAIL, throwable);
+    }
+
+    public ReportTest skip(String details) {
+        return log(Status.SKIP, details);
+    }
+
+    public ReportTest skip(Throwable throwable) {
+        return log(Status.SKIP, throwable);
+    }
+
+    /*
+     * No more events for this test; the writer may compact its node
+     */
+    public void end() {
+        writer.publishEnd(id);
+    }
+}
@@ -0,0 +1,478 @@
+package org.example.reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.model.Log;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.TimeoutHandler;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single consumer of report events. Worker threads publish test start, log and end events into a
+ * Disruptor ring buffer (a CAS claim, no lock; a full ring makes producers wait rather than grow
+ * memory) and one background thread applies them to the ExtentReports model, which nothing else
+ * touches.
+ *
+ * Output is incremental:
+ * - every event is appended to a JSON Lines file, flushed after each batch, so the full record
+ *   survives a killed JVM up to the last batch
+ * - the HTML is re-rendered every report.flush.interval.ms or after report.flush.tests finished
+ *   tests, whichever comes first, but never sooner than twice the last render time after it, so
+ *   large reports do not keep the writer rendering
+ * - a shutdown hook drains the ring and renders a last time on Ctrl-C / SIGTERM; tests still
+ *   running are marked with a warning
+ *
+ * Memory stays bounded on long runs: once report.detail.max.tests tests have finished, passed and
+ * skipped tests keep only their status lines in the HTML (the events file has everything), and each
+ * test keeps at most report.max.logs.per.test info lines of at most report.max.log.chars chars.
+ *
+ * Settings: report.queue.size (8192), report.flush.interval.ms (5000, 0 = only at the end),
+ * report.flush.tests (500), report.detail.max.tests (2000), report.max.logs.per.test (200),
+ * report.max.log.chars (20000), report.close.timeout.ms (60000)
+ */
+public class ReportWriter implements EventHandler<ReportEvent>, TimeoutHandler, LifecycleAware {
+
+    private static final Logger logger = LogManager.getLogger(ReportWriter.class);
+
+    private final ExtentReports extent;
+    private final Path eventsFile;
+    private final Disruptor<ReportEvent> disruptor;
+    private final RingBuffer<ReportEvent> ring;
+    private final AtomicLong testIds = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Thread shutdownHook;
+    private volatile boolean closed;
+
+    private final long flushIntervalMs;
+    private final int flushTests;
+    private final int detailMaxTests;
+    private final int maxLogsPerTest;
+    private final int maxLogChars;
+    private final long closeTimeoutMs;
+
+    // Writer thread only
+    private final Map<Long, OpenTest> openTests = new HashMap<>();
+    private BufferedWriter events;
+    private long finishedTests;
+    private long finishedSinceRender;
+    private boolean dirty;
+    private long nextRenderAt;
+    // Renders take at most a third of the writer's time, whatever triggers them
+    private long earliestRenderAt;
+    private long lastRenderMs;
+
+    public ReportWriter(ExtentReports extent, String eventsPath) {
+        ConfigReader config = ConfigReader.getInstance();
+        this.extent = extent;
+        this.eventsFile = Paths.get(eventsPath);
+        this.flushIntervalMs = config.getIntProperty("report.flush.interval.ms", 5000);
+        this.flushTests = config.getIntProperty("report.flush.tests", 500);
+        this.detailMaxTests = config.getIntProperty("report.detail.max.tests", 2000);
+        this.maxLogsPerTest = config.getIntProperty("report.max.logs.per.test", 200);
+        this.maxLogChars = config.getIntProperty("report.max.log.chars", 20000);
+        this.closeTimeoutMs = config.getIntProperty("report.close.timeout.ms", 60000);
+        int queueSize = powerOfTwo(config.getIntProperty("report.queue.size", 8192));
+
+        long idleMs = flushIntervalMs > 0 ? Math.min(1000, flushIntervalMs) : 1000;
+        disruptor = new Disruptor<>(ReportEvent::new, queueSize, runnable -> {
+            Thread thread = new Thread(runnable, "report-writer");
+            thread.setDaemon(true);
+            return thread;
+        }, ProducerType.MULTI, new TimeoutBlockingWaitStrategy(idleMs, TimeUnit.MILLISECONDS));
+        disruptor.handleEventsWith(this);
+        ring = disruptor.start();
+        // Disruptor.shutdown() does not wait for a consumer that has not started yet, so a close()
+        // right after construction would halt the writer before it saw the queued events
+        try {
+            if (!started.await(closeTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Report writer thread did not start within {} ms", closeTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        shutdownHook = new Thread(this::close, "report-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        logger.info("Report writer started: events={}, queue={}, html every {} ms / {} tests", eventsFile,
+                queueSize, flushIntervalMs, flushTests);
+    }
+
+    public ReportTest startTest(String name, String description) {
+        long id = testIds.incrementAndGet();
+        publish(ReportEvent.Type.START, id, null, name, description, null, null, null);
+        return new ReportTest(this, id);
+    }
+
+    void publishCategories(long id, String[] categories) {
+        publish(ReportEvent.Type.CATEGORY, id, null, null, null, null, null, categories.clone());
+    }
+
+    void publishLog(long id, Status status, String details, Throwable throwable) {
+        publish(ReportEvent.Type.LOG, id, status, null, null, details, throwable, null);
+    }
+
+    void publishEnd(long id) {
+        publish(ReportEvent.Type.END, id, null, null, null, null, null, null);
+    }
+
+    private void publish(ReportEvent.Type type, long id, Status status, String name, String description,
+                         String details, Throwable throwable, String[] categories) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        ring.publishEvent((event, sequence) -> {
+            event.type = type;
+            event.testId = id;
+            event.timestampMillis = now;
+            event.status = status;
+            event.name = name;
+            event.description = description;
+            event.details = details;
+            event.throwable = throwable;
+            event.categories = categories;
+        });
+    }
+
+    /*
+     * Drain the ring, finish open tests and render the final HTML. Safe to call more than once
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            disruptor.shutdown(closeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Report writer did not drain within {} ms, rendering what it has", closeTimeoutMs);
+            disruptor.halt();
+        }
+        try {
+            if (!stopped.await(closeTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Report writer did not finish the final render within {} ms", closeTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // JVM already shutting down
+            }
+        }
+        if (dropped.sum() > 0) {
+            logger.warn("Report writer dropped {} events published after close", dropped.sum());
+        }
+    }
+
+    @Override
+    public void onStart() {
+        try {
+            Path parent = eventsFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            events = Files.newBufferedWriter(eventsFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Cannot write report events to {}, HTML report only", eventsFile, e);
+        }
+        nextRenderAt = System.currentTimeMillis() + flushIntervalMs;
+        started.countDown();
+    }
+
+    @Override
+    public void onEvent(ReportEvent event, long sequence, boolean endOfBatch) {
+        try {
+            apply(event);
+            writeEvent(event);
+        } catch (RuntimeException e) {
+            logger.error("Report writer failed to apply {} event for test {}", event.type, event.testId, e);
+        } finally {
+            event.clear();
+        }
+        if (endOfBatch) {
+            flushEvents();
+            maybeRender(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void onTimeout(long sequence) {
+        maybeRender(System.currentTimeMillis());
+    }
+
+    @Override
+    public void onShutdown() {
+        try {
+            Date now = new Date();
+            for (OpenTest open : openTests.values()) {
+                open.test.warning("Run ended before the test finished");
+                open.test.getModel().setEndTime(now);
+            }
+            openTests.clear();
+            flushEvents();
+            if (events != null) {
+                events.close();
+            }
+            render();
+            logger.info("Report writer closed after {} tests", finishedTests);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Report writer failed to finish the report", e);
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private void apply(ReportEvent event) {
+        if (event.type == ReportEvent.Type.START) {
+            ExtentTest test = extent.createTest(event.name, event.description);
+            test.getModel().setStartTime(new Date(event.timestampMillis));
+            openTests.put(event.testId, new OpenTest(test));
+            dirty = true;
+            return;
+        }
+        OpenTest open = openTests.get(event.testId);
+        if (open == null) {
+            return;
+        }
+        switch (event.type) {
+            case CATEGORY:
+                open.test.assignCategory(event.categories);
+                break;
+            case LOG:
+                log(open, event);
+                break;
+            case END:
+                finish(event.testId, open, event.timestampMillis);
+                break;
+            default:
+                break;
+        }
+        dirty = true;
+    }
+
+    private void log(OpenTest open, ReportEvent event) {
+        if (event.status == Status.INFO && event.throwable == null && open.infoLogs >= maxLogsPerTest) {
+            open.omittedLogs++;
+            return;
+        }
+        if (event.status == Status.INFO) {
+            open.infoLogs++;
+        }
+        if (event.throwable != null) {
+            open.test.log(event.status, event.throwable);
+        } else {
+            open.test.log(event.status, truncate(event.details));
+        }
+        List<Log> logs = open.test.getModel().getLogs();
+        if (!logs.isEmpty()) {
+            logs.get(logs.size() - 1).setTimestamp(new Date(event.timestampMillis));
+        }
+    }
+
+    private void finish(long id, OpenTest open, long timestampMillis) {
+        openTests.remove(id);
+        finishedTests++;
+        finishedSinceRender++;
+        Status status = open.test.getStatus();
+        if (finishedTests > detailMaxTests && (status == Status.PASS || status == Status.SKIP)) {
+            List<Log> logs = open.test.getModel().getLogs();
+            int before = logs.size();
+            logs.removeIf(entry -> entry.getStatus() == Status.INFO);
+            open.omittedLogs += before - logs.size();
+        }
+        if (open.omittedLogs > 0) {
+            open.test.info(open.omittedLogs + " info lines omitted, see " + eventsFile.getFileName());
+        }
+        open.test.getModel().setEndTime(new Date(timestampMillis));
+    }
+
+    private void writeEvent(ReportEvent event) {
+        if (events == null) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", event.timestampMillis);
+        line.put("type", event.type);
+        line.put("test", event.testId);
+        putIfSet(line, "name", event.name);
+        putIfSet(line, "description", event.description);
+        putIfSet(line, "categories", event.categories);
+        putIfSet(line, "status", event.status);
+        putIfSet(line, "details", event.details);
+        if (event.throwable != null) {
+            line.put("exception", stackTrace(event.throwable));
+        }
+        try {
+            events.write(JsonUtils.getMapper().writeValueAsString(line));
+            events.newLine();
+        } catch (IOException e) {
+            logger.error("Report events file {} no longer writable", eventsFile, e);
+            events = null;
+        }
+    }
+
+    private void flushEvents() {
+        if (events == null) {
+            return;
+        }
+        try {
+            events.flush();
+        } catch (IOException e) {
+            logger.error("Report events file {} no longer writable", eventsFile, e);
+            events = null;
+        }
+    }
+
+    private void maybeRender(long now) {
+        if (!dirty || flushIntervalMs <= 0) {
+            return;
+        }
+        if (now >= nextRenderAt || (finishedSinceRender >= flushTests && now >= earliestRenderAt)) {
+            render();
+            long end = System.currentTimeMillis();
+            nextRenderAt = end + Math.max(flushIntervalMs, 2 * lastRenderMs);
+            earliestRenderAt = end + 2 * lastRenderMs;
+        }
+    }
+
+    private void render() {
+        long start = System.nanoTime();
+        extent.flush();
+        lastRenderMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        finishedSinceRender = 0;
+        dirty = false;
+        logger.debug("Rendered report with {} finished tests in {} ms", finishedTests, lastRenderMs);
+    }
+
+    private String truncate(String details) {
+        if (details == null || details.length() <= maxLogChars) {
+            return details;
+        }
+        return details.substring(0, maxLogChars) + "... (" + (details.length() - maxLogChars) + " more chars)";
+    }
+
+    /**
+     * Rebuild the tests of an events file written by a ReportWriter into extent, e.g. to merge the
+     * reports of several JVMs. Tests are tagged with device (when not null) so their origin shows.
+     * Returns the number of tests added.
+     */
+    public static int replay(Path eventsPath, ExtentReports extent, String device) {
+        Map<Long, ExtentTest> tests = new HashMap<>();
+        int added = 0;
+        try (BufferedReader reader = Files.newBufferedReader(eventsPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode event = JsonUtils.getMapper().readTree(line);
+                long id = event.path("test").asLong();
+                Date timestamp = new Date(event.path("ts").asLong());
+                ReportEvent.Type type = ReportEvent.Type.valueOf(event.path("type").asText());
+                if (type == ReportEvent.Type.START) {
+                    ExtentTest test = extent.createTest(event.path("name").asText(),
+                            event.path("description").asText(null));
+                    test.getModel().setStartTime(timestamp);
+                    if (device != null) {
+                        test.assignDevice(device);
+                    }
+                    tests.put(id, test);
+                    added++;
+                    continue;
+                }
+                ExtentTest test = tests.get(id);
+                if (test == null) {
+                    continue;
+                }
+                if (type == ReportEvent.Type.CATEGORY) {
+                    for (JsonNode category : event.path("categories")) {
+                        test.assignCategory(category.asText());
+                    }
+                } else if (type == ReportEvent.Type.LOG) {
+                    Status status = Status.valueOf(event.path("status").asText());
+                    if (event.has("exception")) {
+                        test.log(status, MarkupHelper.createCodeBlock(event.path("exception").asText()));
+                    } else {
+                        test.log(status, event.path("details").asText(""));
+                    }
+                    List<Log> logs = test.getModel().getLogs();
+                    logs.get(logs.size() - 1).setTimestamp(timestamp);
+                } else if (type == ReportEvent.Type.END) {
+                    test.getModel().setEndTime(timestamp);
+                    tests.remove(id);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to replay report events from " + eventsPath, e);
+        }
+        for (ExtentTest open : tests.values()) {
+            open.warning("Run ended before the test finished");
+        }
+        return added;
+    }
+
+    private static void putIfSet(Map<String, Object> line, String key, Object value) {
+        if (value != null) {
+            line.put(key, value);
+        }
+    }
+
+    private static String stackTrace(Throwable throwable) {
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    private static int powerOfTwo(int size) {
+        return size <= 64 ? 64 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private static final class OpenTest {
+        private final ExtentTest test;
+        private int infoLogs;
+        private int omittedLogs;
+
+        private OpenTest(ExtentTest test) {
+            this.test = test;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.runner;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mean duration per test method ("class#method" -> ms), used to balance shards and to order
+ * methods in DurationScheduler. Recorded by this listener and folded into the history file after
+ * a run, weighting the latest run and the history equally so one slow run does not reshuffle
+ * everything.
+ *
+ * Settings: test.durations.file (target/test-durations.json), test.default.duration.ms (1000) -
+ * assumed for methods not in the history while it is empty, otherwise the history median is
+ */
+class DurationHistory implements ITestListener {
+
+    private final ConcurrentMap<String, LongAdder[]> recorded = new ConcurrentHashMap<>();
+
+    static String historyFile() {
+        String path = ConfigReader.getInstance().getProperty("test.durations.file");
+        return path == null || path.isBlank() ? "target/test-durations.json" : path.trim();
+    }
+
+    /*
+     * Expected duration of a method the history has not seen
+     */
+    static long defaultDurationMs(Map<String, Long> history) {
+        if (history.isEmpty()) {
+            return ConfigReader.getInstance().getIntProperty("test.default.duration.ms", 1000);
+        }
+        List<Long> sorted = new ArrayList<>(history.values());
+        sorted.sort(null);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    static Map<String, Long> load(String path) {
+        File file = new File(path);
+        if (!file.isFile()) {
+            return new TreeMap<>();
+        }
+        try {
+            return new TreeMap<>(JsonUtils.getMapper().readValue(file, new TypeReference<Map<String, Long>>() { }));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read test durations from " + path, e);
+        }
+    }
+
+    static void save(Map<String, Long> durations, String path) {
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        JsonUtils.serializeToFile(new TreeMap<>(durations), path);
+    }
+
+    static Map<String, Long> update(Map<String, Long> history, Map<String, Long> latest) {
+        Map<String, Long> updated = new TreeMap<>(history);
+        latest.forEach((test, ms) -> updated.merge(test, ms, (old, now) -> (old + now + 1) / 2));
+        return updated;
+    }
+
+    static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        record(result);
+    }
+
+    private void record(ITestResult result) {
+        String test = key(result.getTestClass().getName(), result.getMethod().getMethodName());
+        LongAdder[] totals = recorded.computeIfAbsent(test, key -> new LongAdder[] {new LongAdder(), new LongAdder()});
+        totals[0].add(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+        totals[1].increment();
+    }
+
+    /*
+     * Mean per execution of each method seen in this JVM
+     */
+    Map<String, Long> getRecorded() {
+        Map<String, Long> means = new TreeMap<>();
+        recorded.forEach((test, totals) -> means.put(test, totals[0].sum() / Math.max(1, totals[1].sum())));
+        return means;
+    }
+}
@@ -0,0 +1,298 @@
+package org.example.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Orders the methods of each parallel="methods" <test> so that its worker threads finish close
+ * together, instead of in priority order where a long chain that starts last stretches the tail.
+ *
+ * Methods and their dependsOnMethods / dependsOnGroups edges form a DAG weighted by the
+ * DurationHistory. Methods are dispatched by descending bottom level - the method's own duration
+ * plus the longest chain of dependents after it - so critical paths start first, and among
+ * independent methods this is longest-processing-time-first. TestNG starts free methods in the
+ * returned order and still enforces the dependencies itself.
+ *
+ * The makespan of this order and of TestNG's default order is predicted by simulating the run on
+ * the <test>'s thread count, and compared with the actual makespan when the <test> ends; see
+ * logStats() / exportJson(). Durations of this run are folded into the history when the suite
+ * ends.
+ *
+ * Register as a suite listener. Settings: schedule.enabled (true), schedule.history.update (true),
+ * test.durations.file and test.default.duration.ms, see DurationHistory
+ */
+public class DurationScheduler implements IMethodInterceptor, ITestListener, ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(DurationScheduler.class);
+    static final String HISTORY_UPDATE_KEY = "schedule.history.update";
+
+    private static final List<ScheduleStats> schedules = new CopyOnWriteArrayList<>();
+
+    private final DurationHistory recorder = new DurationHistory();
+    // Predictions per <test>, completed with the actual makespan in onFinish
+    private final Map<String, ScheduleStats> pending = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> history;
+
+    public DurationScheduler() {
+    }
+
+    /*
+     * With a fixed history instead of test.durations.file
+     */
+    DurationScheduler(Map<String, Long> history) {
+        this.history = history;
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("schedule.enabled", true);
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        if (!isEnabled() || methods.size() < 2 || xmlTest.getParallel() != XmlSuite.ParallelMode.METHODS) {
+            return methods;
+        }
+        Map<String, Long> durations = history();
+        long defaultMs = DurationHistory.defaultDurationMs(durations);
+        int threads = Math.max(1, xmlTest.getThreadCount());
+
+        List<Task> tasks = new ArrayList<>();
+        int unknown = 0;
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            Long known = durations.get(DurationHistory.key(method.getRealClass().getName(), method.getMethodName()));
+            if (known == null) {
+                unknown++;
+            }
+            long weight = (known != null ? known : defaultMs) * Math.max(1, method.getInvocationCount());
+            tasks.add(new Task(instance, tasks.size(), weight));
+        }
+        link(tasks);
+        long criticalPath = 0;
+        for (Task task : tasks) {
+            criticalPath = Math.max(criticalPath, bottomLevel(task));
+        }
+
+        long defaultOrder = simulate(tasks, threads);
+        List<Task> ordered = new ArrayList<>(tasks);
+        ordered.sort(Comparator.comparingLong((Task task) -> task.bottomLevel).reversed()
+                .thenComparing(Comparator.comparingLong((Task task) -> task.weightMs).reversed())
+                .thenComparingInt(task -> task.index));
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.get(i).index = i;
+        }
+        long predicted = simulate(ordered, threads);
+
+        pending.put(context.getName(), ScheduleStats.builder()
+                .suite(context.getSuite().getName())
+                .test(context.getName())
+                .methods(tasks.size())
+                .threads(threads)
+                .unknownDurations(unknown)
+                .totalWorkMs(tasks.stream().mapToLong(task -> task.weightMs).sum())
+                .criticalPathMs(criticalPath)
+                .predictedMakespanMs(predicted)
+                .priorityOrderMakespanMs(defaultOrder)
+                .build());
+        logger.info("Scheduled {} methods of '{}' on {} threads: predicted makespan {} ms (priority order {} ms), "
+                + "critical path {} ms, {} without history", tasks.size(), context.getName(), threads, predicted,
+                defaultOrder, criticalPath, unknown);
+        return ordered.stream().map(task -> task.instance).collect(Collectors.toList());
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        recorder.onTestSuccess(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        recorder.onTestFailure(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        recorder.onTestSkipped(result);
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        ScheduleStats stats = pending.remove(context.getName());
+        if (stats == null) {
+            return;
+        }
+        List<ITestResult> results = Stream.of(context.getPassedTests(), context.getFailedTests(),
+                        context.getSkippedTests())
+                .flatMap(map -> map.getAllResults().stream())
+                .collect(Collectors.toList());
+        if (!results.isEmpty()) {
+            long start = results.stream().mapToLong(ITestResult::getStartMillis).min().getAsLong();
+            long end = results.stream().mapToLong(ITestResult::getEndMillis).max().getAsLong();
+            stats.setActualMakespanMs(end - start);
+        }
+        schedules.add(stats);
+        logger.info("Schedule of '{}': actual makespan {} ms, predicted {} ms", stats.getTest(),
+                stats.getActualMakespanMs(), stats.getPredictedMakespanMs());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Map<String, Long> recorded = recorder.getRecorded();
+        if (recorded.isEmpty() || !ConfigReader.getInstance().getBooleanProperty(HISTORY_UPDATE_KEY, true)) {
+            return;
+        }
+        String file = DurationHistory.historyFile();
+        DurationHistory.save(DurationHistory.update(DurationHistory.load(file), recorded), file);
+        logger.info("Recorded durations of {} methods in {}", recorded.size(), file);
+    }
+
+    public static List<ScheduleStats> getSchedules() {
+        return new ArrayList<>(schedules);
+    }
+
+    public static void logStats() {
+        for (ScheduleStats stats : schedules) {
+            logger.info("Schedule {}/{}: methods={} threads={} work={} ms criticalPath={} ms predicted={} ms "
+                            + "priorityOrder={} ms actual={} ms unknown={}",
+                    stats.getSuite(), stats.getTest(), stats.getMethods(), stats.getThreads(), stats.getTotalWorkMs(),
+                    stats.getCriticalPathMs(), stats.getPredictedMakespanMs(), stats.getPriorityOrderMakespanMs(),
+                    stats.getActualMakespanMs(), stats.getUnknownDurations());
+        }
+    }
+
+    public static void exportJson(String filePath) {
+        if (!schedules.isEmpty()) {
+            JsonUtils.serializeToFile(getSchedules(), filePath);
+        }
+    }
+
+    public static void reset() {
+        schedules.clear();
+    }
+
+    private Map<String, Long> history() {
+        if (history == null) {
+            history = DurationHistory.load(DurationHistory.historyFile());
+        }
+        return history;
+    }
+
+    /*
+     * Edges from each method to the methods that depend on it, as TestNG resolves them: dependsOnMethods
+     * are regexes over qualified names, dependsOnGroups regexes over group names
+     */
+    private static void link(List<Task> tasks) {
+        for (Task task : tasks) {
+            ITestNGMethod method = task.instance.getMethod();
+            for (String dependency : method.getMethodsDependedUpon()) {
+                Pattern pattern = Pattern.compile(dependency);
+                for (Task other : tasks) {
+                    if (other != task && pattern.matcher(other.instance.getMethod().getQualifiedName()).matches()) {
+                        other.addDependent(task);
+                    }
+                }
+            }
+            for (String group : method.getGroupsDependedUpon()) {
+                Pattern pattern = Pattern.compile(group);
+                for (Task other : tasks) {
+                    if (other != task && Arrays.stream(other.instance.getMethod().getGroups())
+                            .anyMatch(name -> pattern.matcher(name).matches())) {
+                        other.addDependent(task);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long bottomLevel(Task task) {
+        if (task.bottomLevel < 0) {
+            long longestAfter = 0;
+            for (Task dependent : task.dependents) {
+                longestAfter = Math.max(longestAfter, bottomLevel(dependent));
+            }
+            task.bottomLevel = task.weightMs + longestAfter;
+        }
+        return task.bottomLevel;
+    }
+
+    /*
+     * List scheduling as TestNG dispatches: whenever a thread is free it starts the first method,
+     * in list order, whose dependencies have finished. Returns the predicted makespan in ms.
+     */
+    private static long simulate(List<Task> order, int threads) {
+        Map<Task, Integer> waitingOn = new HashMap<>();
+        for (Task task : order) {
+            waitingOn.merge(task, 0, Integer::sum);
+            for (Task dependent : task.dependents) {
+                waitingOn.merge(dependent, 1, Integer::sum);
+            }
+        }
+        PriorityQueue<Task> ready = new PriorityQueue<>(Comparator.comparingInt((Task task) -> task.index));
+        order.stream().filter(task -> waitingOn.get(task) == 0).forEach(ready::add);
+        // {finish time, task position}
+        PriorityQueue<long[]> running = new PriorityQueue<>(Comparator.comparingLong((long[] entry) -> entry[0]));
+        Map<Integer, Task> byIndex = order.stream().collect(Collectors.toMap(task -> task.index, task -> task));
+
+        long now = 0;
+        while (!ready.isEmpty() || !running.isEmpty()) {
+            while (running.size() < threads && !ready.isEmpty()) {
+                Task task = ready.poll();
+                running.add(new long[] {now + task.weightMs, task.index});
+            }
+            long[] finished = running.poll();
+            now = finished[0];
+            for (Task dependent : byIndex.get((int) finished[1]).dependents) {
+                if (waitingOn.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return now;
+    }
+
+    private static final class Task {
+        private final IMethodInstance instance;
+        private final long weightMs;
+        private final Set<Task> dependents = new LinkedHashSet<>();
+        private int index;
+        private long bottomLevel = -1;
+
+        private Task(IMethodInstance instance, int index, long weightMs) {
+            this.instance = instance;
+            this.index = index;
+            this.weightMs = weightMs;
+        }
+
+        private void addDependent(Task task) {
+            dependents.add(task);
+        }
+    }
+}
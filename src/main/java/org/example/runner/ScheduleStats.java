@@ -0,0 +1,25 @@
+package org.example.runner;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleStats {
+    private String suite;
+    private String test;
+    private int methods;
+    private int threads;
+    private int unknownDurations;
+    private long totalWorkMs;
+    private long criticalPathMs;
+    // Simulated from the history: this schedule vs. TestNG's priority order
+    private long predictedMakespanMs;
+    private long priorityOrderMakespanMs;
+    // First test method start to last test method end, config methods excluded
+    private long actualMakespanMs;
+}
@@ -0,0 +1,198 @@
+package org.example.runner;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.metrics.EndpointSummary;
+import org.example.metrics.LatencyRecorder;
+import org.example.reporting.ReportWriter;
+import org.example.utils.ExtentManager;
+import org.example.utils.JsonUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Combines the output of shard runs into one result set in the output directory:
+ * - testng-results.xml: every shard's <suite> elements under one root with summed counts
+ * - ExtentReport.html: every shard's tests, replayed from the report events files and tagged with
+ *   the shard they ran in
+ * - ExtentReport_latency.json: latency summaries merged from the shards' histograms
+ * - durations.json: the tests' durations in this run, for the duration history
+ *
+ * Each shard directory holds one run directory per suite (or is one itself) with
+ * testng/testng-results.xml, report/ExtentReport_*.* and durations.json, as written by ShardRunner;
+ * runs that are missing any of them still contribute the rest.
+ */
+class ShardMerger {
+
+    private static final Logger logger = LogManager.getLogger(ShardMerger.class);
+    private static final String[] COUNTS = {"total", "passed", "failed", "skipped", "ignored"};
+
+    /*
+     * Merge the shards into outputDir and return the merged TestNG counts (total, passed, ...)
+     */
+    static Map<String, Integer> merge(List<Path> shardDirs, Path outputDir) {
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create merged report directory " + outputDir, e);
+        }
+        Map<Path, String> runs = runDirs(shardDirs);
+        Map<String, Integer> counts = mergeTestNgResults(runs, outputDir.resolve("testng-results.xml"));
+        mergeExtentReports(runs, outputDir.resolve("ExtentReport.html"));
+        mergeLatency(runs.keySet(), outputDir.resolve("ExtentReport_latency.json"));
+        mergeDurations(runs.keySet(), outputDir.resolve("durations.json"));
+        logger.info("Merged {} runs of {} shards into {}: {}", runs.size(), shardDirs.size(), outputDir, counts);
+        return counts;
+    }
+
+    /*
+     * Run directory -> name of the shard it belongs to
+     */
+    private static Map<Path, String> runDirs(List<Path> shardDirs) {
+        Map<Path, String> runs = new LinkedHashMap<>();
+        for (Path shardDir : shardDirs) {
+            String shard = shardDir.getFileName().toString();
+            if (isRunDir(shardDir)) {
+                runs.put(shardDir, shard);
+                continue;
+            }
+            try (Stream<Path> children = Files.list(shardDir)) {
+                children.filter(ShardMerger::isRunDir).sorted().forEach(run -> runs.put(run, shard));
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot list shard directory " + shardDir, e);
+            }
+        }
+        return runs;
+    }
+
+    private static boolean isRunDir(Path dir) {
+        return Files.isDirectory(dir.resolve("testng")) || Files.isDirectory(dir.resolve("report"))
+                || Files.isRegularFile(dir.resolve("durations.json"));
+    }
+
+    private static Map<String, Integer> mergeTestNgResults(Map<Path, String> runs, Path target) {
+        Map<String, Integer> counts = new HashMap<>();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            Document merged = factory.newDocumentBuilder().newDocument();
+            Element root = merged.createElement("testng-results");
+            merged.appendChild(root);
+            root.appendChild(merged.createElement("reporter-output"));
+            for (Map.Entry<Path, String> run : runs.entrySet()) {
+                File results = run.getKey().resolve("testng").resolve("testng-results.xml").toFile();
+                if (!results.isFile()) {
+                    logger.warn("No TestNG results in {}", run.getKey());
+                    continue;
+                }
+                Element shardRoot = factory.newDocumentBuilder().parse(results).getDocumentElement();
+                for (String count : COUNTS) {
+                    counts.merge(count, parseInt(shardRoot.getAttribute(count)), Integer::sum);
+                }
+                NodeList suites = shardRoot.getElementsByTagName("suite");
+                for (int i = 0; i < suites.getLength(); i++) {
+                    Node suite = merged.importNode(suites.item(i), true);
+                    ((Element) suite).setAttribute("shard", run.getValue());
+                    root.appendChild(suite);
+                }
+            }
+            for (String count : COUNTS) {
+                root.setAttribute(count, String.valueOf(counts.getOrDefault(count, 0)));
+            }
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to merge TestNG results into " + target, e);
+        }
+        return counts;
+    }
+
+    private static void mergeExtentReports(Map<Path, String> runs, Path target) {
+        ExtentReports extent = ExtentManager.createReports(target.toString());
+        int tests = 0;
+        for (Map.Entry<Path, String> run : runs.entrySet()) {
+            Optional<Path> events = latestReportArtifact(run.getKey(), "_events.jsonl");
+            if (events.isPresent()) {
+                tests += ReportWriter.replay(events.get(), extent, run.getValue());
+            } else {
+                logger.warn("No report events in {}", run.getKey());
+            }
+        }
+        extent.flush();
+        logger.info("Merged Extent report with {} tests: {}", tests, target);
+    }
+
+    private static void mergeLatency(Collection<Path> runDirs, Path target) {
+        List<List<EndpointSummary>> runs = new ArrayList<>();
+        for (Path runDir : runDirs) {
+            Optional<Path> latency = latestReportArtifact(runDir, "_latency.json");
+            if (latency.isPresent()) {
+                try {
+                    runs.add(JsonUtils.getMapper().readValue(latency.get().toFile(),
+                            new TypeReference<List<EndpointSummary>>() { }));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to read latency metrics from " + latency.get(), e);
+                }
+            }
+        }
+        if (!runs.isEmpty()) {
+            JsonUtils.serializeToFile(LatencyRecorder.merge(runs), target.toString());
+        }
+    }
+
+    private static void mergeDurations(Collection<Path> runDirs, Path target) {
+        Map<String, Long> durations = new HashMap<>();
+        for (Path runDir : runDirs) {
+            // Same method in several runs (one per <test> or suite): keep the longest
+            DurationHistory.load(runDir.resolve("durations.json").toString())
+                    .forEach((test, ms) -> durations.merge(test, ms, Math::max));
+        }
+        DurationHistory.save(durations, target.toString());
+    }
+
+    /*
+     * Newest ExtentReport_<timestamp><suffix> in the run's report directory
+     */
+    private static Optional<Path> latestReportArtifact(Path runDir, String suffix) {
+        Path reportDir = runDir.resolve("report");
+        if (!Files.isDirectory(reportDir)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(reportDir)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith("ExtentReport_") && name.endsWith(suffix)
+                        && name.length() == "ExtentReport_yyyy-MM-dd_HH-mm-ss".length() + suffix.length();
+            }).max(Path::compareTo);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot list report directory " + reportDir, e);
+        }
+    }
+
+    private static int parseInt(String value) {
+        return value == null || value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+}
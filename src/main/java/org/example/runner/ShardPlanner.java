@@ -0,0 +1,300 @@
+package org.example.runner;
+
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits TestNG suites into N shards of roughly equal expected duration.
+ *
+ * Every enabled test method of every <test> becomes a node; methods linked by dependsOnMethods
+ * (same class, "OtherClass.method", or a regex) or dependsOnGroups are joined, so a chain always
+ * lands in one shard. The resulting units are weighted from the DurationHistory and assigned
+ * longest first to the least loaded shard. The plan only depends on the suites and the history
+ * file, so N machines given the same inputs and their own shard index agree on it without talking.
+ */
+class ShardPlanner {
+
+    private final long defaultDurationMs;
+    private final Map<String, Long> durations;
+
+    ShardPlanner(Map<String, Long> durations) {
+        this.durations = durations;
+        this.defaultDurationMs = DurationHistory.defaultDurationMs(durations);
+    }
+
+    /*
+     * Units of all suites, assigned to shardCount shards
+     */
+    List<List<ShardUnit>> plan(List<XmlSuite> suites, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1, was " + shardCount);
+        }
+        List<ShardUnit> units = new ArrayList<>();
+        for (XmlSuite suite : suites) {
+            for (XmlTest test : suite.getTests()) {
+                units.addAll(units(suite, test));
+            }
+        }
+        units.sort(Comparator.comparingLong((ShardUnit unit) -> unit.weightMs).reversed()
+                .thenComparing(ShardUnit::key));
+
+        List<List<ShardUnit>> shards = new ArrayList<>();
+        long[] loads = new long[shardCount];
+        PriorityQueue<Integer> leastLoaded = new PriorityQueue<>(
+                Comparator.comparingLong((Integer shard) -> loads[shard]).thenComparingInt(shard -> shard));
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+            leastLoaded.add(i);
+        }
+        for (ShardUnit unit : units) {
+            int shard = leastLoaded.poll();
+            shards.get(shard).add(unit);
+            loads[shard] += unit.weightMs;
+            leastLoaded.add(shard);
+        }
+        return shards;
+    }
+
+    /*
+     * Copies of the suites that run only the given units' methods, keeping suite/test attributes,
+     * parameters and listeners. Suites and tests with nothing to run are left out.
+     */
+    static List<XmlSuite> toSuites(List<XmlSuite> suites, Collection<ShardUnit> units) {
+        List<XmlSuite> sharded = new ArrayList<>();
+        for (XmlSuite suite : suites) {
+            XmlSuite copy = new XmlSuite();
+            copy.setName(suite.getName());
+            copy.setParallel(suite.getParallel());
+            copy.setThreadCount(suite.getThreadCount());
+            copy.setDataProviderThreadCount(suite.getDataProviderThreadCount());
+            copy.setVerbose(suite.getVerbose());
+            copy.setPreserveOrder(suite.getPreserveOrder());
+            copy.setParameters(suite.getParameters());
+            copy.setListeners(suite.getListeners());
+            copy.setIncludedGroups(suite.getIncludedGroups());
+            copy.setExcludedGroups(suite.getExcludedGroups());
+
+            for (XmlTest test : suite.getTests()) {
+                Map<String, List<String>> methods = new LinkedHashMap<>();
+                for (ShardUnit unit : units) {
+                    if (unit.suiteName.equals(suite.getName()) && unit.testName.equals(test.getName())) {
+                        unit.methods.forEach((className, names) ->
+                                methods.computeIfAbsent(className, name -> new ArrayList<>()).addAll(names));
+                    }
+                }
+                if (methods.isEmpty()) {
+                    continue;
+                }
+                XmlTest testCopy = new XmlTest(copy);
+                testCopy.setName(test.getName());
+                testCopy.setParallel(test.getParallel());
+                testCopy.setThreadCount(test.getThreadCount());
+                testCopy.setPreserveOrder(test.getPreserveOrder());
+                testCopy.setParameters(test.getLocalParameters());
+                testCopy.setIncludedGroups(test.getIncludedGroups());
+                testCopy.setExcludedGroups(test.getExcludedGroups());
+                List<XmlClass> classes = new ArrayList<>();
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    List<String> names = methods.get(xmlClass.getName());
+                    if (names == null) {
+                        continue;
+                    }
+                    XmlClass classCopy = new XmlClass(xmlClass.getName(), false);
+                    classCopy.setParameters(xmlClass.getLocalParameters());
+                    List<XmlInclude> includes = new ArrayList<>();
+                    for (String name : names) {
+                        includes.add(new XmlInclude(name));
+                    }
+                    classCopy.setIncludedMethods(includes);
+                    classes.add(classCopy);
+                }
+                testCopy.setXmlClasses(classes);
+            }
+            if (!copy.getTests().isEmpty()) {
+                sharded.add(copy);
+            }
+        }
+        return sharded;
+    }
+
+    private List<ShardUnit> units(XmlSuite suite, XmlTest test) {
+        if (!test.getXmlPackages().isEmpty()) {
+            throw new IllegalArgumentException("Sharding needs <classes>, not <packages>, in <test> " + test.getName());
+        }
+        List<Node> nodes = new ArrayList<>();
+        for (XmlClass xmlClass : test.getXmlClasses()) {
+            for (Method method : testMethods(xmlClass.getSupportClass())) {
+                if (isSelected(xmlClass, test, method)) {
+                    nodes.add(new Node(xmlClass.getName(), method, nodes.size()));
+                }
+            }
+        }
+
+        int[] parent = new int[nodes.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (Node node : nodes) {
+            for (String dependency : node.annotation.dependsOnMethods()) {
+                // "Class.method" when the prefix names a class, otherwise a method regex such as "create.*"
+                int dot = dependency.lastIndexOf('.');
+                String prefix = dot < 0 ? null : dependency.substring(0, dot);
+                boolean qualified = prefix != null && nodes.stream().anyMatch(other -> other.isIn(prefix));
+                String className = qualified ? prefix : node.className;
+                Pattern name = Pattern.compile(qualified ? dependency.substring(dot + 1) : dependency);
+                for (Node other : nodes) {
+                    if (other.isIn(className) && name.matcher(other.method.getName()).matches()) {
+                        union(parent, node.index, other.index);
+                    }
+                }
+            }
+            for (String group : node.annotation.dependsOnGroups()) {
+                Pattern pattern = Pattern.compile(group);
+                for (Node other : nodes) {
+                    if (other.groups.stream().anyMatch(name -> pattern.matcher(name).matches())) {
+                        union(parent, node.index, other.index);
+                    }
+                }
+            }
+        }
+
+        Map<Integer, ShardUnit> components = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            ShardUnit unit = components.computeIfAbsent(find(parent, node.index),
+                    root -> new ShardUnit(suite.getName(), test.getName()));
+            unit.add(node.className, node.method.getName());
+            int invocations = Math.max(1, node.annotation.invocationCount());
+            unit.weightMs += invocations * durations.getOrDefault(
+                    DurationHistory.key(node.className, node.method.getName()), defaultDurationMs);
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    /*
+     * Enabled @Test methods, including public methods of a class-level @Test, in a stable order
+     */
+    private static List<Method> testMethods(Class<?> type) {
+        Test classLevel = type.getAnnotation(Test.class);
+        List<Method> methods = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Method method : sortedMethods(type)) {
+            if (method.getDeclaringClass() == Object.class || !seen.add(method.getName())) {
+                continue;
+            }
+            Test annotation = method.getAnnotation(Test.class);
+            if (annotation != null ? annotation.enabled() : isImplicitTest(classLevel, method)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static boolean isImplicitTest(Test classLevel, Method method) {
+        if (classLevel == null || !classLevel.enabled() || !Modifier.isPublic(method.getModifiers())
+                || Modifier.isStatic(method.getModifiers()) || method.isSynthetic()) {
+            return false;
+        }
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation.annotationType().getPackage().getName().equals("org.testng.annotations")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Method> sortedMethods(Class<?> type) {
+        List<Method> methods = new ArrayList<>(Arrays.asList(type.getMethods()));
+        methods.sort(Comparator.comparing(Method::getName).thenComparingInt(Method::getParameterCount));
+        return methods;
+    }
+
+    private static boolean isSelected(XmlClass xmlClass, XmlTest test, Method method) {
+        String name = method.getName();
+        List<XmlInclude> includes = xmlClass.getIncludedMethods();
+        if (!includes.isEmpty() && includes.stream().noneMatch(include -> name.matches(include.getName()))) {
+            return false;
+        }
+        if (xmlClass.getExcludedMethods().stream().anyMatch(name::matches)) {
+            return false;
+        }
+        Set<String> groups = groups(method);
+        List<String> included = test.getIncludedGroups();
+        if (!included.isEmpty() && groups.stream().noneMatch(group -> matchesAny(group, included))) {
+            return false;
+        }
+        return groups.stream().noneMatch(group -> matchesAny(group, test.getExcludedGroups()));
+    }
+
+    private static boolean matchesAny(String group, List<String> patterns) {
+        return patterns.stream().anyMatch(group::matches);
+    }
+
+    private static Set<String> groups(Method method) {
+        Set<String> groups = new LinkedHashSet<>();
+        Test classLevel = method.getDeclaringClass().getAnnotation(Test.class);
+        if (classLevel != null) {
+            groups.addAll(Arrays.asList(classLevel.groups()));
+        }
+        Test annotation = method.getAnnotation(Test.class);
+        if (annotation != null) {
+            groups.addAll(Arrays.asList(annotation.groups()));
+        }
+        return groups;
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private static final class Node {
+        private final String className;
+        private final Method method;
+        private final int index;
+        private final Test annotation;
+        private final Set<String> groups;
+
+        private Node(String className, Method method, int index) {
+            this.className = className;
+            this.method = method;
+            this.index = index;
+            Test own = method.getAnnotation(Test.class);
+            this.annotation = own != null ? own : method.getDeclaringClass().getAnnotation(Test.class);
+            this.groups = groups(method);
+        }
+
+        private boolean isIn(String name) {
+            return className.equals(name) || method.getDeclaringClass().getName().equals(name);
+        }
+    }
+}
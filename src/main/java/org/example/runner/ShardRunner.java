@@ -0,0 +1,261 @@
+package org.example.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.replay.ReplayMode;
+import org.example.utils.ConfigReader;
+import org.example.utils.VirtualThreads;
+import org.testng.TestNG;
+import org.testng.xml.XmlSuite;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs TestNG suites split across several JVMs, balanced by the tests' recorded durations, and
+ * merges their results into one TestNG XML, one Extent report and one latency summary, see
+ * ShardPlanner and ShardMerger.
+ *
+ * Usage:
+ *   ShardRunner --shards N suite.xml...      run N shards in parallel on this machine, then merge
+ *   ShardRunner --shard I/N suite.xml...     run shard I (0-based) of N, e.g. on CI machine I
+ *   ShardRunner --merge shardDir...          merge shard directories collected from machines
+ *
+ * A suite tears down process-wide state (connection pool, stub, report) when it ends, so every
+ * suite of a shard runs in its own JVM, one after the other, writing to
+ * shard.dir/shard-I/<suite file name> (testng/, report/, durations.json, console.log); the merge
+ * goes to shard.dir/merged. Child JVMs inherit this JVM's -D/-X options; with stub.enabled, shards
+ * run by --shards each start their own stub on stub.port + 1 + I. Shards that record HTTP responses
+ * (http.replay.mode RECORD or PASSTHROUGH) each get their own replay store,
+ * <http.replay.dir>/shard-I, because a recording store is locked to one JVM; REPLAY shards share
+ * the store read-only.
+ *
+ * --shards and --merge fold the run's durations into the history file, which machines running
+ * --shard should share (e.g. as a CI cache) so that they all compute the same plan.
+ *
+ * Settings: shard.dir (target/shards), shard.jvm.args (extra child JVM options, space separated),
+ * test.durations.file and test.default.duration.ms, see DurationHistory
+ */
+public class ShardRunner {
+
+    private static final Logger logger = LogManager.getLogger(ShardRunner.class);
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                    "Usage: ShardRunner --shards N <suite.xml>... | --shard I/N <suite.xml>... | --merge <shardDir>...");
+        }
+        Path shardRoot = Paths.get(setting("shard.dir", "target/shards"));
+        List<String> rest = Arrays.asList(args).subList(2, args.length);
+
+        int status;
+        switch (args[0]) {
+            case "--shards":
+                status = runAllShards(Integer.parseInt(args[1]), rest, shardRoot);
+                break;
+            case "--shard":
+                int[] shard = parseShard(args[1]);
+                status = runShard(shard[0], shard[1], rest, shardRoot.resolve("shard-" + shard[0]), false);
+                break;
+            case "--merge":
+                List<Path> shardDirs = new ArrayList<>();
+                for (String dir : Arrays.asList(args).subList(1, args.length)) {
+                    shardDirs.add(Paths.get(dir));
+                }
+                status = merge(shardDirs, shardRoot.resolve("merged"));
+                break;
+            case "--run":
+                // Internal: one suite of one shard in this JVM, started by runShard
+                int[] run = parseShard(args[1]);
+                status = runSuite(run[0], run[1], args[2], Paths.get(args[3]));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + args[0]);
+        }
+        System.exit(status);
+    }
+
+    /*
+     * Run all shards in parallel, wait for them and merge; non-zero if any shard failed
+     */
+    static int runAllShards(int count, List<String> suiteFiles, Path shardRoot) {
+        // Plan once here so a bad suite fails fast instead of in every child
+        for (String suiteFile : suiteFiles) {
+            planner().plan(parse(suiteFile), count);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        List<Future<Integer>> shards = new ArrayList<>();
+        List<Path> shardDirs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            Path shardDir = shardRoot.resolve("shard-" + i);
+            shardDirs.add(shardDir);
+            shards.add(executor.submit(() -> runShard(index, count, suiteFiles, shardDir, true)));
+        }
+        int status = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                int exit = shards.get(i).get();
+                logger.info("Shard {}/{} finished with {}", i, count, exit);
+                status |= exit;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for shards", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Shard failed to run", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return merge(shardDirs, shardRoot.resolve("merged")) | status;
+    }
+
+    /*
+     * Run shard index of every suite, each suite in a child JVM; non-zero if any of them failed
+     */
+    static int runShard(int index, int count, List<String> suiteFiles, Path shardDir, boolean ownStub) {
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index must be in [0, " + count + "), was " + index);
+        }
+        int status = 0;
+        for (String suiteFile : suiteFiles) {
+            Path runDir = shardDir.resolve(suiteName(suiteFile));
+            File console = runDir.resolve("console.log").toFile();
+            console.getParentFile().mkdirs();
+            ProcessBuilder builder = new ProcessBuilder(childCommand(index, count, suiteFile, runDir, ownStub))
+                    .redirectErrorStream(true)
+                    .redirectOutput(console);
+            logger.info("Shard {}/{}: running {}, output in {}", index, count, suiteFile, console);
+            Process child;
+            try {
+                child = builder.start();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start shard " + index + " of " + suiteFile, e);
+            }
+            try {
+                status |= child.waitFor();
+            } catch (InterruptedException e) {
+                child.destroy();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while running shard " + index + " of " + suiteFile, e);
+            }
+        }
+        return status;
+    }
+
+    /*
+     * Run this shard's part of one suite in this JVM; returns the TestNG status
+     */
+    static int runSuite(int index, int count, String suiteFile, Path runDir) {
+        List<XmlSuite> suites = parse(suiteFile);
+        List<ShardUnit> units = planner().plan(suites, count).get(index);
+        logger.info("Shard {}/{} of {}: {} units, {} methods, ~{} ms", index, count, suiteFile, units.size(),
+                units.stream().mapToInt(ShardUnit::size).sum(),
+                units.stream().mapToLong(unit -> unit.weightMs).sum());
+        List<XmlSuite> shardSuites = ShardPlanner.toSuites(suites, units);
+        DurationHistory durations = new DurationHistory();
+
+        int status = 0;
+        if (!shardSuites.isEmpty()) {
+            TestNG testng = new TestNG();
+            testng.setXmlSuites(shardSuites);
+            testng.setOutputDirectory(runDir.resolve("testng").toString());
+            testng.addListener(durations);
+            if (VirtualThreads.isEnabled()) {
+                testng.setExecutorFactory(new VirtualThreadExecutorFactory());
+            }
+            testng.run();
+            status = testng.getStatus();
+        }
+        DurationHistory.save(durations.getRecorded(), runDir.resolve("durations.json").toString());
+        return status;
+    }
+
+    /*
+     * Merge shard directories and fold their durations into the history; non-zero on failures
+     */
+    static int merge(List<Path> shardDirs, Path outputDir) {
+        Map<String, Integer> counts = ShardMerger.merge(shardDirs, outputDir);
+        String historyFile = DurationHistory.historyFile();
+        DurationHistory.save(DurationHistory.update(DurationHistory.load(historyFile),
+                DurationHistory.load(outputDir.resolve("durations.json").toString())), historyFile);
+        return counts.getOrDefault("failed", 0) > 0 ? 1 : 0;
+    }
+
+    private static List<String> childCommand(int index, int count, String suiteFile, Path runDir, boolean ownStub) {
+        ConfigReader config = ConfigReader.getInstance();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D") || argument.startsWith("-X")) {
+                command.add(argument);
+            }
+        }
+        String jvmArgs = setting("shard.jvm.args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        // Later -D options win over the inherited ones
+        command.add("-Denv=" + System.getProperty("env", "qa"));
+        command.add("-Dreport.dir=" + runDir.resolve("report"));
+        // The history is updated once, from the merged durations
+        command.add("-D" + DurationScheduler.HISTORY_UPDATE_KEY + "=false");
+        ReplayMode replayMode = ReplayMode.fromConfig();
+        if (replayMode == ReplayMode.RECORD || replayMode == ReplayMode.PASSTHROUGH) {
+            String replayDir = setting("http.replay.dir", "target/replay/" + config.getSnapshot().getEnv());
+            command.add("-Dhttp.replay.dir=" + Paths.get(replayDir, "shard-" + index));
+        }
+        if (ownStub && config.getBooleanProperty("stub.enabled", false)) {
+            int stubPort = config.getIntProperty("stub.port", 8089);
+            int shardPort = stubPort + 1 + index;
+            command.add("-Dstub.port=" + shardPort);
+            command.add("-DBASE_URL=" + config.getBaseUrl().replace(":" + stubPort, ":" + shardPort));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardRunner.class.getName());
+        command.add("--run");
+        command.add(index + "/" + count);
+        command.add(suiteFile);
+        command.add(runDir.toString());
+        return command;
+    }
+
+    private static int[] parseShard(String shard) {
+        String[] parts = shard.split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected shard as I/N, was " + shard);
+        }
+        return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+
+    private static String suiteName(String suiteFile) {
+        String name = Paths.get(suiteFile).getFileName().toString();
+        return name.endsWith(".xml") ? name.substring(0, name.length() - ".xml".length()) : name;
+    }
+
+    private static ShardPlanner planner() {
+        return new ShardPlanner(DurationHistory.load(DurationHistory.historyFile()));
+    }
+
+    private static String setting(String key, String defaultValue) {
+        String value = ConfigReader.getInstance().getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static List<XmlSuite> parse(String suiteFile) {
+        return List.of(SuiteLauncher.parseSuite(suiteFile));
+    }
+}
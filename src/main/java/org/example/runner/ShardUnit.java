@@ -0,0 +1,45 @@
+package org.example.runner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Methods of one <test> that must run in the same JVM - a single method, or a chain linked by
+ * dependsOnMethods / dependsOnGroups - with their expected duration
+ */
+class ShardUnit {
+
+    final String suiteName;
+    final String testName;
+    // Class name -> methods, in declaration order
+    final Map<String, List<String>> methods = new LinkedHashMap<>();
+    long weightMs;
+
+    ShardUnit(String suiteName, String testName) {
+        this.suiteName = suiteName;
+        this.testName = testName;
+    }
+
+    void add(String className, String methodName) {
+        methods.computeIfAbsent(className, name -> new ArrayList<>()).add(methodName);
+    }
+
+    /*
+     * Stable identity for tie-breaks, so every machine computes the same plan
+     */
+    String key() {
+        Map.Entry<String, List<String>> first = methods.entrySet().iterator().next();
+        return suiteName + "|" + testName + "|" + first.getKey() + "#" + first.getValue().get(0);
+    }
+
+    int size() {
+        return methods.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public String toString() {
+        return testName + " " + methods + " ~" + weightMs + " ms";
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.VirtualThreads;
+import org.testng.TestNG;
+import org.testng.xml.SuiteXmlParser;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs TestNG suite files with the framework's execution options applied.
+ * Virtual thread mode is enabled by -Dvirtual.threads=true or a suite parameter virtual-threads=true.
+ * Usage: SuiteLauncher suites/virtual-thread-suite.xml [more suite files]
+ */
+public class SuiteLauncher {
+
+    private static final Logger logger = LogManager.getLogger(SuiteLauncher.class);
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: SuiteLauncher <suite.xml> [suite.xml ...]");
+        }
+
+        List<XmlSuite> suites = new ArrayList<>();
+        for (String suiteFile : args) {
+            suites.add(parseSuite(suiteFile));
+        }
+
+        for (XmlSuite suite : suites) {
+            if (Boolean.parseBoolean(suite.getParameter("virtual-threads"))) {
+                System.setProperty(VirtualThreads.PROPERTY, "true");
+            }
+        }
+
+        TestNG testng = new TestNG();
+        testng.setXmlSuites(suites);
+        if (VirtualThreads.isEnabled()) {
+            logger.info("Virtual thread mode enabled (supported by this JVM: {})", VirtualThreads.isSupported());
+            testng.setExecutorFactory(new VirtualThreadExecutorFactory());
+        }
+        testng.run();
+        System.exit(testng.getStatus());
+    }
+
+    /*
+     * Parse a suite file with TestNG's public parser; <suite-files> are resolved relative to the
+     * including file and attached as child suites, as testng.xml runs would do
+     */
+    static XmlSuite parseSuite(String suiteFile) {
+        Path path = Paths.get(suiteFile);
+        XmlSuite suite;
+        try (InputStream in = Files.newInputStream(path)) {
+            suite = new SuiteXmlParser().parse(path.toString(), in, true);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse suite file: " + suiteFile, e);
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        for (String childFile : suite.getSuiteFiles()) {
+            XmlSuite child = parseSuite(directory.resolve(childFile).toString());
+            child.setParentSuite(suite);
+            suite.getChildSuites().add(child);
+        }
+        return suite;
+    }
+}
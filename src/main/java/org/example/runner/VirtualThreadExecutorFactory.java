@@ -0,0 +1,149 @@
+package org.example.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.VirtualThreads;
+import org.testng.IDynamicGraph;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import org.testng.TestNGException;
+import org.testng.thread.IExecutorFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import org.testng.thread.IThreadWorkerFactory;
+import org.testng.thread.IWorker;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TestNG executor factory that runs parallel test methods on virtual threads.
+ * Built on TestNG's public thread API only: the executor walks TestNG's dependency graph itself,
+ * starting the free nodes, marking them finished when their worker completes and then starting
+ * whatever that freed - the same protocol as TestNG's own graph executor, without its thread
+ * affinity mode (testng.thread.affinity).
+ */
+public class VirtualThreadExecutorFactory implements IExecutorFactory {
+
+    private static final Logger logger = LogManager.getLogger(VirtualThreadExecutorFactory.class);
+
+    @Override
+    public ITestNGThreadPoolExecutor newSuiteExecutor(String name, IDynamicGraph<ISuite> graph,
+                                                      IThreadWorkerFactory<ISuite> factory, int corePoolSize,
+                                                      int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                                      BlockingQueue<Runnable> workQueue,
+                                                      Comparator<ISuite> comparator) {
+        return new GraphExecutor<>(name, graph, factory, corePoolSize, maximumPoolSize, keepAliveTime, unit,
+                workQueue, comparator, platformThreads("testng-suite-"));
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newTestMethodExecutor(String name, IDynamicGraph<ITestNGMethod> graph,
+                                                           IThreadWorkerFactory<ITestNGMethod> factory,
+                                                           int corePoolSize, int maximumPoolSize,
+                                                           long keepAliveTime, TimeUnit unit,
+                                                           BlockingQueue<Runnable> workQueue,
+                                                           Comparator<ITestNGMethod> comparator) {
+        ThreadFactory threadFactory = VirtualThreads.factory("testng-vt-");
+        if (threadFactory != null) {
+            logger.info("Running test methods of '{}' on virtual threads (thread-count {})", name, corePoolSize);
+        } else {
+            threadFactory = platformThreads("testng-" + name + "-");
+        }
+        return new GraphExecutor<>(name, graph, factory, corePoolSize, maximumPoolSize, keepAliveTime, unit,
+                workQueue, comparator, threadFactory);
+    }
+
+    private static ThreadFactory platformThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName(prefix + count.getAndIncrement());
+            return thread;
+        };
+    }
+
+    /*
+     * Runs the graph's free nodes; each finished worker frees its dependents, and the executor shuts
+     * down once every node is finished, which is what TestNG's awaitTermination waits for
+     */
+    private static final class GraphExecutor<T> extends ThreadPoolExecutor implements ITestNGThreadPoolExecutor {
+
+        private final String name;
+        private final IDynamicGraph<T> graph;
+        private final IThreadWorkerFactory<T> factory;
+        private final Comparator<T> comparator;
+
+        private GraphExecutor(String name, IDynamicGraph<T> graph, IThreadWorkerFactory<T> factory,
+                              int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                              BlockingQueue<Runnable> workQueue, Comparator<T> comparator,
+                              ThreadFactory threadFactory) {
+            super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
+            this.name = name;
+            this.graph = graph;
+            this.factory = factory;
+            this.comparator = comparator;
+            if (graph.getNodeCount() > 0 && graph.getFreeNodes().isEmpty()) {
+                throw new TestNGException("The dependency graph of '" + name + "' has no node to start from: "
+                        + graph.toDot());
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (graph) {
+                if (graph.getNodeCount() == 0) {
+                    shutdown();
+                    return;
+                }
+                runNodes(freeNodes());
+            }
+        }
+
+        @Override
+        protected void afterExecute(Runnable runnable, Throwable throwable) {
+            synchronized (graph) {
+                @SuppressWarnings("unchecked")
+                IWorker<T> worker = (IWorker<T>) runnable;
+                // A worker that did not complete goes back to the graph and is picked up again
+                setStatus(worker, worker.completed() ? IDynamicGraph.Status.FINISHED : IDynamicGraph.Status.READY);
+                if (graph.getNodeCount() == graph.getNodeCountWithStatus(IDynamicGraph.Status.FINISHED)) {
+                    shutdown();
+                } else {
+                    runNodes(freeNodes());
+                }
+            }
+        }
+
+        private List<T> freeNodes() {
+            List<T> free = graph.getFreeNodes();
+            if (comparator != null) {
+                free.sort(comparator);
+            }
+            return free;
+        }
+
+        private void runNodes(List<T> nodes) {
+            for (IWorker<T> worker : factory.createWorkers(nodes)) {
+                setStatus(worker, IDynamicGraph.Status.RUNNING);
+                try {
+                    execute(worker);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to start {} of '{}'", worker.getTasks(), name, e);
+                }
+            }
+        }
+
+        private void setStatus(IWorker<T> worker, IDynamicGraph.Status status) {
+            for (T task : worker.getTasks()) {
+                graph.setStatus(task, status);
+            }
+        }
+    }
+}
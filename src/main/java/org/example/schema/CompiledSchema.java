@@ -0,0 +1,167 @@
+package org.example.schema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import org.example.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A JSON Schema compiled once and safe to share between threads. A response that is a JSON array
+ * is validated element by element in one streaming pass - only the current element is held as a
+ * tree - and every violation is collected rather than stopping at the first. Elements are checked by
+ * the SchemaCompiler's checks when the schema allows, otherwise by the generic validator.
+ */
+public class CompiledSchema {
+
+    private final String name;
+    private final JsonSchema schema;
+    // Null when the schema uses keywords SchemaCompiler does not cover
+    private final SchemaCompiler.Check checks;
+    private final int maxErrors;
+
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder elements = new LongAdder();
+    private final LongAdder invalidElements = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    CompiledSchema(String name, JsonSchema schema, SchemaCompiler.Check checks, int maxErrors) {
+        this.name = name;
+        this.schema = schema;
+        this.checks = checks;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isCompiled() {
+        return checks != null;
+    }
+
+    /*
+     * Validate a JSON document - each element of a top-level array, or the document itself
+     */
+    public SchemaValidationResult validate(InputStream json) {
+        long start = System.nanoTime();
+        Collector collector = new Collector();
+        try (JsonParser parser = JsonUtils.getMapper().getFactory().createParser(json)) {
+            JsonToken first = parser.nextToken();
+            if (first == JsonToken.START_ARRAY) {
+                int index = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode element = JsonUtils.getMapper().readTree(parser);
+                    collector.check("[" + index++ + "]", element);
+                }
+            } else if (first != null) {
+                collector.check("", JsonUtils.getMapper().readTree(parser));
+            } else {
+                collector.add("", "empty body");
+            }
+        } catch (IOException e) {
+            collector.add("", "not valid JSON: " + e.getMessage());
+        }
+        return collector.finish(System.nanoTime() - start);
+    }
+
+    public SchemaValidationResult validate(JsonNode node) {
+        long start = System.nanoTime();
+        Collector collector = new Collector();
+        if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                collector.check("[" + i + "]", node.get(i));
+            }
+        } else {
+            collector.check("", node);
+        }
+        return collector.finish(System.nanoTime() - start);
+    }
+
+    SchemaStats getStats() {
+        long validated = elements.sum();
+        return SchemaStats.builder()
+                .schema(name)
+                .validations(validations.sum())
+                .elements(validated)
+                .invalidElements(invalidElements.sum())
+                .errors(errors.sum())
+                .totalMs(nanos.sum() / 1_000_000.0)
+                .microsPerElement(validated == 0 ? 0 : nanos.sum() / 1000.0 / validated)
+                .build();
+    }
+
+    /*
+     * Errors of one validation; messages beyond maxErrors are counted, not kept
+     */
+    private final class Collector {
+        private final List<String> messages = new ArrayList<>();
+        private int checked;
+        private int invalid;
+        private int errorCount;
+
+        private void check(String prefix, JsonNode element) {
+            checked++;
+            if (checks != null) {
+                int before = errorCount;
+                checks.check(element, "", (pointer, message) -> add(prefix + pointer, message));
+                if (errorCount > before) {
+                    invalid++;
+                }
+                return;
+            }
+            ProcessingReport report;
+            try {
+                report = schema.validate(element, true);
+            } catch (ProcessingException e) {
+                invalid++;
+                add(prefix, e.getProcessingMessage().getMessage());
+                return;
+            }
+            if (report.isSuccess()) {
+                return;
+            }
+            invalid++;
+            for (ProcessingMessage message : report) {
+                if (message.getLogLevel().compareTo(LogLevel.ERROR) >= 0) {
+                    String pointer = message.asJson().path("instance").path("pointer").asText("");
+                    add(prefix + pointer, message.getMessage());
+                }
+            }
+        }
+
+        private void add(String location, String message) {
+            errorCount++;
+            if (messages.size() < maxErrors) {
+                messages.add((location.isEmpty() ? "/" : location) + ": " + message);
+            }
+        }
+
+        private SchemaValidationResult finish(long elapsedNanos) {
+            validations.increment();
+            elements.add(checked);
+            invalidElements.add(invalid);
+            errors.add(errorCount);
+            nanos.add(elapsedNanos);
+            return SchemaValidationResult.builder()
+                    .schema(name)
+                    .elements(checked)
+                    .invalidElements(invalid)
+                    .errorCount(errorCount)
+                    .errors(messages)
+                    .validationNanos(elapsedNanos)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.example.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles a draft-04 schema into a tree of checks, resolved once, so validating an element only
+ * walks the element. The generic validator re-resolves its keyword validators from the schema for
+ * every instance, which dominates the cost of small list elements.
+ *
+ * Covers the keywords response schemas use: type, enum, required, properties, additionalProperties,
+ * items (single schema), minItems/maxItems, minimum/maximum (with exclusive flags),
+ * minLength/maxLength and pattern. compile() returns null for a schema using anything else ($ref,
+ * allOf, format, ...), and CompiledSchema falls back to the generic validator. Messages follow the
+ * generic validator's wording.
+ */
+final class SchemaCompiler {
+
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "id", "title", "description", "default");
+    private static final Set<String> SUPPORTED = Set.of("type", "enum", "required", "properties",
+            "additionalProperties", "items", "minItems", "maxItems", "minimum", "maximum", "exclusiveMinimum",
+            "exclusiveMaximum", "minLength", "maxLength", "pattern");
+
+    /*
+     * Receives violations as (JSON pointer below the validated element, message)
+     */
+    interface Sink {
+        void add(String pointer, String message);
+    }
+
+    interface Check {
+        void check(JsonNode node, String pointer, Sink sink);
+    }
+
+    private SchemaCompiler() {
+    }
+
+    /*
+     * Compiled checks of a syntactically valid schema, or null if it uses an unsupported keyword
+     */
+    static Check compile(JsonNode schema) {
+        if (!schema.isObject()) {
+            return null;
+        }
+        List<Check> checks = new ArrayList<>();
+        Iterator<String> names = schema.fieldNames();
+        while (names.hasNext()) {
+            String keyword = names.next();
+            if (!ANNOTATIONS.contains(keyword) && !SUPPORTED.contains(keyword)) {
+                return null;
+            }
+        }
+
+        if (schema.has("type")) {
+            checks.add(typeCheck(schema.get("type")));
+        }
+        if (schema.has("enum")) {
+            checks.add(enumCheck(schema.get("enum")));
+        }
+        if (schema.has("required")) {
+            checks.add(requiredCheck(schema.get("required")));
+        }
+        if (schema.has("properties") || schema.has("additionalProperties")) {
+            Check properties = propertiesCheck(schema.path("properties"), schema.get("additionalProperties"));
+            if (properties == null) {
+                return null;
+            }
+            checks.add(properties);
+        }
+        if (schema.has("items") || schema.has("minItems") || schema.has("maxItems")) {
+            Check items = itemsCheck(schema.get("items"), schema.get("minItems"), schema.get("maxItems"));
+            if (items == null) {
+                return null;
+            }
+            checks.add(items);
+        }
+        if (schema.has("minimum") || schema.has("maximum")) {
+            checks.add(rangeCheck(schema));
+        }
+        if (schema.has("minLength") || schema.has("maxLength") || schema.has("pattern")) {
+            checks.add(stringCheck(schema.get("minLength"), schema.get("maxLength"), schema.get("pattern")));
+        }
+
+        Check[] compiled = checks.toArray(new Check[0]);
+        return (node, pointer, sink) -> {
+            for (Check check : compiled) {
+                check.check(node, pointer, sink);
+            }
+        };
+    }
+
+    private static Check typeCheck(JsonNode type) {
+        Set<String> allowed = new LinkedHashSet<>();
+        if (type.isArray()) {
+            type.forEach(name -> allowed.add(name.asText()));
+        } else {
+            allowed.add(type.asText());
+        }
+        String message = "does not match any allowed primitive type (allowed: " + quoted(allowed) + ")";
+        return (node, pointer, sink) -> {
+            String actual = typeOf(node);
+            if (!allowed.contains(actual) && !("integer".equals(actual) && allowed.contains("number"))) {
+                sink.add(pointer, "instance type (" + actual + ") " + message);
+            }
+        };
+    }
+
+    private static Check enumCheck(JsonNode values) {
+        Set<JsonNode> allowed = new LinkedHashSet<>();
+        values.forEach(allowed::add);
+        String message = "not found in enum (possible values: " + values + ")";
+        return (node, pointer, sink) -> {
+            if (!allowed.contains(node)) {
+                sink.add(pointer, "instance value (" + node + ") " + message);
+            }
+        };
+    }
+
+    private static Check requiredCheck(JsonNode required) {
+        List<String> names = new ArrayList<>();
+        required.forEach(name -> names.add(name.asText()));
+        return (node, pointer, sink) -> {
+            if (!node.isObject()) {
+                return;
+            }
+            List<String> missing = null;
+            for (String name : names) {
+                if (!node.has(name)) {
+                    if (missing == null) {
+                        missing = new ArrayList<>();
+                    }
+                    missing.add(name);
+                }
+            }
+            if (missing != null) {
+                missing.sort(null);
+                sink.add(pointer, "object has missing required properties (" + quoted(missing) + ")");
+            }
+        };
+    }
+
+    private static Check propertiesCheck(JsonNode properties, JsonNode additional) {
+        Map<String, Check> checks = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Check check = compile(field.getValue());
+            if (check == null) {
+                return null;
+            }
+            checks.put(field.getKey(), check);
+        }
+        boolean forbidAdditional = additional != null && additional.isBoolean() && !additional.asBoolean();
+        Check additionalCheck = additional != null && additional.isObject() ? compile(additional) : null;
+        if (additional != null && additional.isObject() && additionalCheck == null) {
+            return null;
+        }
+        return (node, pointer, sink) -> {
+            if (!node.isObject()) {
+                return;
+            }
+            List<String> unexpected = null;
+            Iterator<Map.Entry<String, JsonNode>> members = node.fields();
+            while (members.hasNext()) {
+                Map.Entry<String, JsonNode> member = members.next();
+                Check check = checks.get(member.getKey());
+                String child = pointer + "/" + escape(member.getKey());
+                if (check != null) {
+                    check.check(member.getValue(), child, sink);
+                } else if (additionalCheck != null) {
+                    additionalCheck.check(member.getValue(), child, sink);
+                } else if (forbidAdditional) {
+                    if (unexpected == null) {
+                        unexpected = new ArrayList<>();
+                    }
+                    unexpected.add(member.getKey());
+                }
+            }
+            if (unexpected != null) {
+                unexpected.sort(null);
+                sink.add(pointer, "object instance has properties which are not allowed by the schema: "
+                        + quoted(unexpected));
+            }
+        };
+    }
+
+    private static Check itemsCheck(JsonNode items, JsonNode minItems, JsonNode maxItems) {
+        if (items != null && !items.isObject()) {
+            // Tuple validation (an array of schemas)
+            return null;
+        }
+        Check itemCheck = items != null ? compile(items) : null;
+        if (items != null && itemCheck == null) {
+            return null;
+        }
+        int min = minItems != null ? minItems.asInt() : 0;
+        int max = maxItems != null ? maxItems.asInt() : Integer.MAX_VALUE;
+        return (node, pointer, sink) -> {
+            if (!node.isArray()) {
+                return;
+            }
+            if (node.size() < min) {
+                sink.add(pointer, "array is too short: must have at least " + min + " elements but instance has "
+                        + node.size() + " elements");
+            }
+            if (node.size() > max) {
+                sink.add(pointer, "array is too long: must have at most " + max + " elements but instance has "
+                        + node.size() + " elements");
+            }
+            if (itemCheck != null) {
+                for (int i = 0; i < node.size(); i++) {
+                    itemCheck.check(node.get(i), pointer + "/" + i, sink);
+                }
+            }
+        };
+    }
+
+    private static Check rangeCheck(JsonNode schema) {
+        Limit minimum = Limit.of(schema.get("minimum"), schema.path("exclusiveMinimum").asBoolean(false));
+        Limit maximum = Limit.of(schema.get("maximum"), schema.path("exclusiveMaximum").asBoolean(false));
+        return (node, pointer, sink) -> {
+            if (!node.isNumber()) {
+                return;
+            }
+            if (minimum != null) {
+                int compared = minimum.compareTo(node);
+                if (compared > 0 || (compared == 0 && minimum.exclusive)) {
+                    sink.add(pointer, "numeric instance is " + (minimum.exclusive ? "not strictly greater than"
+                            : "lower than") + " the required minimum (minimum: " + minimum.text + ", found: "
+                            + node.asText() + ")");
+                }
+            }
+            if (maximum != null) {
+                int compared = maximum.compareTo(node);
+                if (compared < 0 || (compared == 0 && maximum.exclusive)) {
+                    sink.add(pointer, "numeric instance is " + (maximum.exclusive ? "not strictly lower than"
+                            : "greater than") + " the required maximum (maximum: " + maximum.text + ", found: "
+                            + node.asText() + ")");
+                }
+            }
+        };
+    }
+
+    private static Check stringCheck(JsonNode minLength, JsonNode maxLength, JsonNode pattern) {
+        int min = minLength != null ? minLength.asInt() : 0;
+        int max = maxLength != null ? maxLength.asInt() : Integer.MAX_VALUE;
+        Pattern regex = pattern != null ? Pattern.compile(pattern.asText()) : null;
+        return (node, pointer, sink) -> {
+            if (!node.isTextual()) {
+                return;
+            }
+            String value = node.textValue();
+            int length = value.codePointCount(0, value.length());
+            if (length < min) {
+                sink.add(pointer, "string \"" + value + "\" is too short (length: " + length
+                        + ", required minimum: " + min + ")");
+            }
+            if (length > max) {
+                sink.add(pointer, "string \"" + value + "\" is too long (length: " + length
+                        + ", maximum allowed: " + max + ")");
+            }
+            // ECMA 262 semantics: the pattern may match anywhere in the string
+            if (regex != null && !regex.matcher(value).find()) {
+                sink.add(pointer, "ECMA 262 regex \"" + regex.pattern() + "\" does not match input string \""
+                        + value + "\"");
+            }
+        };
+    }
+
+    private static String typeOf(JsonNode node) {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                return "object";
+            case ARRAY:
+                return "array";
+            case STRING:
+                return "string";
+            case BOOLEAN:
+                return "boolean";
+            case NUMBER:
+                // 1.0 is a number, as in the generic validator, which goes by the parsed node type
+                return node.isIntegralNumber() ? "integer" : "number";
+            default:
+                return "null";
+        }
+    }
+
+    private static String quoted(Iterable<String> values) {
+        List<String> quoted = new ArrayList<>();
+        values.forEach(value -> quoted.add("\"" + value + "\""));
+        return quoted.stream().collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    /*
+     * A numeric bound; integral instances within long range are compared without BigDecimal
+     */
+    private static final class Limit {
+        private final BigDecimal value;
+        private final Long longValue;
+        private final boolean exclusive;
+        private final String text;
+
+        private Limit(BigDecimal value, boolean exclusive, String text) {
+            this.value = value;
+            this.exclusive = exclusive;
+            this.text = text;
+            Long exact = null;
+            try {
+                exact = value.longValueExact();
+            } catch (ArithmeticException e) {
+                // Fractional or out of long range - compared as BigDecimal
+            }
+            this.longValue = exact;
+        }
+
+        private static Limit of(JsonNode bound, boolean exclusive) {
+            return bound == null ? null : new Limit(bound.decimalValue(), exclusive, bound.asText());
+        }
+
+        private int compareTo(JsonNode node) {
+            if (longValue != null && node.isIntegralNumber() && node.canConvertToLong()) {
+                return Long.compare(longValue, node.longValue());
+            }
+            return value.compareTo(node.decimalValue());
+        }
+    }
+}
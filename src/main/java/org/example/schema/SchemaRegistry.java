@@ -0,0 +1,136 @@
+package org.example.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Response schemas per endpoint. Services register the schema resource of each endpoint template
+ * (e.g. "/public/v2/posts/{productId}" -> "schemas/product.json", a schema for one element, which
+ * also covers list responses); the schema is read from the classpath, checked and compiled on first
+ * use and then shared by every thread. See RestClient.validateSchema().
+ *
+ * Settings:
+ * schema.validation.enabled (true) - false turns RestClient.validateSchema() into a no-op, e.g. for load runs
+ * schema.max.errors (100) - messages kept per validation; further errors are only counted
+ */
+public class SchemaRegistry {
+
+    private static final Logger logger = LogManager.getLogger(SchemaRegistry.class);
+
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+    private static final ConcurrentMap<String, String> endpoints = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CompiledSchema> schemas = new ConcurrentHashMap<>();
+
+    private SchemaRegistry() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("schema.validation.enabled", true);
+    }
+
+    public static void register(String endpoint, String resource) {
+        endpoints.put(endpoint, resource);
+    }
+
+    /*
+     * Compiled schema for an endpoint template; fails if none is registered
+     */
+    public static CompiledSchema forEndpoint(String endpoint) {
+        String resource = endpoints.get(endpoint);
+        if (resource == null) {
+            throw new IllegalArgumentException("No response schema registered for endpoint: " + endpoint);
+        }
+        return forResource(resource);
+    }
+
+    public static CompiledSchema forResource(String resource) {
+        return schemas.computeIfAbsent(resource, SchemaRegistry::compile);
+    }
+
+    public static SchemaValidationResult validate(String endpoint, Response response) {
+        return forEndpoint(endpoint).validate(response.asInputStream());
+    }
+
+    /*
+     * Validate and fail with every collected violation
+     */
+    public static void assertValid(String endpoint, Response response) {
+        SchemaValidationResult result = validate(endpoint, response);
+        if (!result.isValid()) {
+            throw new AssertionError("Response of " + endpoint + " does not match " + result.describe());
+        }
+        logger.debug("Response of {} matches {}", endpoint, result.describe());
+    }
+
+    public static List<SchemaStats> getStats() {
+        return schemas.values().stream()
+                .map(CompiledSchema::getStats)
+                .filter(stats -> stats.getValidations() > 0)
+                .sorted(Comparator.comparing(SchemaStats::getSchema))
+                .collect(Collectors.toList());
+    }
+
+    public static void logStats() {
+        for (SchemaStats stats : getStats()) {
+            logger.info("Schema {}: validations={} elements={} invalid={} errors={} time={} ms ({} us/element)",
+                    stats.getSchema(), stats.getValidations(), stats.getElements(), stats.getInvalidElements(),
+                    stats.getErrors(), String.format("%.1f", stats.getTotalMs()),
+                    String.format("%.2f", stats.getMicrosPerElement()));
+        }
+    }
+
+    public static void exportJson(String filePath) {
+        List<SchemaStats> stats = getStats();
+        if (!stats.isEmpty()) {
+            JsonUtils.serializeToFile(stats, filePath);
+        }
+    }
+
+    /*
+     * Drop compiled schemas and their counters; registrations are kept
+     */
+    public static void reset() {
+        schemas.clear();
+    }
+
+    private static CompiledSchema compile(String resource) {
+        JsonNode schemaNode;
+        try (InputStream in = SchemaRegistry.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Schema resource not found on the classpath: " + resource);
+            }
+            schemaNode = JsonUtils.getMapper().readTree(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read schema: " + resource, e);
+        }
+
+        ProcessingReport syntax = factory.getSyntaxValidator().validateSchema(schemaNode);
+        if (!syntax.isSuccess()) {
+            throw new IllegalArgumentException("Invalid JSON schema " + resource + ": " + syntax);
+        }
+        try {
+            CompiledSchema compiled = new CompiledSchema(resource, factory.getJsonSchema(schemaNode),
+                    SchemaCompiler.compile(schemaNode), ConfigReader.getInstance().getIntProperty("schema.max.errors", 100));
+            logger.info("Compiled response schema {} ({})", resource,
+                    compiled.isCompiled() ? "compiled checks" : "generic validator");
+            return compiled;
+        } catch (ProcessingException e) {
+            throw new RuntimeException("Failed to compile schema: " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaStats {
+    private String schema;
+    private long validations;
+    private long elements;
+    private long invalidElements;
+    private long errors;
+    private double totalMs;
+    private double microsPerElement;
+}
@@ -0,0 +1,43 @@
+package org.example.schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaValidationResult {
+    private String schema;
+    // Elements of a list response, 1 for a single object
+    private int elements;
+    private int invalidElements;
+    private int errorCount;
+    // At most schema.max.errors messages, e.g. "[3] /title: instance type (integer) does not match ..."
+    private List<String> errors;
+    private long validationNanos;
+
+    public boolean isValid() {
+        return errorCount == 0;
+    }
+
+    public String describe() {
+        if (isValid()) {
+            return schema + ": " + elements + " elements valid";
+        }
+        StringBuilder description = new StringBuilder()
+                .append(schema).append(": ").append(invalidElements).append(" of ").append(elements)
+                .append(" elements invalid, ").append(errorCount).append(" errors");
+        for (String error : errors) {
+            description.append("\n  ").append(error);
+        }
+        if (errorCount > errors.size()) {
+            description.append("\n  ... ").append(errorCount - errors.size()).append(" more");
+        }
+        return description.toString();
+    }
+}
@@ -3,29 +3,45 @@ package org.example.services;
 import io.restassured.response.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.cleanup.ResourceTracker;
 import org.example.client.RestClient;
 import org.example.models.Product;
+import org.example.pagination.Pagination;
+import org.example.schema.SchemaRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class ProductService {
 
     private static final Logger logger = LogManager.getLogger(ProductService.class);
     private static final String PRODUCTS_ENDPOINT = "/public/v2/posts";
+    public static final String RESOURCE_TYPE = "product";
+
+    static {
+        // GET responses - single entities and every element of lists - are checked against this schema
+        SchemaRegistry.register(PRODUCTS_ENDPOINT, "schemas/product.json");
+        SchemaRegistry.register(PRODUCTS_ENDPOINT + "/{productId}", "schemas/product.json");
+        // Lets suite teardown delete products a test created but did not remove
+        ResourceTracker.registerDeleter(RESOURCE_TYPE, 0, id -> new ProductService().deleteProduct(id));
+    }
 
     public Response createProduct(Product product) {
         logger.info("Creating product in thread: {}", Thread.currentThread().getId());
-        return new RestClient().post(PRODUCTS_ENDPOINT, product);
+        return ResourceTracker.trackCreated(RESOURCE_TYPE, new RestClient().post(PRODUCTS_ENDPOINT, product));
     }
 
     public Response getProduct(Long productId) {
         logger.info("Fetching product with ID: {} in thread: {}", productId, Thread.currentThread().getId());
         return new RestClient()
+                .validateSchema()
                 .addPathParam("productId", String.valueOf(productId))
                 .get(PRODUCTS_ENDPOINT + "/{productId}");
     }
 
     public Response getAllProducts() {
         logger.info("Fetching all products in thread: {}", Thread.currentThread().getId());
-        return new RestClient().get(PRODUCTS_ENDPOINT);
+        return new RestClient().validateSchema().get(PRODUCTS_ENDPOINT);
     }
 
     public Response updateProduct(Long productId, Product product) {
@@ -37,8 +53,58 @@ public class ProductService {
 
     public Response deleteProduct(Long productId) {
         logger.info("Deleting product with ID: {} in thread: {}", productId, Thread.currentThread().getId());
+        return ResourceTracker.trackDeleted(RESOURCE_TYPE, productId, new RestClient()
+                .addPathParam("productId", String.valueOf(productId))
+                .delete(PRODUCTS_ENDPOINT + "/{productId}"));
+    }
+
+    /*
+     * Async variants - return immediately so one thread can keep many requests in flight
+     */
+    public CompletableFuture<Response> createProductAsync(Product product) {
+        logger.info("Creating product async in thread: {}", Thread.currentThread().getId());
+        return new RestClient().postAsync(PRODUCTS_ENDPOINT, product)
+                .thenApply(response -> ResourceTracker.trackCreated(RESOURCE_TYPE, response));
+    }
+
+    public CompletableFuture<Response> getProductAsync(Long productId) {
+        logger.info("Fetching product async with ID: {} in thread: {}", productId, Thread.currentThread().getId());
+        return new RestClient()
+                .validateSchema()
+                .addPathParam("productId", String.valueOf(productId))
+                .getAsync(PRODUCTS_ENDPOINT + "/{productId}");
+    }
+
+    public CompletableFuture<Response> getAllProductsAsync() {
+        logger.info("Fetching all products async in thread: {}", Thread.currentThread().getId());
+        return new RestClient().validateSchema().getAsync(PRODUCTS_ENDPOINT);
+    }
+
+    public CompletableFuture<Response> updateProductAsync(Long productId, Product product) {
+        logger.info("Updating product async with ID: {} in thread: {}", productId, Thread.currentThread().getId());
+        return new RestClient()
+                .addPathParam("productId", String.valueOf(productId))
+                .putAsync(PRODUCTS_ENDPOINT + "/{productId}", product);
+    }
+
+    public CompletableFuture<Response> deleteProductAsync(Long productId) {
+        logger.info("Deleting product async with ID: {} in thread: {}", productId, Thread.currentThread().getId());
         return new RestClient()
                 .addPathParam("productId", String.valueOf(productId))
-                .delete(PRODUCTS_ENDPOINT + "/{productId}");
+                .deleteAsync(PRODUCTS_ENDPOINT + "/{productId}")
+                .thenApply(response -> ResourceTracker.trackDeleted(RESOURCE_TYPE, productId, response));
+    }
+
+    /*
+     * Every page, not just the first - later pages are fetched in parallel ahead of the consumer.
+     * Close the stream (try-with-resources) when not reading it to the end
+     */
+    public Stream<Product> streamAllProducts() {
+        logger.info("Streaming all products in thread: {}", Thread.currentThread().getId());
+        return Pagination.stream(PRODUCTS_ENDPOINT, (page, perPage) -> new RestClient()
+                .validateSchema()
+                .addQueryParam("page", String.valueOf(page))
+                .addQueryParam("per_page", String.valueOf(perPage))
+                .getAsync(PRODUCTS_ENDPOINT), Product.class);
     }
 }
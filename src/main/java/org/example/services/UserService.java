@@ -3,29 +3,45 @@ package org.example.services;
 import io.restassured.response.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.cleanup.ResourceTracker;
 import org.example.client.RestClient;
 import org.example.models.User;
+import org.example.pagination.Pagination;
+import org.example.schema.SchemaRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class UserService {
 
     private static final Logger logger = LogManager.getLogger(UserService.class);
     private static final String USERS_ENDPOINT = "/public/v2/users";
+    public static final String RESOURCE_TYPE = "user";
+
+    static {
+        // GET responses - single entities and every element of lists - are checked against this schema
+        SchemaRegistry.register(USERS_ENDPOINT, "schemas/user.json");
+        SchemaRegistry.register(USERS_ENDPOINT + "/{userId}", "schemas/user.json");
+        // Lets suite teardown delete users a test created but did not remove - after their posts (order 0)
+        ResourceTracker.registerDeleter(RESOURCE_TYPE, 1, id -> new UserService().deleteUser(id));
+    }
 
     public Response createUser(User user) {
         logger.info("Creating user: {} in thread: {}", user.getName(), Thread.currentThread().getId());
-        return new RestClient().post(USERS_ENDPOINT, user);
+        return ResourceTracker.trackCreated(RESOURCE_TYPE, new RestClient().post(USERS_ENDPOINT, user));
     }
 
     public Response getUser(Long userId) {
         logger.info("Fetching user with ID: {} in thread: {}", userId, Thread.currentThread().getId());
         return new RestClient()
+                .validateSchema()
                 .addPathParam("userId", String.valueOf(userId))
                 .get(USERS_ENDPOINT + "/{userId}");
     }
 
     public Response getAllUsers() {
         logger.info("Fetching all users in thread: {}", Thread.currentThread().getId());
-        return new RestClient().get(USERS_ENDPOINT);
+        return new RestClient().validateSchema().get(USERS_ENDPOINT);
     }
 
     public Response updateUser(Long userId, User user) {
@@ -37,14 +53,15 @@ public class UserService {
 
     public Response deleteUser(Long userId) {
         logger.info("Deleting user with ID: {} in thread: {}", userId, Thread.currentThread().getId());
-        return new RestClient()
+        return ResourceTracker.trackDeleted(RESOURCE_TYPE, userId, new RestClient()
                 .addPathParam("userId", String.valueOf(userId))
-                .delete(USERS_ENDPOINT + "/{userId}");
+                .delete(USERS_ENDPOINT + "/{userId}"));
     }
 
     public Response searchUsersByName(String name) {
         logger.info("Searching users by name: {} in thread: {}", name, Thread.currentThread().getId());
         return new RestClient()
+                .validateSchema()
                 .addQueryParam("name", name)
                 .get(USERS_ENDPOINT);
     }
@@ -52,7 +69,84 @@ public class UserService {
     public Response searchUsersByStatus(String status) {
         logger.info("Searching users by status: {} in thread: {}", status, Thread.currentThread().getId());
         return new RestClient()
+                .validateSchema()
                 .addQueryParam("status", status)
                 .get(USERS_ENDPOINT);
     }
+
+    /*
+     * Async variants - return immediately so one thread can keep many requests in flight
+     */
+    public CompletableFuture<Response> createUserAsync(User user) {
+        logger.info("Creating user async: {} in thread: {}", user.getName(), Thread.currentThread().getId());
+        return new RestClient().postAsync(USERS_ENDPOINT, user)
+                .thenApply(response -> ResourceTracker.trackCreated(RESOURCE_TYPE, response));
+    }
+
+    public CompletableFuture<Response> getUserAsync(Long userId) {
+        logger.info("Fetching user async with ID: {} in thread: {}", userId, Thread.currentThread().getId());
+        return new RestClient()
+                .validateSchema()
+                .addPathParam("userId", String.valueOf(userId))
+                .getAsync(USERS_ENDPOINT + "/{userId}");
+    }
+
+    public CompletableFuture<Response> getAllUsersAsync() {
+        logger.info("Fetching all users async in thread: {}", Thread.currentThread().getId());
+        return new RestClient().validateSchema().getAsync(USERS_ENDPOINT);
+    }
+
+    public CompletableFuture<Response> updateUserAsync(Long userId, User user) {
+        logger.info("Updating user async with ID: {} in thread: {}", userId, Thread.currentThread().getId());
+        return new RestClient()
+                .addPathParam("userId", String.valueOf(userId))
+                .putAsync(USERS_ENDPOINT + "/{userId}", user);
+    }
+
+    public CompletableFuture<Response> deleteUserAsync(Long userId) {
+        logger.info("Deleting user async with ID: {} in thread: {}", userId, Thread.currentThread().getId());
+        return new RestClient()
+                .addPathParam("userId", String.valueOf(userId))
+                .deleteAsync(USERS_ENDPOINT + "/{userId}")
+                .thenApply(response -> ResourceTracker.trackDeleted(RESOURCE_TYPE, userId, response));
+    }
+
+    public CompletableFuture<Response> searchUsersByNameAsync(String name) {
+        logger.info("Searching users async by name: {} in thread: {}", name, Thread.currentThread().getId());
+        return new RestClient()
+                .validateSchema()
+                .addQueryParam("name", name)
+                .getAsync(USERS_ENDPOINT);
+    }
+
+    public CompletableFuture<Response> searchUsersByStatusAsync(String status) {
+        logger.info("Searching users async by status: {} in thread: {}", status, Thread.currentThread().getId());
+        return new RestClient()
+                .validateSchema()
+                .addQueryParam("status", status)
+                .getAsync(USERS_ENDPOINT);
+    }
+
+    /*
+     * Every page, not just the first - later pages are fetched in parallel ahead of the consumer.
+     * Close the stream (try-with-resources) when not reading it to the end
+     */
+    public Stream<User> streamAllUsers() {
+        logger.info("Streaming all users in thread: {}", Thread.currentThread().getId());
+        return Pagination.stream(USERS_ENDPOINT, (page, perPage) -> new RestClient()
+                .validateSchema()
+                .addQueryParam("page", String.valueOf(page))
+                .addQueryParam("per_page", String.valueOf(perPage))
+                .getAsync(USERS_ENDPOINT), User.class);
+    }
+
+    public Stream<User> streamUsersByStatus(String status) {
+        logger.info("Streaming users by status: {} in thread: {}", status, Thread.currentThread().getId());
+        return Pagination.stream(USERS_ENDPOINT, (page, perPage) -> new RestClient()
+                .validateSchema()
+                .addQueryParam("status", status)
+                .addQueryParam("page", String.valueOf(page))
+                .addQueryParam("per_page", String.valueOf(perPage))
+                .getAsync(USERS_ENDPOINT), User.class);
+    }
 }
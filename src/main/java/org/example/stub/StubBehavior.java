@@ -0,0 +1,91 @@
+package org.example.stub;
+
+import lombok.Builder;
+import lombok.Data;
+import org.example.utils.ConfigReader;
+
+/**
+ * Injected server behaviour for StubServer, so client-side overhead can be measured against a
+ * known server cost. Latency jitter and failures are derived from the request sequence number
+ * and the seed, so the same run sees the same delays and the same failing requests every time.
+ */
+@Data
+@Builder
+public class StubBehavior {
+
+    // Fixed delay added before every response
+    @Builder.Default
+    private long latencyMs = 0;
+
+    // Extra delay, uniform in [0, latencyJitterMs]
+    @Builder.Default
+    private long latencyJitterMs = 0;
+
+    // Share of requests (0..1) answered with errorStatus without touching the store, spread evenly
+    @Builder.Default
+    private double errorRate = 0;
+
+    @Builder.Default
+    private int errorStatus = 503;
+
+    // Size of a filler "padding" field added to every returned entity; models ignore it
+    @Builder.Default
+    private int paddingBytes = 0;
+
+    @Builder.Default
+    private long seed = 42;
+
+    // Cache-Control max-age on GET 200 responses, which always carry an ETag; 0 = revalidate every time
+    @Builder.Default
+    private int cacheMaxAgeSeconds = 0;
+
+    // Bodies of at least this size are gzip-compressed when the client accepts gzip; -1 = never
+    @Builder.Default
+    private int compressionMinBytes = -1;
+
+    public static StubBehavior none() {
+        return StubBehavior.builder().build();
+    }
+
+    /*
+     * stub.latency.ms, stub.latency.jitter.ms, stub.error.rate, stub.error.status, stub.payload.padding.bytes, stub.seed,
+     * stub.cache.max.age.seconds, stub.compression.min.bytes
+     */
+    public static StubBehavior fromConfig() {
+        ConfigReader config = ConfigReader.getInstance();
+        String errorRate = config.getProperty("stub.error.rate");
+        return StubBehavior.builder()
+                .latencyMs(config.getIntProperty("stub.latency.ms", 0))
+                .latencyJitterMs(config.getIntProperty("stub.latency.jitter.ms", 0))
+                .errorRate(errorRate == null || errorRate.isBlank() ? 0 : Double.parseDouble(errorRate.trim()))
+                .errorStatus(config.getIntProperty("stub.error.status", 503))
+                .paddingBytes(config.getIntProperty("stub.payload.padding.bytes", 0))
+                .seed(config.getIntProperty("stub.seed", 42))
+                .cacheMaxAgeSeconds(config.getIntProperty("stub.cache.max.age.seconds", 0))
+                .compressionMinBytes(config.getIntProperty("stub.compression.min.bytes", -1))
+                .build();
+    }
+
+    /*
+     * Request n (1-based) fails when the running count of failures floor(n * errorRate) steps up
+     */
+    boolean isFailure(long requestNo) {
+        return errorRate > 0 && (long) (requestNo * errorRate) > (long) ((requestNo - 1) * errorRate);
+    }
+
+    long delayMs(long requestNo) {
+        if (latencyJitterMs <= 0) {
+            return latencyMs;
+        }
+        return latencyMs + Math.floorMod(mix(seed + requestNo), latencyJitterMs + 1);
+    }
+
+    /*
+     * SplitMix64 finalizer - a cheap, well-spread hash of the sequence number
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
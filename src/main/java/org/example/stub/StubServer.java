@@ -0,0 +1,496 @@
+package org.example.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.client.RequestKeys;
+import org.example.utils.ConfigReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * In-process HTTP stub with in-memory /public/v2/users and /public/v2/posts resources.
+ * Implements the CRUD semantics UserService and ProductService expect, so suites and
+ * load tests can run offline against http://localhost:port.
+ *
+ * With stub.enabled=true (config-local) BaseTest starts one embedded instance for the suite, see
+ * startEmbedded(). Latency, failures and payload size can be injected through StubBehavior.
+ * GET 200 responses carry an ETag over the body, and If-None-Match is answered with 304.
+ * Bodies are gzip-compressed for clients that accept it (see StubBehavior.compressionMinBytes),
+ * and gzip/deflate request bodies are decoded.
+ * Lists are paginated like gorest - page / per_page (default 10, at most 100) with X-Pagination-Total,
+ * -Pages, -Page and -Limit headers - in ascending id order, so creates during a scan do not shift
+ * the pages already read.
+ */
+public class StubServer {
+
+    private static final Logger logger = LogManager.getLogger(StubServer.class);
+
+    private static final String USERS_PATH = "/public/v2/users";
+    private static final String POSTS_PATH = "/public/v2/posts";
+    private static final int DEFAULT_PER_PAGE = 10;
+    private static final int MAX_PER_PAGE = 100;
+
+    private static StubServer embedded;
+    private static boolean reloadListenerRegistered;
+
+    static {
+        // The JDK server sends headers and body as two small writes; with Nagle on, the body waits for
+        // the client's delayed ACK and every response takes ~40 ms extra on loopback. Must be set
+        // before the first HttpServer is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ConcurrentMap<String, ConcurrentMap<Long, Map<String, Object>>> resources = new ConcurrentHashMap<>();
+    private final AtomicLong idSequence = new AtomicLong(1000);
+    private final AtomicLong requestSequence = new AtomicLong();
+
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+    // Sends delayed responses, so injected latency does not hold a handler thread
+    private ScheduledExecutorService delayer;
+
+    private volatile StubBehavior behavior;
+    private volatile String padding;
+
+    public StubServer(int port) {
+        this(port, StubBehavior.none());
+    }
+
+    public StubServer(int port, StubBehavior behavior) {
+        this.port = port;
+        resources.put(USERS_PATH, new ConcurrentHashMap<>());
+        resources.put(POSTS_PATH, new ConcurrentHashMap<>());
+        setBehavior(behavior);
+    }
+
+    public static boolean isEmbeddedEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("stub.enabled", false);
+    }
+
+    /*
+     * Start (once) the shared stub on stub.port with StubBehavior.fromConfig().
+     * The behaviour follows config reloads
+     */
+    public static synchronized StubServer startEmbedded() {
+        if (embedded == null) {
+            ConfigReader config = ConfigReader.getInstance();
+            embedded = new StubServer(config.getIntProperty("stub.port", 8089), StubBehavior.fromConfig()).start();
+            if (!config.getBaseUrl().startsWith(embedded.getBaseUrl())) {
+                logger.warn("Embedded stub runs on {} but BASE_URL is {}", embedded.getBaseUrl(), config.getBaseUrl());
+            }
+            if (!reloadListenerRegistered) {
+                config.addReloadListener(snapshot -> {
+                    StubServer current = getEmbedded();
+                    if (current != null) {
+                        current.setBehavior(StubBehavior.fromConfig());
+                    }
+                });
+                reloadListenerRegistered = true;
+            }
+        }
+        return embedded;
+    }
+
+    public static synchronized StubServer getEmbedded() {
+        return embedded;
+    }
+
+    public static synchronized void stopEmbedded() {
+        if (embedded != null) {
+            embedded.stop();
+            embedded = null;
+        }
+    }
+
+    public synchronized StubServer start() {
+        if (server != null) {
+            return this;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start stub server on port " + port, e);
+        }
+        executor = Executors.newFixedThreadPool(64);
+        delayer = Executors.newScheduledThreadPool(2);
+        server.setExecutor(executor);
+        server.createContext(USERS_PATH, exchange -> handle(exchange, USERS_PATH));
+        server.createContext(POSTS_PATH, exchange -> handle(exchange, POSTS_PATH));
+        server.start();
+        logger.info("Stub server started on {} ({})", getBaseUrl(), behavior);
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        delayer.shutdownNow();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        logger.info("Stub server on port {} stopped", port);
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    /*
+     * Remove all stored users and posts
+     */
+    public void clear() {
+        resources.values().forEach(Map::clear);
+    }
+
+    /*
+     * Replace the injected behaviour; applies to requests arriving from now on
+     */
+    public void setBehavior(StubBehavior behavior) {
+        this.padding = "x".repeat(Math.max(0, behavior.getPaddingBytes()));
+        this.behavior = behavior;
+    }
+
+    public StubBehavior getBehavior() {
+        return behavior;
+    }
+
+    /*
+     * Requests received since start, injected failures included
+     */
+    public long getRequestCount() {
+        return requestSequence.get();
+    }
+
+    private void handle(HttpExchange exchange, String collectionPath) throws IOException {
+        long requestNo = requestSequence.incrementAndGet();
+        StubBehavior current = behavior;
+        Reply reply;
+        try {
+            if (current.isFailure(requestNo)) {
+                // Fail before touching the store, like a gateway in front of the real service
+                exchange.getRequestBody().readAllBytes();
+                reply = new Reply(current.getErrorStatus(), error("Injected failure"));
+            } else {
+                reply = process(exchange, collectionPath);
+            }
+        } catch (JsonProcessingException e) {
+            reply = new Reply(400, error("Invalid JSON body"));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Stub server failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            reply = new Reply(500, error(e.getMessage()));
+        }
+
+        long delayMs = current.delayMs(requestNo);
+        if (delayMs <= 0) {
+            send(exchange, reply);
+            return;
+        }
+        Reply delayed = reply;
+        delayer.schedule(() -> {
+            try {
+                send(exchange, delayed);
+            } catch (IOException e) {
+                logger.debug("Stub server could not send delayed response to {}", exchange.getRequestURI(), e);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Reply process(HttpExchange exchange, String collectionPath) throws IOException {
+        ConcurrentMap<Long, Map<String, Object>> store = resources.get(collectionPath);
+        String path = exchange.getRequestURI().getPath();
+        String idPart = path.length() > collectionPath.length() ? path.substring(collectionPath.length() + 1) : "";
+        String method = exchange.getRequestMethod();
+
+        if (idPart.isEmpty()) {
+            if ("GET".equals(method)) {
+                return list(store, exchange.getRequestURI().getRawQuery());
+            } else if ("POST".equals(method)) {
+                Map<String, Object> entity = readBody(exchange);
+                long id = idSequence.incrementAndGet();
+                entity.put("id", id);
+                normalize(collectionPath, entity);
+                store.put(id, entity);
+                return new Reply(201, entity);
+            }
+            return new Reply(405, error("Method not allowed"));
+        }
+
+        long id;
+        try {
+            id = Long.parseLong(idPart);
+        } catch (NumberFormatException e) {
+            return new Reply(404, error("Resource not found"));
+        }
+
+        Map<String, Object> existing = store.get(id);
+        if (existing == null) {
+            return new Reply(404, error("Resource not found"));
+        }
+
+        switch (method) {
+            case "GET":
+                return new Reply(200, existing);
+            case "PUT":
+            case "PATCH":
+                Map<String, Object> updated = new LinkedHashMap<>(existing);
+                updated.putAll(readBody(exchange));
+                updated.put("id", id);
+                normalize(collectionPath, updated);
+                store.put(id, updated);
+                return new Reply(200, updated);
+            case "DELETE":
+                store.remove(id);
+                return new Reply(204, null);
+            default:
+                return new Reply(405, error("Method not allowed"));
+        }
+    }
+
+    /*
+     * One page of entities, filtered by simple equality query params (e.g. ?status=active)
+     */
+    private Reply list(Map<Long, Map<String, Object>> store, String rawQuery) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            for (String pair : rawQuery.split("&")) {
+                String[] parts = pair.split("=", 2);
+                if (parts.length == 2) {
+                    filters.put(decode(parts[0]), decode(parts[1]));
+                }
+            }
+        }
+        int page = Math.max(1, intParam(filters.remove("page"), 1));
+        int perPage = Math.min(MAX_PER_PAGE, Math.max(1, intParam(filters.remove("per_page"), DEFAULT_PER_PAGE)));
+
+        List<Long> ids = new ArrayList<>(store.keySet());
+        ids.sort(null);
+        List<Map<String, Object>> matching = new ArrayList<>();
+        for (Long id : ids) {
+            Map<String, Object> entity = store.get(id);
+            boolean matches = entity != null && filters.entrySet().stream()
+                    .allMatch(filter -> !entity.containsKey(filter.getKey())
+                            || String.valueOf(entity.get(filter.getKey())).equals(filter.getValue()));
+            if (matches) {
+                matching.add(entity);
+            }
+        }
+
+        int from = (int) Math.min((long) (page - 1) * perPage, matching.size());
+        Reply reply = new Reply(200, new ArrayList<>(matching.subList(from, Math.min(from + perPage, matching.size()))));
+        reply.headers.put("X-Pagination-Total", String.valueOf(matching.size()));
+        reply.headers.put("X-Pagination-Pages", String.valueOf((matching.size() + perPage - 1) / perPage));
+        reply.headers.put("X-Pagination-Page", String.valueOf(page));
+        reply.headers.put("X-Pagination-Limit", String.valueOf(perPage));
+        return reply;
+    }
+
+    private static int intParam(String value, int defaultValue) {
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /*
+     * Posts are exposed with gorest's snake_case user_id as well as the model's userId
+     */
+    private static void normalize(String collectionPath, Map<String, Object> entity) {
+        if (POSTS_PATH.equals(collectionPath)) {
+            if (!entity.containsKey("user_id") && entity.containsKey("userId")) {
+                entity.put("user_id", entity.get("userId"));
+            }
+            if (!entity.containsKey("userId") && entity.containsKey("user_id")) {
+                entity.put("userId", entity.get("user_id"));
+            }
+        }
+    }
+
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = decoded(exchange)) {
+            byte[] bytes = body.readAllBytes();
+            if (bytes.length == 0) {
+                return new LinkedHashMap<>();
+            }
+            return mapper.readValue(bytes, new TypeReference<LinkedHashMap<String, Object>>() { });
+        }
+    }
+
+    private void send(HttpExchange exchange, Reply reply) throws IOException {
+        try {
+            reply.headers.forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+            if (reply.body == null) {
+                exchange.sendResponseHeaders(reply.status, -1);
+                return;
+            }
+            byte[] bytes = mapper.writeValueAsBytes(withPadding(reply.body));
+            int compressionMinBytes = behavior.getCompressionMinBytes();
+            boolean gzip = compressionMinBytes >= 0 && bytes.length >= compressionMinBytes
+                    && acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            if (reply.status == 200 && "GET".equals(exchange.getRequestMethod())) {
+                // One ETag per representation, so a gzip and an identity body never validate each other
+                String etag = "\"" + Long.toHexString(RequestKeys.hash64(bytes)) + (gzip ? "-gzip" : "") + "\"";
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.getResponseHeaders().set("Cache-Control",
+                        "max-age=" + behavior.getCacheMaxAgeSeconds() + ", private, must-revalidate");
+                if (etagMatches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            if (compressionMinBytes >= 0) {
+                exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            }
+            if (gzip) {
+                bytes = gzip(bytes);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(reply.status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /*
+     * Request body with gzip or deflate Content-Encoding undone
+     */
+    private static InputStream decoded(HttpExchange exchange) throws IOException {
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        InputStream body = exchange.getRequestBody();
+        if (encoding == null) {
+            return body;
+        }
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(body);
+            case "deflate":
+                return new InflaterInputStream(body);
+            default:
+                return body;
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")
+                    && !(parts.length > 1 && parts[1].replace(" ", "").equals("q=0"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    /*
+     * Weak comparison (RFC 9110 13.1.2): W/ prefixes are ignored, * matches anything
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Stored entities get the configured filler field on the way out; error bodies stay as they are
+     */
+    @SuppressWarnings("unchecked")
+    private Object withPadding(Object body) {
+        String filler = padding;
+        if (filler.isEmpty()) {
+            return body;
+        }
+        if (body instanceof List) {
+            List<Object> padded = new ArrayList<>();
+            for (Object element : (List<Object>) body) {
+                padded.add(withPadding(element));
+            }
+            return padded;
+        }
+        if (body instanceof Map && ((Map<String, Object>) body).containsKey("id")) {
+            Map<String, Object> padded = new LinkedHashMap<>((Map<String, Object>) body);
+            padded.put("padding", filler);
+            return padded;
+        }
+        return body;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("message", message);
+        return error;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static final class Reply {
+        private final int status;
+        private final Object body;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+
+        private Reply(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
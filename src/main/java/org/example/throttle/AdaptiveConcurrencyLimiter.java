@@ -0,0 +1,113 @@
+package org.example.throttle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit: every successful response grows the limit by 1/limit (about +1 per
+ * round trip of the whole window), every throttled response (429/503) halves it. Halving happens
+ * at most once per cooldown so one burst of 429s counts as a single congestion signal.
+ * Callers block in acquire() while the number of in-flight requests is at the limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long cooldownNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long cooldownMs) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+        this.lastDecrease = System.nanoTime() - cooldownNanos;
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Response received and not throttled
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Server signalled overload (429/503)
+     */
+    public void onThrottled() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now - lastDecrease >= cooldownNanos) {
+                limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+                lastDecrease = now;
+            }
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Request failed without a response - says nothing about server capacity
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        inFlight--;
+        // The limit may have grown by more than one slot
+        permitAvailable.signalAll();
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.throttle;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Client-side flow control for one base URL: optional token bucket (request rate), an AIMD
+ * concurrency limit and a shared pause honouring the server's Retry-After.
+ * acquire() before sending, then exactly one of onResponse()/onError() when the call finishes.
+ */
+public class Throttle {
+
+    private static final Logger logger = LogManager.getLogger(Throttle.class);
+
+    private final String baseUrl;
+    private final TokenBucket bucket;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long maxRetryAfterNanos;
+
+    // System.nanoTime() until which nobody may send, set from Retry-After
+    private final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+
+    private final Histogram waitMicros = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttledResponses = new LongAdder();
+    private final LongAdder retryAfterPauses = new LongAdder();
+    // Acquires that actually had to wait (1 ms or more)
+    private final LongAdder waits = new LongAdder();
+
+    public Throttle(String baseUrl, TokenBucket bucket, AdaptiveConcurrencyLimiter limiter, long maxRetryAfterMs) {
+        this.baseUrl = baseUrl;
+        this.bucket = bucket;
+        this.limiter = limiter;
+        this.maxRetryAfterNanos = TimeUnit.MILLISECONDS.toNanos(maxRetryAfterMs);
+    }
+
+    public void acquire() {
+        long start = System.nanoTime();
+        parkUntil(pausedUntil.get());
+        if (bucket != null) {
+            parkUntil(System.nanoTime() + bucket.reserve());
+        }
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a request slot to " + baseUrl, e);
+        }
+        requests.increment();
+        long waitedMicros = (System.nanoTime() - start) / 1000;
+        waitMicros.recordValue(waitedMicros);
+        if (waitedMicros >= 1000) {
+            waits.increment();
+        }
+    }
+
+    public void onResponse(int statusCode, String retryAfter) {
+        if (statusCode != 429 && statusCode != 503) {
+            limiter.onSuccess();
+            return;
+        }
+        throttledResponses.increment();
+        limiter.onThrottled();
+
+        long delayNanos = parseRetryAfterNanos(retryAfter);
+        if (delayNanos > 0) {
+            long until = System.nanoTime() + Math.min(delayNanos, maxRetryAfterNanos);
+            long previous = pausedUntil.getAndAccumulate(until, (current, next) -> next - current > 0 ? next : current);
+            if (until - previous > 0) {
+                retryAfterPauses.increment();
+            }
+            logger.warn("{} answered {} - pausing requests for {} ms (concurrency limit now {})", baseUrl,
+                    statusCode, TimeUnit.NANOSECONDS.toMillis(Math.min(delayNanos, maxRetryAfterNanos)),
+                    limiter.getLimit());
+        } else {
+            logger.warn("{} answered {} - concurrency limit now {}", baseUrl, statusCode, limiter.getLimit());
+        }
+    }
+
+    public void onError() {
+        limiter.onIgnored();
+    }
+
+    public ThrottleStats getStats() {
+        Histogram waitHistogram = waitMicros.copy();
+        return ThrottleStats.builder()
+                .baseUrl(baseUrl)
+                .ratePerSecond(bucket == null ? 0 : bucket.getRatePerSecond())
+                .concurrencyLimit(limiter.getLimit())
+                .inFlight(limiter.getInFlight())
+                .requests(requests.sum())
+                .throttledResponses(throttledResponses.sum())
+                .retryAfterPauses(retryAfterPauses.sum())
+                .waits(waits.sum())
+                .meanWaitMs(waitHistogram.getMean() / 1000.0)
+                .p99WaitMs(waitHistogram.getValueAtPercentile(99) / 1000.0)
+                .maxWaitMs(waitHistogram.getMaxValue() / 1000.0)
+                .build();
+    }
+
+    /*
+     * Retry-After is either delay-seconds or an HTTP date; returns 0 when absent or unparseable
+     */
+    static long parseRetryAfterNanos(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return 0;
+        }
+        String value = retryAfter.trim();
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toNanos());
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("Interrupted while throttled");
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.throttle;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+
+/**
+ * Sends every request through the Throttle of its host (scheme://host:port).
+ * Runs outside the logging and metrics filters, so time spent waiting for a slot
+ * is reported as throttle wait and not as server latency.
+ */
+public class ThrottleFilter implements OrderedFilter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Throttle throttle = Throttles.forBaseUrl(hostOf(requestSpec));
+        throttle.acquire();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException | Error e) {
+            throttle.onError();
+            throw e;
+        }
+        throttle.onResponse(response.getStatusCode(), response.getHeader("Retry-After"));
+        return response;
+    }
+
+    private static String hostOf(FilterableRequestSpecification requestSpec) {
+        try {
+            URI uri = URI.create(requestSpec.getURI());
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+        } catch (IllegalArgumentException e) {
+            return requestSpec.getBaseUri();
+        }
+    }
+
+    /*
+     * Outermost of our filters - a retry filter, if any, should sit outside so each attempt is throttled
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 100;
+    }
+}
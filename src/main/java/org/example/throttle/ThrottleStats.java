@@ -0,0 +1,24 @@
+package org.example.throttle;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThrottleStats {
+    private String baseUrl;
+    private double ratePerSecond;
+    private int concurrencyLimit;
+    private int inFlight;
+    private long requests;
+    private long throttledResponses;
+    private long retryAfterPauses;
+    private long waits;
+    private double meanWaitMs;
+    private double p99WaitMs;
+    private double maxWaitMs;
+}
@@ -0,0 +1,90 @@
+package org.example.throttle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.utils.ConfigReader;
+import org.example.utils.JsonUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * One Throttle per base URL, shared by every thread and spec talking to that host.
+ *
+ * Settings:
+ * throttle.enabled (true)
+ * throttle.rate.per.second (0 = no rate cap) and throttle.burst (defaults to the rate)
+ * throttle.concurrency.max (1024), throttle.concurrency.min (1) and throttle.concurrency.initial (defaults
+ * to the max, so the limit only comes down once the server answers 429/503)
+ * throttle.decrease.cooldown.ms (1000) - minimum gap between two limit decreases
+ * throttle.retry.after.max.ms (60000) - cap on a single Retry-After pause
+ */
+public class Throttles {
+
+    private static final Logger logger = LogManager.getLogger(Throttles.class);
+
+    private static final ConcurrentMap<String, Throttle> throttles = new ConcurrentHashMap<>();
+
+    private Throttles() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("throttle.enabled", true);
+    }
+
+    public static Throttle forBaseUrl(String baseUrl) {
+        return throttles.computeIfAbsent(baseUrl, Throttles::create);
+    }
+
+    public static List<ThrottleStats> getStats() {
+        return throttles.values().stream()
+                .map(Throttle::getStats)
+                .sorted(Comparator.comparing(ThrottleStats::getBaseUrl))
+                .collect(Collectors.toList());
+    }
+
+    public static void logStats() {
+        for (ThrottleStats stats : getStats()) {
+            logger.info("Throttle {}: limit={} inFlight={} rate={}/s requests={} throttled={} retryAfterPauses={} "
+                            + "waits={} meanWait={} ms p99Wait={} ms maxWait={} ms",
+                    stats.getBaseUrl(), stats.getConcurrencyLimit(), stats.getInFlight(), stats.getRatePerSecond(),
+                    stats.getRequests(), stats.getThrottledResponses(), stats.getRetryAfterPauses(), stats.getWaits(),
+                    String.format("%.1f", stats.getMeanWaitMs()), String.format("%.1f", stats.getP99WaitMs()),
+                    String.format("%.1f", stats.getMaxWaitMs()));
+        }
+    }
+
+    public static void exportJson(String filePath) {
+        if (!throttles.isEmpty()) {
+            JsonUtils.serializeToFile(getStats(), filePath);
+        }
+    }
+
+    /*
+     * Drop all state, e.g. between independent runs against the same host
+     */
+    public static void reset() {
+        throttles.clear();
+    }
+
+    private static Throttle create(String baseUrl) {
+        ConfigReader config = ConfigReader.getInstance();
+        int rate = config.getIntProperty("throttle.rate.per.second", 0);
+        int burst = config.getIntProperty("throttle.burst", Math.max(1, rate));
+        int min = config.getIntProperty("throttle.concurrency.min", 1);
+        int max = config.getIntProperty("throttle.concurrency.max", 1024);
+        int initial = config.getIntProperty("throttle.concurrency.initial", max);
+        int cooldownMs = config.getIntProperty("throttle.decrease.cooldown.ms", 1000);
+        int maxRetryAfterMs = config.getIntProperty("throttle.retry.after.max.ms", 60000);
+
+        logger.info("Creating throttle for {}: rate={}/s burst={} concurrency={} ({}..{})",
+                baseUrl, rate == 0 ? "unlimited" : rate, burst, initial, min, max);
+        return new Throttle(baseUrl,
+                rate > 0 ? new TokenBucket(rate, burst) : null,
+                new AdaptiveConcurrencyLimiter(initial, min, max, cooldownMs),
+                maxRetryAfterMs);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.throttle;
+
+/**
+ * Token bucket rate limiter: ratePerSecond tokens are added continuously up to burst.
+ * A caller that finds the bucket empty reserves a future token and is told how long to wait,
+ * so waiting happens outside the lock and callers are served in arrival order.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double burst;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0");
+        }
+        this.ratePerNano = ratePerSecond / 1e9;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /*
+     * Take one token; returns the nanos the caller must wait before sending (0 = send now)
+     */
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * ratePerNano);
+        lastRefill = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / ratePerNano);
+    }
+
+    public double getRatePerSecond() {
+        return ratePerNano * 1e9;
+    }
+}
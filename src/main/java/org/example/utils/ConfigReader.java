@@ -1,72 +1,231 @@
 package org.example.utils;
 
-import java.io.FileInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+/**
+ * Configuration shared by all threads as an immutable ConfigSnapshot.
+ *
+ * Values are layered, later layers winning:
+ * 1. src/test/resources/config/config-<env>.properties (env system property, default qa)
+ * 2. environment variables - for keys in the file, either the exact name or upper snake case
+ *    (http.log.mode -> HTTP_LOG_MODE)
+ * 3. system properties (-Dkey=value) - for keys in the file and keys in the same namespaces (first
+ *    segment), so optional settings such as http.replay.dir can be set while java.*, user.* and
+ *    other JVM properties stay out of the snapshot
+ *
+ * With config.hot.reload=true the file is watched and a new snapshot is published when it changes;
+ * readers always see either the old or the new snapshot, never a mix. Components that cache values
+ * derived from config register a reload listener.
+ */
 public class ConfigReader {
 
-    private static ConfigReader instance;
+    private static final Logger logger = LogManager.getLogger(ConfigReader.class);
+
+    private static final String CONFIG_DIR = "src/test/resources/config";
+    public static final String HOT_RELOAD_KEY = "config.hot.reload";
 
-    private static final ThreadLocal<Properties> properties = new ThreadLocal<>();
+    private final String env;
+    private final Path configFile;
+    private final List<Consumer<ConfigSnapshot>> reloadListeners = new CopyOnWriteArrayList<>();
+
+    // Swapped as a whole on reload - a single volatile read per lookup, no locks
+    private volatile ConfigSnapshot snapshot;
 
     private ConfigReader() {
-        loadProperties();
+        env = System.getProperty("env", "qa");
+        configFile = Paths.get(CONFIG_DIR, "config-" + env + ".properties");
+        snapshot = loadSnapshot();
+        if (snapshot.getBoolean(HOT_RELOAD_KEY, false)) {
+            startWatcher();
+        }
+    }
+
+    /*
+     * Initialization-on-demand holder - lazy and thread-safe without locking on every call
+     */
+    private static class Holder {
+        private static final ConfigReader INSTANCE = new ConfigReader();
     }
 
     public static ConfigReader getInstance() {
-        if (instance == null) {
-            synchronized (ConfigReader.class) {
-                if (instance == null) {
-                    instance = new ConfigReader();
-                }
+        return Holder.INSTANCE;
+    }
+
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public String getBaseUrl() {
+        return snapshot.getBaseUrl();
+    }
+
+    public String getAuthToken() {
+        return snapshot.getAuthToken();
+    }
+
+    public int getTimeout() {
+        return snapshot.getTimeout();
+    }
+
+    public int getMaxRetry() {
+        return snapshot.getMaxRetry();
+    }
+
+    public String getProperty(String key) {
+        return snapshot.get(key);
+    }
+
+    public int getIntProperty(String key, int defaultValue) {
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    /*
+     * Called with the new snapshot after every reload that changed a value
+     */
+    public void addReloadListener(Consumer<ConfigSnapshot> listener) {
+        reloadListeners.add(listener);
+    }
+
+    /*
+     * Re-read all layers and publish a new snapshot if anything changed.
+     * Returns true when a new snapshot was published
+     */
+    public boolean reload() {
+        ConfigSnapshot updated;
+        try {
+            updated = loadSnapshot();
+        } catch (RuntimeException e) {
+            // Editors often write files in several steps - keep the last good snapshot
+            logger.warn("Config reload failed, keeping previous values: {}", e.getMessage());
+            return false;
+        }
+        if (updated.asMap().equals(snapshot.asMap())) {
+            return false;
+        }
+        snapshot = updated;
+        logger.info("Reloaded config from {}", configFile);
+        for (Consumer<ConfigSnapshot> listener : reloadListeners) {
+            try {
+                listener.accept(updated);
+            } catch (RuntimeException e) {
+                logger.error("Config reload listener failed", e);
             }
         }
-        return instance;
+        return true;
     }
 
-    private void loadProperties() {
+    private ConfigSnapshot loadSnapshot() {
         Properties props = new Properties();
-        String env = System.getProperty("env", "qa");
-        String configPath = "src/test/resources/config/config-" + env + ".properties";
-
-        try (FileInputStream fis = new FileInputStream(configPath)) {
-            props.load(fis);
-            properties.set(props);
+        try (InputStream in = Files.newInputStream(configFile)) {
+            props.load(in);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to load config file: " + configPath, e);
+            throw new RuntimeException("Failed to load config file: " + configFile, e);
         }
-    }
 
-    public String getBaseUrl() {
-        if (properties.get() == null) {
-            loadProperties();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            values.put(key, props.getProperty(key));
         }
-        return properties.get().getProperty("BASE_URL");
-    }
 
-    public String getAuthToken() {
-        if (properties.get() == null) {
-            loadProperties();
+        Map<String, String> environment = System.getenv();
+        for (String key : props.stringPropertyNames()) {
+            String value = environment.get(key);
+            if (value == null) {
+                value = environment.get(toEnvName(key));
+            }
+            if (value != null) {
+                values.put(key, value);
+            }
         }
-        return properties.get().getProperty("TOKEN");
-    }
 
-    public int getTimeout() {
-        if (properties.get() == null) {
-            loadProperties();
+        Set<String> namespaces = new HashSet<>();
+        for (String key : props.stringPropertyNames()) {
+            namespaces.add(namespace(key));
         }
-        return Integer.parseInt(properties.get().getProperty("timeout", "30000"));
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            if (props.containsKey(key) || namespaces.contains(namespace(key))) {
+                values.put(key, system.getProperty(key));
+            }
+        }
+        return new ConfigSnapshot(env, values);
     }
 
-    public String getProperty(String key) {
-        if (properties.get() == null) {
-            loadProperties();
+    /*
+     * "http." for http.log.mode; a key without a dot is its own namespace
+     */
+    private static String namespace(String key) {
+        int dot = key.indexOf('.');
+        return dot < 0 ? key : key.substring(0, dot + 1);
+    }
+
+    private static String toEnvName(String key) {
+        return key.replace('.', '_').replace('-', '_').toUpperCase();
+    }
+
+    private void startWatcher() {
+        WatchService watchService;
+        Path directory = configFile.toAbsolutePath().getParent();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.warn("Config hot reload disabled, cannot watch {}: {}", directory, e.getMessage());
+            return;
         }
-        return properties.get().getProperty(key);
+
+        Thread watcher = new Thread(() -> watch(watchService), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching {} for config changes", configFile);
     }
 
-    public void removeThreadLocalProperties() {
-        properties.remove();
+    private void watch(WatchService watchService) {
+        Path fileName = configFile.getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Watcher closed - stop quietly
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package org.example.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable view of the resolved configuration at one point in time.
+ * Common settings are parsed once when the snapshot is built; other numeric lookups are
+ * parsed on first use and memoized, so reads never touch the file or re-parse strings.
+ */
+public final class ConfigSnapshot {
+
+    private static final int DEFAULT_TIMEOUT = 30000;
+    private static final int DEFAULT_MAX_RETRY = 0;
+
+    private final String env;
+    private final Map<String, String> values;
+    private final String baseUrl;
+    private final String authToken;
+    private final int timeout;
+    private final int maxRetry;
+
+    // Parsed lookups, filled on first access - values never change for a snapshot
+    private final ConcurrentMap<String, Integer> parsedInts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> parsedBooleans = new ConcurrentHashMap<>();
+
+    ConfigSnapshot(String env, Map<String, String> values) {
+        this.env = env;
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+        this.baseUrl = values.get("BASE_URL");
+        this.authToken = values.get("TOKEN");
+        this.timeout = parseInt("timeout", values.get("timeout"), DEFAULT_TIMEOUT);
+        this.maxRetry = parseInt("max.retry", values.get("max.retry"), DEFAULT_MAX_RETRY);
+    }
+
+    public String getEnv() {
+        return env;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxRetry() {
+        return maxRetry;
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return parsedInts.computeIfAbsent(key, k -> parseInt(k, value, defaultValue));
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return parsedBooleans.computeIfAbsent(key, k -> Boolean.parseBoolean(value.trim()));
+    }
+
+    /*
+     * All resolved keys and values, read-only
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    private static int parseInt(String key, String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Config value for " + key + " is not a number: " + value, e);
+        }
+    }
+}
@@ -1,37 +1,62 @@
 package org.example.utils;
 
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import org.example.reporting.ReportTest;
+import org.example.reporting.ReportWriter;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * Owns the suite's ExtentReports and its ReportWriter. Tests report through ReportTest handles,
+ * which queue events for the writer thread, see ReportWriter.
+ * Reports go to report.dir (test-output).
+ */
 public class ExtentManager {
 
-    private static ExtentReports extent;
+    // Written under the class lock, read without it - startTest runs on every worker thread
+    private static volatile ExtentReports extent;
+    private static volatile ReportWriter writer;
+    private static volatile String reportPath;
 
-    // ThreadLocal to maintain separate ExtentTest for each thread
-    private static final ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    // ThreadLocal to maintain separate ReportTest for each thread
+    private static final ThreadLocal<ReportTest> test = new ThreadLocal<>();
 
-    public static ExtentReports createInstance() {
+    public static synchronized ExtentReports createInstance() {
         String timestamp = LocalDateTime.now()
                 .format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-        String fileName = "test-output/ExtentReport_" + timestamp + ".html";
+        String dir = ConfigReader.getInstance().getProperty("report.dir");
+        String fileName = (dir == null || dir.isBlank() ? "test-output" : dir.trim())
+                + "/ExtentReport_" + timestamp + ".html";
+        reportPath = fileName;
+
+        extent = createReports(fileName);
+
+        if (writer != null) {
+            writer.close();
+        }
+        writer = new ReportWriter(extent, getReportArtifactPath("_events.jsonl"));
+        return extent;
+    }
 
+    /**
+     * ExtentReports with the suite's Spark HTML reporter writing to fileName
+     */
+    public static ExtentReports createReports(String fileName) {
         ExtentSparkReporter sparkReporter = new ExtentSparkReporter(fileName);
         sparkReporter.config().setTheme(Theme.DARK);
         sparkReporter.config().setDocumentTitle("API Automation Report");
         sparkReporter.config().setReportName("REST API Test Results");
         sparkReporter.config().setEncoding("utf-8");
 
-        extent = new ExtentReports();
-        extent.attachReporter(sparkReporter);
-        extent.setSystemInfo("Environment", System.getProperty("env", "QA"));
-        extent.setSystemInfo("Tester", "Automation Team");
-        extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-
-        return extent;
+        ExtentReports reports = new ExtentReports();
+        reports.attachReporter(sparkReporter);
+        reports.setSystemInfo("Environment", System.getProperty("env", "QA"));
+        reports.setSystemInfo("Tester", "Automation Team");
+        reports.setSystemInfo("Java Version", System.getProperty("java.version"));
+        return reports;
     }
 
     public static synchronized ExtentReports getExtent() {
@@ -42,24 +67,66 @@ public class ExtentManager {
     }
 
     /**
-     * Set ExtentTest for current thread - THREAD SAFE
+     * Path of the current HTML report, or null before createInstance()
+     */
+    public static String getReportPath() {
+        return reportPath;
+    }
+
+    /**
+     * Path for a companion artifact next to the HTML report, e.g. getReportArtifactPath("_latency.json")
+     */
+    public static String getReportArtifactPath(String suffix) {
+        String base = reportPath != null ? reportPath : "test-output/ExtentReport.html";
+        return base.substring(0, base.length() - ".html".length()) + suffix;
+    }
+
+    /**
+     * Start a report node for a test and make it current for this thread - THREAD SAFE, lock-free
+     * once the report exists
      */
-    public static void setTest(ExtentTest extentTest) {
-        test.set(extentTest);
+    public static ReportTest startTest(String name, String description) {
+        ReportWriter current = writer;
+        if (current == null) {
+            current = getWriter();
+        }
+        ReportTest reportTest = current.startTest(name, description);
+        test.set(reportTest);
+        return reportTest;
+    }
+
+    private static synchronized ReportWriter getWriter() {
+        if (writer == null) {
+            createInstance();
+        }
+        return writer;
     }
 
     /**
-     * Get ExtentTest for current thread - THREAD SAFE
+     * Get ReportTest for current thread - THREAD SAFE
      */
-    public static ExtentTest getTest() {
+    public static ReportTest getTest() {
         return test.get();
     }
 
     /**
-     * Remove ThreadLocal test to prevent memory leaks
+     * End the current thread's test and remove the ThreadLocal to prevent memory leaks
      */
     public static void unload() {
+        ReportTest current = test.get();
+        if (current != null) {
+            current.end();
+        }
         test.remove();
     }
-}
 
+    /**
+     * Drain queued report events and write the final report
+     */
+    public static synchronized void flush() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
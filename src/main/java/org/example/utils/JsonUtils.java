@@ -1,20 +1,83 @@
 package org.example.utils;
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.models.Product;
+import org.example.models.User;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 public class JsonUtils {
 
-    private static final ThreadLocal<ObjectMapper> mapper = ThreadLocal.withInitial(() ->
-            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
-    );
+    private static final Logger logger = LogManager.getLogger(JsonUtils.class);
+
+    // -Djson.blackbird=false falls back to plain reflection accessors
+    public static final String BLACKBIRD_PROPERTY = "json.blackbird";
+
+    // ObjectMapper is thread-safe once configured - one instance serves every thread,
+    // including REST Assured's object mapping (see SpecBuilder). Output is compact on the wire
+    private static final ObjectMapper mapper = createMapper();
+
+    // Readers and writers with their root (de)serializer already resolved, one per type
+    private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    // Reports and other files on disk stay human-readable
+    private static final ObjectWriter fileWriter = mapper.writerWithDefaultPrettyPrinter();
+
+    static {
+        // Build the model (de)serializers up front instead of inside the first test
+        for (Class<?> model : new Class<?>[]{User.class, Product.class}) {
+            readerFor(model);
+            writerFor(model);
+        }
+    }
+
+    private static ObjectMapper createMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        if (Boolean.parseBoolean(System.getProperty(BLACKBIRD_PROPERTY, "true"))) {
+            objectMapper.registerModule(new BlackbirdModule());
+            logger.debug("Jackson Blackbird accessors enabled");
+        }
+        return objectMapper;
+    }
+
+    /*
+     * The shared mapper - configure nothing on it after startup
+     */
+    public static ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    public static ObjectReader readerFor(Class<?> clazz) {
+        return readers.computeIfAbsent(clazz, mapper::readerFor);
+    }
+
+    public static ObjectWriter writerFor(Class<?> clazz) {
+        return writers.computeIfAbsent(clazz, mapper::writerFor);
+    }
 
     public static <T> T deserialize(String json, Class<T> clazz) {
         try {
-            return mapper.get().readValue(json, clazz);
+            return readerFor(clazz).readValue(json);
         } catch (IOException e) {
             throw new RuntimeException("Failed to deserialize JSON", e);
         }
@@ -22,21 +85,149 @@ public class JsonUtils {
 
     public static <T> T deserializeFromFile(String filePath, Class<T> clazz) {
         try {
-            return mapper.get().readValue(new File(filePath), clazz);
+            return readerFor(clazz).readValue(new File(filePath));
         } catch (IOException e) {
             throw new RuntimeException("Failed to read JSON from file", e);
         }
     }
 
+    public static void serializeToFile(Object obj, String filePath) {
+        File file = new File(filePath);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            fileWriter.writeValue(file, obj);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write JSON to file: " + filePath, e);
+        }
+    }
+
     public static String serialize(Object obj) {
         try {
-            return mapper.get().writeValueAsString(obj);
+            return obj == null ? "null" : writerFor(obj.getClass()).writeValueAsString(obj);
         } catch (IOException e) {
             throw new RuntimeException("Failed to serialize object", e);
         }
     }
 
-    public static void removeThreadLocalMapper() {
-        mapper.remove();
+    /*
+     * Parse a JSON document into a tree once, for repeated navigation without re-parsing
+     */
+    public static JsonNode readTree(byte[] json) {
+        try {
+            return mapper.readTree(json);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse JSON", e);
+        }
+    }
+
+    /*
+     * Streaming access to top-level JSON arrays (list endpoints).
+     * Elements are parsed one at a time with the Jackson streaming parser, so no
+     * object tree of the whole page is built - unlike repeated response.jsonPath() calls.
+     */
+
+    /*
+     * Lazily iterate array elements as typed objects - close the iterator when done
+     */
+    public static <T> MappingIterator<T> iterateArray(InputStream json, Class<T> clazz) {
+        try {
+            // The reader unwraps a root-level array and binds one element per next()
+            return readerFor(clazz).readValues(json);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stream JSON array", e);
+        }
+    }
+
+    public static <T> MappingIterator<T> iterateArray(Response response, Class<T> clazz) {
+        return iterateArray(response.asInputStream(), clazz);
+    }
+
+    public static <T> void forEachElement(Response response, Class<T> clazz, Consumer<T> action) {
+        try (MappingIterator<T> elements = iterateArray(response, clazz)) {
+            while (elements.hasNext()) {
+                action.accept(elements.next());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stream JSON array", e);
+        }
+    }
+
+    /*
+     * Count array elements without binding them
+     */
+    public static int countArrayElements(InputStream json) {
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            expectArray(parser);
+            int count = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to count JSON array elements", e);
+        }
+    }
+
+    public static int countArrayElements(Response response) {
+        return countArrayElements(response.asInputStream());
+    }
+
+    /*
+     * Check every array element has non-null values for the required top-level fields.
+     * Returns one message per violation, e.g. "[3] missing: user_id" - empty when all elements pass
+     */
+    public static List<String> findMissingFields(InputStream json, String... requiredFields) {
+        List<String> requiredList = Arrays.asList(requiredFields);
+        List<String> violations = new ArrayList<>();
+
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            expectArray(parser);
+            int index = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    violations.add("[" + index++ + "] is not an object");
+                    continue;
+                }
+
+                boolean[] present = new boolean[requiredFields.length];
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int field = requiredList.indexOf(parser.getCurrentName());
+                    JsonToken value = parser.nextToken();
+                    if (field >= 0 && value != JsonToken.VALUE_NULL) {
+                        present[field] = true;
+                    }
+                    parser.skipChildren();
+                }
+
+                List<String> missing = new ArrayList<>();
+                for (int i = 0; i < present.length; i++) {
+                    if (!present[i]) {
+                        missing.add(requiredFields[i]);
+                    }
+                }
+                if (!missing.isEmpty()) {
+                    violations.add("[" + index + "] missing: " + String.join(", ", missing));
+                }
+                index++;
+            }
+            return violations;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to check JSON array fields", e);
+        }
+    }
+
+    public static List<String> findMissingFields(Response response, String... requiredFields) {
+        return findMissingFields(response.asInputStream(), requiredFields);
+    }
+
+    private static void expectArray(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new RuntimeException("Expected a JSON array but found: " + parser.currentToken());
+        }
     }
 }
@@ -1,22 +1,67 @@
 package org.example.utils;
 
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAnnotationTransformer;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Whole-test retry, kept as a last resort - transient HTTP failures are already retried per request
+ * by RetryPolicy. TestNG keeps one analyzer per test method of each test instance, and one per
+ * parameter set for data-provider rows, so the count lives in the analyzer itself: no shared state
+ * to collide or leak, and parallel invocations on different threads share their method's count.
+ *
+ * Register RetryAnalyzer.Transformer as a suite listener to apply it, with max.retry attempts, to
+ * every @Test that does not name its own analyzer.
+ */
 public class RetryAnalyzer implements IRetryAnalyzer {
-    // ThreadLocal to maintain separate retry count for each thread
-    private final ThreadLocal<Integer> retryCount = ThreadLocal.withInitial(() -> 0);
-    private static final int MAX_RETRY = 2;
+
+    private static final Logger logger = LogManager.getLogger(RetryAnalyzer.class);
+
+    private final AtomicInteger retries = new AtomicInteger();
 
     @Override
     public boolean retry(ITestResult result) {
-        int currentCount = retryCount.get();
-        if (currentCount < MAX_RETRY) {
-            retryCount.set(currentCount + 1);
+        int maxRetry = ConfigReader.getInstance().getMaxRetry();
+        int attempt = retries.incrementAndGet();
+        if (attempt <= maxRetry) {
+            logger.warn("Retrying {} ({}/{}) after: {}", result.getMethod().getQualifiedName(), attempt, maxRetry,
+                    result.getThrowable() == null ? "failure" : result.getThrowable().toString());
             return true;
         }
-        retryCount.remove(); // Clean up
         return false;
     }
+
+    public static class Transformer implements IAnnotationTransformer {
+
+        // What @Test reports when no analyzer was named - read from the annotation itself rather than
+        // naming TestNG's internal placeholder class
+        private static final Object NO_ANALYZER = defaultAnalyzer();
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor,
+                              Method testMethod) {
+            Class<? extends IRetryAnalyzer> current = annotation.getRetryAnalyzerClass();
+            if (current == null || current == NO_ANALYZER) {
+                annotation.setRetryAnalyzer(RetryAnalyzer.class);
+            }
+        }
+
+        private static Object defaultAnalyzer() {
+            try {
+                return Test.class.getMethod("retryAnalyzer").getDefaultValue();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("@Test has no retryAnalyzer attribute", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package org.example.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CacheControlTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    public void testParseDirectives() {
+        CacheControl cacheControl = CacheControl.parse("Private, No-Cache, max-age=\"120\"");
+        assertTrue(cacheControl.noCache);
+        assertFalse(cacheControl.noStore);
+        assertEquals(cacheControl.maxAgeSeconds, 120);
+
+        assertTrue(CacheControl.parse("no-store").noStore);
+        assertEquals(CacheControl.parse(null).maxAgeSeconds, -1);
+        assertEquals(CacheControl.parse("max-age=soon").maxAgeSeconds, -1);
+    }
+
+    @Test
+    public void testMaxAgeMinusAge() {
+        assertEquals(CacheControl.freshUntil(headers("Cache-Control", "max-age=60"), NOW), NOW + 60_000);
+        assertEquals(CacheControl.freshUntil(headers("Cache-Control", "max-age=60", "Age", "20"), NOW), NOW + 40_000);
+        assertEquals(CacheControl.freshUntil(headers("Cache-Control", "max-age=60", "Age", "90"), NOW), NOW);
+    }
+
+    @Test
+    public void testMaxAgeWinsOverExpires() {
+        Map<String, String> headers = headers("Cache-Control", "max-age=10",
+                "Date", "Tue, 14 Nov 2023 22:13:20 GMT", "Expires", "Tue, 14 Nov 2023 23:13:20 GMT");
+        assertEquals(CacheControl.freshUntil(headers, NOW), NOW + 10_000);
+    }
+
+    @Test
+    public void testExpiresRelativeToDate() {
+        // The server clock is used for the lifetime, so client clock skew does not matter
+        Map<String, String> headers = headers("Date", "Tue, 14 Nov 2023 22:13:20 GMT",
+                "Expires", "Tue, 14 Nov 2023 22:18:20 GMT");
+        assertEquals(CacheControl.freshUntil(headers, NOW + 999_999), NOW + 999_999 + 300_000);
+
+        Map<String, String> withoutDate = headers("Expires", "Tue, 14 Nov 2023 22:18:20 GMT");
+        assertEquals(CacheControl.freshUntil(withoutDate, NOW), NOW + 300_000);
+    }
+
+    @Test
+    public void testInvalidOrPastExpiresIsStale() {
+        assertEquals(CacheControl.freshUntil(headers("Expires", "0"), NOW), 0);
+        assertEquals(CacheControl.freshUntil(headers("Expires", "Mon, 13 Nov 2023 22:13:20 GMT"), NOW), NOW);
+        assertEquals(CacheControl.freshUntil(headers(), NOW), 0);
+    }
+
+    @Test
+    public void testNoStoreAndNoCache() {
+        assertEquals(CacheControl.freshUntil(headers("Cache-Control", "no-store, max-age=60"), NOW),
+                CacheControl.NOT_STORABLE);
+        assertEquals(CacheControl.freshUntil(headers("cache-control", "no-cache, max-age=60"), NOW), 0);
+    }
+
+    private static Map<String, String> headers(String... namesAndValues) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.cache;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.example.stub.StubBehavior;
+import org.example.stub.StubServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class HttpCacheFilterTest {
+
+    private static final String USERS = "/public/v2/users";
+
+    private StubServer stub;
+
+    @BeforeClass
+    public void startStub() {
+        stub = new StubServer(18091).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        stub.stop();
+        HttpCache.reset();
+    }
+
+    @BeforeMethod
+    public void resetCache() {
+        stub.clear();
+        stub.setBehavior(StubBehavior.none());
+        HttpCache.reset();
+    }
+
+    @Test
+    public void testFreshEntryIsServedWithoutRequest() {
+        stub.setBehavior(StubBehavior.builder().cacheMaxAgeSeconds(60).build());
+        long id = createUser("Fresh");
+
+        Response first = request().get(USERS + "/" + id);
+        long sent = stub.getRequestCount();
+        Response second = request().get(USERS + "/" + id);
+
+        assertEquals(stub.getRequestCount(), sent, "A fresh entry must not reach the server");
+        assertEquals(second.getStatusCode(), 200);
+        assertEquals(second.asString(), first.asString());
+        HttpCacheStats stats = HttpCache.shared().getStats();
+        assertEquals(stats.getHits(), 1);
+        assertEquals(stats.getMisses(), 1);
+    }
+
+    @Test
+    public void testStaleEntryIsRevalidated() {
+        long id = createUser("Stale");
+
+        Response first = request().get(USERS + "/" + id);
+        long sent = stub.getRequestCount();
+        Response second = request().get(USERS + "/" + id);
+
+        assertEquals(stub.getRequestCount(), sent + 1, "max-age=0 must be revalidated");
+        assertEquals(second.getStatusCode(), 200, "A 304 is answered as the stored 200");
+        assertEquals(second.asString(), first.asString());
+        HttpCacheStats stats = HttpCache.shared().getStats();
+        assertEquals(stats.getRevalidations(), 1);
+        assertEquals(stats.getNotModified(), 1);
+        assertEquals(stats.getHits(), 0);
+    }
+
+    @Test
+    public void testNotModifiedHeadersAreMerged() {
+        long id = createUser("Merged");
+        request().get(USERS + "/" + id);
+
+        // The 304 carries the new max-age, which must replace the stored one
+        stub.setBehavior(StubBehavior.builder().cacheMaxAgeSeconds(60).build());
+        request().get(USERS + "/" + id);
+        long sent = stub.getRequestCount();
+        Response third = request().get(USERS + "/" + id);
+
+        assertEquals(stub.getRequestCount(), sent, "The revalidated entry must be fresh");
+        assertEquals(third.getStatusCode(), 200);
+        assertTrue(third.getHeader("Cache-Control").contains("max-age=60"), third.getHeader("Cache-Control"));
+        // Entity headers of the 304 do not replace the stored ones
+        assertTrue(third.getContentType().startsWith("application/json"), third.getContentType());
+        assertEquals(third.jsonPath().getString("name"), "Merged");
+    }
+
+    @Test
+    public void testVaryMismatchIsNotServed() {
+        stub.setBehavior(StubBehavior.builder().cacheMaxAgeSeconds(60).compressionMinBytes(0).build());
+        long id = createUser("Vary");
+
+        request().header("Accept-Encoding", "gzip").get(USERS + "/" + id);
+        long sent = stub.getRequestCount();
+        request().header("Accept-Encoding", "gzip").get(USERS + "/" + id);
+        assertEquals(stub.getRequestCount(), sent, "Same Accept-Encoding must be a hit");
+
+        Response identity = request().header("Accept-Encoding", "identity").get(USERS + "/" + id);
+        assertEquals(stub.getRequestCount(), sent + 1, "Another Accept-Encoding must reach the server");
+        assertEquals(identity.getStatusCode(), 200);
+        assertEquals(identity.jsonPath().getString("name"), "Vary");
+    }
+
+    @Test
+    public void testUpdateInvalidatesItemAndCollection() {
+        stub.setBehavior(StubBehavior.builder().cacheMaxAgeSeconds(60).build());
+        long id = createUser("Before");
+        request().get(USERS + "/" + id);
+        request().get(USERS);
+
+        request().contentType(ContentType.JSON).body(Map.of("name", "After")).put(USERS + "/" + id);
+        long sent = stub.getRequestCount();
+
+        Response item = request().get(USERS + "/" + id);
+        assertEquals(stub.getRequestCount(), sent + 1, "The updated item must be fetched again");
+        assertEquals(item.jsonPath().getString("name"), "After");
+
+        Response list = request().get(USERS);
+        assertEquals(stub.getRequestCount(), sent + 2, "The parent collection must be fetched again");
+        assertEquals(list.jsonPath().getString("[0].name"), "After");
+    }
+
+    @Test
+    public void testCreateInvalidatesCollection() {
+        stub.setBehavior(StubBehavior.builder().cacheMaxAgeSeconds(60).build());
+        createUser("First");
+        assertEquals(request().get(USERS).jsonPath().getList("$").size(), 1);
+
+        createUser("Second");
+        assertEquals(request().get(USERS).jsonPath().getList("$").size(), 2);
+    }
+
+    private RequestSpecification request() {
+        return RestAssured.given().baseUri(stub.getBaseUrl()).filter(new HttpCacheFilter());
+    }
+
+    private long createUser(String name) {
+        Response created = request().contentType(ContentType.JSON)
+                .body(Map.of("name", name, "email", name.toLowerCase() + "@example.com", "gender", "female",
+                        "status", "active"))
+                .post(USERS);
+        assertEquals(created.getStatusCode(), 201);
+        Long id = created.jsonPath().getLong("id");
+        assertNotNull(id);
+        return id;
+    }
+}
@@ -1,17 +1,34 @@
 package org.example.haidar;
 
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.cache.HttpCache;
+import org.example.cleanup.ResourceTracker;
+import org.example.client.AsyncExecutor;
+import org.example.client.Compression;
+import org.example.client.ConnectionPool;
+import org.example.client.RetryPolicy;
 import org.example.client.SpecBuilder;
-import org.example.utils.ConfigReader;
+import org.example.fixtures.FixturePools;
+import org.example.metrics.LatencyRecorder;
+import org.example.pagination.Pagination;
+import org.example.perf.PerformanceGate;
+import org.example.replay.ReplayStore;
+import org.example.replay.ReplayStats;
+import org.example.reporting.ReportTest;
+import org.example.runner.DurationScheduler;
+import org.example.schema.SchemaRegistry;
+import org.example.stub.StubServer;
+import org.example.throttle.Throttles;
 import org.example.utils.ExtentManager;
-import org.example.utils.JsonUtils;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class BaseTest {
 
     protected static final Logger logger = LogManager.getLogger(BaseTest.class);
@@ -21,6 +38,14 @@ public class BaseTest {
     public void setupSuite() {
         logger.info("Setting up test suite");
         extent = ExtentManager.createInstance();
+
+        // -Denv=local: serve the API from the in-process stub instead of the network
+        if (StubServer.isEmbeddedEnabled()) {
+            StubServer.startEmbedded();
+        }
+
+        // Create fixtures in the background while the first tests start
+        FixturePools.prefill();
     }
 
     @BeforeClass(alwaysRun = true)
@@ -35,9 +60,8 @@ public class BaseTest {
                 result.getMethod().getMethodName(), Thread.currentThread().getId());
 
         // Create test in ExtentReports for current thread
-        ExtentTest test = extent.createTest(result.getMethod().getMethodName(), result.getMethod().getDescription());
+        ReportTest test = ExtentManager.startTest(result.getMethod().getMethodName(), result.getMethod().getDescription());
         test.assignCategory(result.getTestClass().getRealClass().getSimpleName());
-        ExtentManager.setTest(test);
 
         // Reset specs for new test
         SpecBuilder.resetSpecs();
@@ -48,7 +72,7 @@ public class BaseTest {
         logger.info("Finishing test: {} in thread: {}",
                 result.getMethod().getMethodName(), Thread.currentThread().getId());
 
-        ExtentTest test = ExtentManager.getTest();
+        ReportTest test = ExtentManager.getTest();
 
         if (result.getStatus() == ITestResult.FAILURE) {
             test.log(Status.FAIL, "Test Failed");
@@ -63,7 +87,6 @@ public class BaseTest {
         // Clean up ThreadLocal variables to prevent memory leaks
         ExtentManager.unload();
         SpecBuilder.removeThreadLocalSpecs();
-        JsonUtils.removeThreadLocalMapper();
     }
 
     @AfterClass(alwaysRun = true)
@@ -76,11 +99,84 @@ public class BaseTest {
     public void tearDownSuite() {
         logger.info("Tearing down test suite");
 
-        // Final cleanup of all ThreadLocal variables
-        ConfigReader.getInstance().removeThreadLocalProperties();
+        // Every step runs even if an earlier one fails; the first failure is rethrown at the end
+        List<Throwable> failures = new ArrayList<>();
+
+        // Needs the connection pool, so runs before it shuts down
+        teardownStep("fixture cleanup", failures, () -> {
+            FixturePools.close();
+            ResourceTracker.exportJson(ResourceTracker.cleanup(),
+                    ExtentManager.getReportArtifactPath("_cleanup.json"));
+        });
+
+        teardownStep("async executor shutdown", failures, AsyncExecutor::shutdown);
+        teardownStep("connection pool shutdown", failures, ConnectionPool::shutdown);
+        teardownStep("stub server shutdown", failures, StubServer::stopEmbedded);
+
+        teardownStep("latency report", failures, () -> {
+            LatencyRecorder.printSummary();
+            LatencyRecorder.exportJson(ExtentManager.getReportArtifactPath("_latency.json"));
+        });
+        teardownStep("throttle report", failures, () -> {
+            Throttles.logStats();
+            Throttles.exportJson(ExtentManager.getReportArtifactPath("_throttle.json"));
+        });
+        teardownStep("retry report", failures, () -> {
+            RetryPolicy.logStats();
+            Compression.logStats();
+            RetryPolicy.exportJson(ExtentManager.getReportArtifactPath("_retry.json"));
+        });
+        teardownStep("replay store close", failures, () -> {
+            ReplayStats replayStats = ReplayStore.sharedStats();
+            if (replayStats != null) {
+                logger.info("Replay store: {}", replayStats);
+            }
+            ReplayStore.closeShared();
+        });
+        teardownStep("HTTP cache report", failures, () -> {
+            HttpCache.logStats();
+            HttpCache.exportJson(ExtentManager.getReportArtifactPath("_http_cache.json"));
+        });
+        teardownStep("schedule report", failures, () -> {
+            DurationScheduler.logStats();
+            DurationScheduler.exportJson(ExtentManager.getReportArtifactPath("_schedule.json"));
+        });
+        teardownStep("schema report", failures, () -> {
+            SchemaRegistry.logStats();
+            SchemaRegistry.exportJson(ExtentManager.getReportArtifactPath("_schema.json"));
+        });
+        teardownStep("pagination report", failures, () -> {
+            Pagination.logStats();
+            Pagination.exportJson(ExtentManager.getReportArtifactPath("_pagination.json"));
+        });
+
+        teardownStep("Extent report flush", failures, ExtentManager::flush);
+
+        // Last, so a latency regression fails the suite after every report has been written
+        teardownStep("performance gate", failures,
+                () -> PerformanceGate.run(ExtentManager.getReportArtifactPath("_perf_gate.json")));
+
+        rethrowFirst(failures);
+    }
 
-        if (extent != null) {
-            extent.flush();
+    private static void teardownStep(String name, List<Throwable> failures, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException | AssertionError e) {
+            logger.error("Suite teardown step '{}' failed", name, e);
+            failures.add(e);
+        }
+    }
+
+    private static void rethrowFirst(List<Throwable> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        Throwable first = failures.get(0);
+        failures.subList(1, failures.size()).forEach(first::addSuppressed);
+        if (first instanceof AssertionError) {
+            throw (AssertionError) first;
         }
+        throw (RuntimeException) first;
     }
 }
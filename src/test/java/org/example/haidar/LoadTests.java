@@ -0,0 +1,115 @@
+package org.example.haidar;
+
+import io.restassured.response.Response;
+import org.example.load.LoadGenerator;
+import org.example.load.LoadProfile;
+import org.example.load.LoadReport;
+import org.example.models.Product;
+import org.example.models.User;
+import org.example.perf.LatencyAssert;
+import org.example.services.ProductService;
+import org.example.services.UserService;
+import org.example.stub.StubServer;
+import org.example.utils.ExtentManager;
+import org.example.utils.JsonUtils;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Load-generation smoke tests against the in-process stub server.
+ * Run with: mvn test -Denv=local -Dsurefire.suiteXmlFiles=suites/load-suite.xml
+ */
+public class LoadTests extends BaseTest {
+
+    private UserService userService;
+    private ProductService productService;
+
+    @BeforeClass
+    public void setupClass() {
+        super.setupClass();
+        if (!StubServer.isEmbeddedEnabled()) {
+            throw new SkipException("Load tests only run against the local stub - use -Denv=local");
+        }
+        StubServer.startEmbedded();
+        userService = new UserService();
+        productService = new ProductService();
+    }
+
+    @Test(description = "Open model - getUser at a target RPS with ramp-up")
+    public void testOpenModelGetUser() {
+        Response created = userService.createUser(User.builder()
+                .name("Load User")
+                .email("load.user" + System.currentTimeMillis() + "@test.com")
+                .gender("female")
+                .status("active")
+                .build());
+        Long userId = created.as(User.class).getId();
+
+        LoadProfile profile = LoadProfile.builder()
+                .model(LoadProfile.Model.OPEN)
+                .targetRps(100)
+                .rampUp(Duration.ofSeconds(1))
+                .duration(Duration.ofSeconds(3))
+                .concurrency(16)
+                .build();
+
+        LoadReport report = new LoadGenerator("getUser-open", profile, () -> userService.getUser(userId)).run();
+        JsonUtils.serializeToFile(report, ExtentManager.getReportArtifactPath("_load_getUser-open.json"));
+        ExtentManager.getTest().info("<pre>" + report.toSummary() + "</pre>");
+
+        Assert.assertEquals(report.getFailures(), 0, "Failed requests: " + report.getStatusCodes());
+        // 1 s ramp-up (~50 requests) + 2 s at 100 rps
+        Assert.assertTrue(report.getRequests() >= 200 && report.getRequests() <= 260,
+                "Unexpected request count: " + report.getRequests());
+        Assert.assertTrue(report.getResponseTime().getP99Ms() >= report.getServiceTime().getP50Ms());
+
+        ExtentManager.getTest().pass("Open model run completed");
+    }
+
+    @Test(description = "Closed model - createProduct with fixed concurrency and iteration cap")
+    public void testClosedModelCreateProduct() {
+        LoadProfile profile = LoadProfile.builder()
+                .model(LoadProfile.Model.CLOSED)
+                .concurrency(8)
+                .maxIterations(200)
+                .duration(Duration.ofSeconds(30))
+                .build();
+
+        LoadReport report = new LoadGenerator("createProduct-closed", profile, () -> productService.createProduct(
+                Product.builder()
+                        .userId(12345L)
+                        .title("Load Product")
+                        .body("Created by closed-model load test")
+                        .build()))
+                .run();
+        JsonUtils.serializeToFile(report, ExtentManager.getReportArtifactPath("_load_createProduct-closed.json"));
+        ExtentManager.getTest().info("<pre>" + report.toSummary() + "</pre>");
+
+        Assert.assertEquals(report.getRequests(), 200);
+        Assert.assertEquals(report.getStatusCodes().get(201), Long.valueOf(200));
+
+        ExtentManager.getTest().pass("Closed model run completed");
+    }
+
+    @Test(description = "SLA - getProduct p95 under 200 ms across 50 sequential samples")
+    public void testGetProductLatencySla() {
+        Response created = productService.createProduct(Product.builder()
+                .userId(12345L)
+                .title("SLA Product")
+                .body("Created by latency SLA test")
+                .build());
+        Long productId = created.as(Product.class).getId();
+
+        LatencyAssert sla = LatencyAssert.measure("getProduct", 5, 50, () -> productService.getProduct(productId))
+                .percentileBelow(95, 200)
+                .maxBelow(1000);
+        LatencyAssert.assertResponseTime(productService.getProduct(productId), 200);
+        productService.deleteProduct(productId);
+
+        ExtentManager.getTest().pass("getProduct within SLA: " + sla.describe());
+    }
+}
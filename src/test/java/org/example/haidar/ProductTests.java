@@ -1,16 +1,28 @@
 package org.example.haidar;
 
 import io.restassured.response.Response;
+import org.example.fixtures.FixturePools;
 import org.example.models.Product;
+import org.example.schema.SchemaRegistry;
+import org.example.schema.SchemaValidationResult;
 import org.example.services.ProductService;
+import org.example.stub.StubServer;
 import org.example.utils.ExtentManager;
+import org.example.utils.JsonUtils;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public class ProductTests extends BaseTest {
     private ProductService productService;
-    private final ThreadLocal<Product> testProduct = new ThreadLocal<>();
+    // Created by testCreateProduct for the get/update/delete chain - a field, not a ThreadLocal,
+    // as with parallel="methods" the dependents may run on other threads
+    private volatile Product createdProduct;
 
     @BeforeClass
     public void setupClass() {
@@ -20,16 +32,15 @@ public class ProductTests extends BaseTest {
 
     @Test(priority = 1, description = "Create a new product")
     public void testCreateProduct() {
+        // Exercises the create endpoint itself, so it builds its own product rather than taking a pooled one
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
 
         Product product = Product.builder()
-                .userId(12345L)
+                .userId(FixturePools.productOwnerId())
                 .title("Test Product " + Thread.currentThread().getId())
                 .body("This is a test product description")
                 .build();
 
-        testProduct.set(product);
-
         ExtentManager.getTest().info("Creating new product: " + product.getTitle());
 
         Response response = productService.createProduct(product);
@@ -37,18 +48,17 @@ public class ProductTests extends BaseTest {
         Assert.assertEquals(response.getStatusCode(), 201, "Status code mismatch");
 
         Product createdProduct = response.as(Product.class);
-        product.setId(createdProduct.getId());
 
         Assert.assertNotNull(createdProduct.getId(), "Product ID should not be null");
+        product.setId(createdProduct.getId());
+        this.createdProduct = product;
 
         ExtentManager.getTest().pass("Product created successfully with ID: " + createdProduct.getId());
-
-        testProduct.set(product);
     }
 
     @Test(priority = 2, description = "Get product by ID", dependsOnMethods = "testCreateProduct")
     public void testGetProduct() {
-        Product product = testProduct.get();
+        Product product = createdProduct;
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Fetching product with ID: " + product.getId());
 
@@ -64,7 +74,7 @@ public class ProductTests extends BaseTest {
 
     @Test(priority = 3, description = "Update product", dependsOnMethods = "testCreateProduct")
     public void testUpdateProduct() {
-        Product product = testProduct.get();
+        Product product = createdProduct;
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Updating product with ID: " + product.getId());
 
@@ -83,7 +93,7 @@ public class ProductTests extends BaseTest {
 
     @Test(priority = 4, description = "Delete product", dependsOnMethods = {"testGetProduct", "testUpdateProduct"})
     public void testDeleteProduct() {
-        Product product = testProduct.get();
+        Product product = createdProduct;
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Deleting product with ID: " + product.getId());
 
@@ -92,23 +102,22 @@ public class ProductTests extends BaseTest {
         Assert.assertEquals(response.getStatusCode(), 204);
 
         ExtentManager.getTest().pass("Product deleted successfully");
-
-        // Cleanup ThreadLocal
-        testProduct.remove();
     }
 
     @Test(priority = 5, description = "Get all products - Independent test")
     public void testGetAllProducts() {
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Fetching all products");
+        // An independent read - a pooled fixture guarantees the list is not empty
+        FixturePools.products().acquire();
 
         Response response = productService.getAllProducts();
 
         Assert.assertEquals(response.getStatusCode(), 200);
-        Assert.assertTrue(response.jsonPath().getList("$").size() > 0);
+        int count = JsonUtils.countArrayElements(response);
+        Assert.assertTrue(count > 0);
 
-        ExtentManager.getTest().pass("All products fetched successfully. Count: " +
-                response.jsonPath().getList("$").size());
+        ExtentManager.getTest().pass("All products fetched successfully. Count: " + count);
     }
 
     @Test(priority = 6, description = "Verify product schema validation")
@@ -116,21 +125,38 @@ public class ProductTests extends BaseTest {
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Validating product response schema");
 
+        // getAllProducts() already fails on a violation; validate again for the per-element summary
         Response response = productService.getAllProducts();
 
         Assert.assertEquals(response.getStatusCode(), 200);
 
-        // Validate response structure
-        Assert.assertNotNull(response.jsonPath().getList("$"));
+        SchemaValidationResult result = SchemaRegistry.forResource("schemas/product.json")
+                .validate(response.asInputStream());
+        Assert.assertTrue(result.isValid(), result.describe());
+
+        ExtentManager.getTest().pass("Product schema validation passed - " + result.describe());
+    }
+
+    @Test(priority = 7, description = "Stream every page of products")
+    public void testStreamAllProducts() {
+        ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
+        ExtentManager.getTest().info("Streaming all products across pages");
+        Product fixture = FixturePools.products().acquire();
+
+        List<Long> ids;
+        try (Stream<Product> products = productService.streamAllProducts()) {
+            ids = products.map(Product::getId).collect(Collectors.toList());
+        }
 
-        // Validate first product has required fields
-        if (response.jsonPath().getList("$").size() > 0) {
-            Assert.assertNotNull(response.jsonPath().get("[0].id"));
-            Assert.assertNotNull(response.jsonPath().get("[0].user_id"));
-            Assert.assertNotNull(response.jsonPath().get("[0].title"));
-            Assert.assertNotNull(response.jsonPath().get("[0].body"));
+        Assert.assertFalse(ids.isEmpty());
+        Assert.assertFalse(ids.contains(null), "Product without id");
+        Assert.assertTrue(ids.contains(fixture.getId()), "Pooled product " + fixture.getId() + " not streamed");
+        // Only the stub lists in a stable order: the live API lists newest first, so products
+        // created by parallel tests while the pages are fetched shift later pages and repeat ids
+        if (StubServer.isEmbeddedEnabled()) {
+            Assert.assertEquals(new HashSet<>(ids).size(), ids.size(), "Products repeated across pages");
         }
 
-        ExtentManager.getTest().pass("Product schema validation passed");
+        ExtentManager.getTest().pass("All products streamed successfully. Count: " + ids.size());
     }
 }
@@ -1,9 +1,11 @@
 package org.example.haidar;
 
 import io.restassured.response.Response;
+import org.example.fixtures.FixturePools;
 import org.example.models.User;
 import org.example.services.UserService;
 import org.example.utils.ExtentManager;
+import org.example.utils.JsonUtils;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -11,7 +13,9 @@ import org.testng.annotations.Test;
 public class UserTests extends BaseTest {
 
     private UserService userService;
-    private final ThreadLocal<User> testUser = new ThreadLocal<>();
+    // Created by testCreateUser for the get/update/delete chain - a field, not a ThreadLocal,
+    // as with parallel="methods" the dependents may run on other threads
+    private volatile User createdUser;
 
     @BeforeClass
     public void setupClass() {
@@ -21,7 +25,7 @@ public class UserTests extends BaseTest {
 
     @Test(priority = 1, description = "Create a new user")
     public void testCreateUser() {
-
+        // Exercises the create endpoint itself, so it builds its own user rather than taking a pooled one
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
 
         User user = User.builder()
@@ -31,30 +35,26 @@ public class UserTests extends BaseTest {
                 .status("active")
                 .build();
 
-        testUser.set(user);
-
         ExtentManager.getTest().info("Creating new user: " + user.getName());
 
-        Response response = userService.createUser(testUser.get());
+        Response response = userService.createUser(user);
 
         Assert.assertEquals(response.getStatusCode(), 201, "Status code mismatch");
 
         User createdUser = response.as(User.class);
-        testUser.get().setId(createdUser.getId());
 
         Assert.assertNotNull(createdUser.getId(), "User ID should not be null");
         Assert.assertEquals(createdUser.getName(), user.getName());
+        user.setId(createdUser.getId());
+        this.createdUser = user;
 
         ExtentManager.getTest().pass("User created successfully with ID: " + createdUser.getId());
-
-        // Store for dependent tests
-        testUser.set(user);
     }
 
     @Test(priority = 2, description = "Get user by ID", dependsOnMethods = "testCreateUser", enabled = false)
     public void testGetUser() {
 
-        User user = testUser.get();
+        User user = createdUser;
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Fetching user with ID: " + user.getId());
 
@@ -71,7 +71,7 @@ public class UserTests extends BaseTest {
 
     @Test(priority = 3, description = "Update user", dependsOnMethods = "testCreateUser", enabled = false)
     public void testUpdateUser() {
-        User user = testUser.get();
+        User user = createdUser;
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Updating user with ID: " + user.getId());
 
@@ -88,7 +88,7 @@ public class UserTests extends BaseTest {
 
     @Test(priority = 4, description = "Delete user", dependsOnMethods = {"testGetUser", "testUpdateUser"}, enabled = false)
     public void testDeleteUser() {
-        User user = testUser.get();
+        User user = createdUser;
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Deleting user with ID: " + user.getId());
 
@@ -97,23 +97,22 @@ public class UserTests extends BaseTest {
         Assert.assertEquals(response.getStatusCode(), 204);
 
         ExtentManager.getTest().pass("User deleted successfully");
-
-        // Cleanup ThreadLocal
-        testUser.remove();
     }
 
     @Test(priority = 5, description = "Get all users - Independent test for parallel execution", enabled = false)
     public void testGetAllUsers() {
         ExtentManager.getTest().info("Thread ID: " + Thread.currentThread().getId());
         ExtentManager.getTest().info("Fetching all users");
+        // An independent read - a pooled fixture guarantees the list is not empty
+        FixturePools.users().acquire();
 
         Response response = userService.getAllUsers();
 
         Assert.assertEquals(response.getStatusCode(), 200);
-        Assert.assertFalse(response.jsonPath().getList("$").isEmpty());
+        int count = JsonUtils.countArrayElements(response);
+        Assert.assertTrue(count > 0);
 
-        ExtentManager.getTest().pass("All users fetched successfully. Count: " +
-                response.jsonPath().getList("$").size());
+        ExtentManager.getTest().pass("All users fetched successfully. Count: " + count);
     }
 
     @Test(priority = 6, description = "Search users by status - Independent test", enabled = false)
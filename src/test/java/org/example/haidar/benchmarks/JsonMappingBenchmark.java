@@ -0,0 +1,88 @@
+package org.example.haidar.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.models.Product;
+import org.example.models.User;
+import org.example.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize/deserialize cost for the request models:
+ * fresh mapper per test (previous ThreadLocal + removeThreadLocalMapper behaviour), a shared mapper
+ * with INDENT_OUTPUT, and JsonUtils (shared, pre-warmed readers/writers, Blackbird, compact output).
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JsonMappingBenchmark
+ * Add -Djson.blackbird=false to the JMH JVM args to compare against reflection accessors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonMappingBenchmark {
+
+    private final ObjectMapper indentedMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private User user;
+    private Product product;
+    private String userJson;
+    private String productJson;
+
+    @Setup
+    public void createPayloads() {
+        user = User.builder()
+                .id(6543210L)
+                .name("Benchmark User")
+                .email("benchmark.user@example.com")
+                .gender("female")
+                .status("active")
+                .build();
+        product = Product.builder()
+                .id(123456L)
+                .userId(6543210L)
+                .title("Benchmark product")
+                .body("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(8))
+                .build();
+        userJson = JsonUtils.serialize(user);
+        productJson = JsonUtils.serialize(product);
+    }
+
+    @Benchmark
+    public String serializeFreshMapper() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        return mapper.writeValueAsString(user) + mapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public String serializeIndentedMapper() throws IOException {
+        return indentedMapper.writeValueAsString(user) + indentedMapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public String serializeJsonUtils() {
+        return JsonUtils.serialize(user) + JsonUtils.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserializeFreshMapper() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.readValue(userJson, User.class);
+        return mapper.readValue(productJson, Product.class);
+    }
+
+    @Benchmark
+    public Object deserializeSharedMapper() throws IOException {
+        indentedMapper.readValue(userJson, User.class);
+        return indentedMapper.readValue(productJson, Product.class);
+    }
+
+    @Benchmark
+    public Object deserializeJsonUtils() {
+        JsonUtils.deserialize(userJson, User.class);
+        return JsonUtils.deserialize(productJson, Product.class);
+    }
+}
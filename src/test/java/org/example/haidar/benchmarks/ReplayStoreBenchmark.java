@@ -0,0 +1,96 @@
+package org.example.haidar.benchmarks;
+
+import org.example.replay.RecordedResponse;
+import org.example.replay.ReplayStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Replay store lookups over a 10k-request session with ~1 KB bodies, plus reopening the
+ * store from its index file.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ReplayStoreBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayStoreBenchmark {
+
+    private static final int SESSION_SIZE = 10_000;
+
+    private Path directory;
+    // Same files, reopened by reopenFromIndex - the open store holds the lock on directory
+    private Path copy;
+    private ReplayStore store;
+    private String[] keys;
+
+    @Setup
+    public void recordSession() throws IOException {
+        directory = Files.createTempDirectory("replay-benchmark");
+        keys = new String[SESSION_SIZE];
+        byte[] body = ("{\"id\":1,\"name\":\"Benchmark User\",\"bio\":\"" + "x".repeat(1000) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        try (ReplayStore recording = new ReplayStore(directory)) {
+            for (int i = 0; i < SESSION_SIZE; i++) {
+                keys[i] = "GET http://localhost:8089/public/v2/users?status=s" + i + " auth=-";
+                recording.put(RecordedResponse.builder()
+                        .key(keys[i])
+                        .statusCode(200)
+                        .statusLine("HTTP/1.1 200 OK")
+                        .headers(Map.of("Content-Type", "application/json; charset=utf-8"))
+                        .body(body)
+                        .recordedAtMillis(System.currentTimeMillis())
+                        .build());
+            }
+        }
+        copy = Files.createTempDirectory("replay-benchmark-copy");
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        store = new ReplayStore(directory, true);
+    }
+
+    @TearDown
+    public void deleteSession() throws IOException {
+        store.close();
+        for (Path dir : new Path[] {directory, copy}) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public RecordedResponse lookupHit() {
+        return store.get(keys[ThreadLocalRandom.current().nextInt(SESSION_SIZE)]);
+    }
+
+    @Benchmark
+    public RecordedResponse lookupMiss() {
+        return store.get("GET http://localhost:8089/public/v2/users?status=missing auth=-");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public int reopenFromIndex() {
+        try (ReplayStore reopened = new ReplayStore(copy, true)) {
+            return reopened.size();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.haidar.benchmarks;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.example.client.MemoizedResponse;
+import org.example.models.Product;
+import org.example.stub.StubServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a typical assertion block - several jsonPath() lookups plus as(Product.class) on one response:
+ * plain REST Assured response (parses on every call) vs MemoizedResponse (parses once).
+ * The response is fetched once from an in-process stub, so only parsing is measured:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ResponseParsingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseParsingBenchmark {
+
+    private StubServer stub;
+    private Response response;
+
+    @Setup
+    public void fetchResponse() {
+        stub = new StubServer(18089).start();
+        Product product = Product.builder()
+                .userId(42L)
+                .title("Benchmark product")
+                .body("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(8))
+                .build();
+        response = RestAssured.given()
+                .baseUri(stub.getBaseUrl())
+                .contentType(ContentType.JSON)
+                .body(product)
+                .post("/public/v2/posts");
+    }
+
+    @TearDown
+    public void stopStub() {
+        stub.stop();
+    }
+
+    @Benchmark
+    public void plainResponse(Blackhole blackhole) {
+        assertionBlock(response, blackhole);
+    }
+
+    /*
+     * A fresh wrapper per invocation, so the one-off parse is included in the cost
+     */
+    @Benchmark
+    public void memoizedResponse(Blackhole blackhole) {
+        assertionBlock(MemoizedResponse.wrap(response), blackhole);
+    }
+
+    private static void assertionBlock(Response response, Blackhole blackhole) {
+        blackhole.consume(response.jsonPath().getLong("id"));
+        blackhole.consume(response.jsonPath().getString("title"));
+        blackhole.consume(response.jsonPath().getLong("user_id"));
+        blackhole.consume(response.jsonPath().getString("body"));
+        blackhole.consume(response.as(Product.class));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.haidar.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.example.models.Product;
+import org.example.schema.CompiledSchema;
+import org.example.schema.SchemaRegistry;
+import org.example.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating one page of a list response against the product schema, per page size:
+ * the cached CompiledSchema streaming element by element, REST Assured's matchesJsonSchema approach
+ * (parse and compile the schema, then validate the whole tree against an array schema - on every
+ * call), and the required-fields check it replaces as a baseline. Divide by pageSize for the cost
+ * per validated element:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SchemaValidationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaValidationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    private byte[] page;
+    private CompiledSchema compiled;
+    private JsonNode arraySchema;
+
+    @Setup
+    public void buildPage() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= pageSize; i++) {
+            products.add(Product.builder()
+                    .id((long) i)
+                    .userId(1000L + i % 50)
+                    .title("Benchmark product " + i)
+                    .body("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(4))
+                    .build());
+        }
+        page = JsonUtils.getMapper().writeValueAsBytes(products);
+        compiled = SchemaRegistry.forResource("schemas/product.json");
+
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("schemas/product.json")) {
+            JsonNode element = JsonUtils.getMapper().readTree(in);
+            ObjectNode schema = JsonUtils.getMapper().createObjectNode();
+            schema.put("type", "array");
+            schema.set("items", element);
+            arraySchema = schema;
+        }
+    }
+
+    @Benchmark
+    public Object compiledStreaming() {
+        return compiled.validate(new ByteArrayInputStream(page));
+    }
+
+    @Benchmark
+    public Object compilePerCallWholeTree() throws Exception {
+        JsonSchema schema = JsonSchemaFactory.byDefault().getJsonSchema(arraySchema);
+        return schema.validate(JsonUtils.getMapper().readTree(page), true);
+    }
+
+    @Benchmark
+    public Object requiredFieldsOnly() {
+        return JsonUtils.findMissingFields(new ByteArrayInputStream(page), "id", "user_id", "title", "body");
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.haidar.benchmarks;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import org.example.client.SpecBuilder;
+import org.example.utils.ConfigReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spec acquisition cost per test: rebuilding specs (previous behaviour) vs the shared spec cache.
+ * Run from the project root so the config file resolves:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SpecAcquisitionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecAcquisitionBenchmark {
+
+    @Setup
+    public void warmCache() {
+        SpecBuilder.getRequestSpec();
+        SpecBuilder.getResponseSpec();
+    }
+
+    /*
+     * Previous behaviour: resetSpecs() rebuilt both specs for every test method
+     */
+    @Benchmark
+    public ResponseSpecification rebuildSpecs() {
+        RequestSpecification requestSpec = new RequestSpecBuilder()
+                .setBaseUri(ConfigReader.getInstance().getBaseUrl())
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON)
+                .addHeader("Authorization", "Bearer " + ConfigReader.getInstance().getAuthToken())
+                .log(LogDetail.ALL)
+                .build();
+
+        RestAssured.given().spec(requestSpec);
+
+        return new ResponseSpecBuilder()
+                .expectStatusCode(201)
+                .log(LogDetail.ALL)
+                .build();
+    }
+
+    /*
+     * Cached behaviour: shared specs plus a per-request copy
+     */
+    @Benchmark
+    public ResponseSpecification cachedSpecs() {
+        SpecBuilder.resetSpecs();
+        SpecBuilder.newRequest();
+        return SpecBuilder.getResponseSpecWithStatus(201);
+    }
+}
@@ -0,0 +1,219 @@
+package org.example.pagination;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.example.client.StoredResponses;
+import org.example.models.User;
+import org.example.stub.StubBehavior;
+import org.example.stub.StubServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class PagedIteratorTest {
+
+    private static final String USERS = "/public/v2/users";
+
+    private StubServer stub;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeClass
+    public void startStub() {
+        stub = new StubServer(18092).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        stub.stop();
+        Pagination.reset();
+    }
+
+    @BeforeMethod
+    public void resetStub() {
+        stub.clear();
+        stub.setBehavior(StubBehavior.none());
+        ids.clear();
+        Pagination.reset();
+    }
+
+    @Test
+    public void testScanWithHeadersReadsEveryPageInOrder() {
+        createUsers(23);
+        RecordingRequest request = new RecordingRequest(false);
+        List<Long> scanned = new ArrayList<>();
+        try (PagedIterator<User> users = new PagedIterator<>("headers", request, User.class, 5, 2)) {
+            users.forEachRemaining(user -> scanned.add(user.getId()));
+            assertEquals(users.getTotalPages(), 5);
+        }
+
+        assertEquals(scanned, ids);
+        assertEquals(request.pages, List.of(1, 2, 3, 4, 5));
+        PaginationStats stats = stats("headers");
+        assertEquals(stats.getPages(), 5);
+        assertEquals(stats.getItems(), 23);
+        assertTrue(stats.getMaxInFlight() <= 2, "maxInFlight " + stats.getMaxInFlight());
+        assertEquals(stats.getMaxInFlight(), 2);
+    }
+
+    @Test
+    public void testRequestsStayWithinPrefetchOfConsumer() {
+        createUsers(40);
+        RecordingRequest request = new RecordingRequest(false);
+        request.perPage = 4;
+        request.prefetch = 3;
+        try (PagedIterator<User> users = new PagedIterator<>("window", request, User.class, 4, 3)) {
+            while (users.hasNext()) {
+                users.next();
+                request.consumed++;
+            }
+        }
+
+        assertEquals(request.pages.size(), 10);
+        assertTrue(request.violations.isEmpty(), "Requested ahead of the window: " + request.violations);
+        assertTrue(stats("window").getMaxInFlight() <= 3);
+    }
+
+    @Test
+    public void testWithoutHeadersStopsAtShortPage() {
+        createUsers(13);
+        RecordingRequest request = new RecordingRequest(true);
+        List<Long> scanned = new ArrayList<>();
+        try (PagedIterator<User> users = new PagedIterator<>("short", request, User.class, 5, 4)) {
+            users.forEachRemaining(user -> scanned.add(user.getId()));
+            assertEquals(users.getTotalPages(), -1);
+        }
+
+        assertEquals(scanned, ids);
+        // Pages are requested one at a time and page 3 is short, so there is no page 4
+        assertEquals(request.pages, List.of(1, 2, 3));
+        assertEquals(stats("short").getMaxInFlight(), 0);
+    }
+
+    @Test
+    public void testWithoutHeadersStopsAtEmptyPage() {
+        createUsers(10);
+        RecordingRequest request = new RecordingRequest(true);
+        List<Long> scanned = new ArrayList<>();
+        try (PagedIterator<User> users = new PagedIterator<>("empty", request, User.class, 5, 4)) {
+            users.forEachRemaining(user -> scanned.add(user.getId()));
+        }
+
+        assertEquals(scanned, ids);
+        assertEquals(request.pages, List.of(1, 2, 3));
+    }
+
+    @Test
+    public void testCloseCancelsPagesInFlight() {
+        createUsers(30);
+        stub.setBehavior(StubBehavior.builder().latencyMs(200).build());
+        RecordingRequest request = new RecordingRequest(false);
+        PagedIterator<User> users = new PagedIterator<>("closed", request, User.class, 5, 3);
+        assertEquals(users.next().getId(), ids.get(0));
+        users.close();
+
+        assertEquals(request.pages, List.of(1, 2, 3, 4));
+        for (CompletableFuture<Response> page : request.futures.subList(1, 4)) {
+            assertTrue(page.isCancelled(), "Pages prefetched before close must be cancelled");
+        }
+        assertFalse(users.hasNext());
+        assertEquals(stats("closed").getPages(), 1);
+        assertEquals(stats("closed").getItems(), 1);
+    }
+
+    @Test
+    public void testNon200PageFails() {
+        createUsers(30);
+        RecordingRequest request = new RecordingRequest(false);
+        request.failingPage = 3;
+        List<Long> scanned = new ArrayList<>();
+        PagedIterator<User> users = new PagedIterator<>("failing", request, User.class, 5, 4);
+
+        RuntimeException error = expectThrows(RuntimeException.class,
+                () -> users.forEachRemaining(user -> scanned.add(user.getId())));
+
+        assertTrue(error.getMessage().startsWith("Page 3 of failing returned status 404"), error.getMessage());
+        assertEquals(scanned, ids.subList(0, 10));
+        assertEquals(request.pages, List.of(1, 2, 3, 4, 5, 6));
+        assertFalse(users.hasNext());
+    }
+
+    private void createUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("name", "User " + i);
+            user.put("email", "user" + i + "@example.com");
+            user.put("gender", "male");
+            user.put("status", "active");
+            Response created = RestAssured.given().baseUri(stub.getBaseUrl())
+                    .contentType(ContentType.JSON).body(user).post(USERS);
+            assertEquals(created.getStatusCode(), 201);
+            ids.add(created.jsonPath().getLong("id"));
+        }
+    }
+
+    private static PaginationStats stats(String endpoint) {
+        return Pagination.getStats().stream()
+                .filter(stats -> stats.getEndpoint().equals(endpoint))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /*
+     * Fetches pages from the stub asynchronously and records what was asked for
+     */
+    private final class RecordingRequest implements PageRequest {
+        private final boolean stripHeaders;
+        private final List<Integer> pages = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<Response>> futures = new CopyOnWriteArrayList<>();
+        private final List<Integer> violations = new CopyOnWriteArrayList<>();
+        // Items the test has consumed, to check the prefetch window; with perPage and prefetch set
+        private volatile int consumed;
+        private int perPage;
+        private int prefetch;
+        private int failingPage = -1;
+
+        private RecordingRequest(boolean stripHeaders) {
+            this.stripHeaders = stripHeaders;
+        }
+
+        @Override
+        public CompletableFuture<Response> fetch(int page, int perPage) {
+            pages.add(page);
+            if (prefetch > 0 && page > consumed / this.perPage + 1 + prefetch) {
+                violations.add(page);
+            }
+            String path = page == failingPage ? USERS + "/0" : USERS;
+            CompletableFuture<Response> future = CompletableFuture.supplyAsync(() -> {
+                Response response = RestAssured.given().baseUri(stub.getBaseUrl())
+                        .queryParam("page", page)
+                        .queryParam("per_page", perPage)
+                        .get(path);
+                if (!stripHeaders) {
+                    return response;
+                }
+                Map<String, String> headers = StoredResponses.headersOf(response);
+                // The JDK server sends them as X-pagination-*
+                headers.keySet().removeIf(name -> name.toLowerCase(Locale.ROOT).startsWith("x-pagination-"));
+                return StoredResponses.toResponse(response.getStatusCode(), response.getStatusLine(), headers,
+                        response.asByteArray());
+            });
+            futures.add(future);
+            return future;
+        }
+    }
+}
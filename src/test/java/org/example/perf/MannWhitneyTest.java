@@ -0,0 +1,80 @@
+package org.example.perf;
+
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class MannWhitneyTest {
+
+    // Expected values from the textbook definition: U counts the pairs where current is larger,
+    // ties counting one half, with the tie-corrected variance and a continuity correction of 0.5
+    private static final double DELTA = 1e-6;
+
+    @Test
+    public void testSmallSamples() {
+        // U = 9 of 9 pairs, z = 1.7457
+        assertEquals(MannWhitney.pValueSlower(histogram(4, 5, 6), histogram(1, 2, 3)), 0.0404278, DELTA);
+        // U = 0, z = -2.1822
+        assertEquals(MannWhitney.pValueSlower(histogram(1, 2, 3), histogram(4, 5, 6)), 0.9854518, DELTA);
+        // Interleaved: U = 36 of 64, z = 0.3676
+        assertEquals(MannWhitney.pValueSlower(histogram(10, 20, 30, 40, 50, 60, 70, 80),
+                histogram(5, 15, 25, 35, 45, 55, 65, 75)), 0.3565956, DELTA);
+    }
+
+    @Test
+    public void testTies() {
+        // U = 7 of 20 pairs with ties at 2 and 3, z = -0.8874
+        assertEquals(MannWhitney.pValueSlower(histogram(1, 2, 2, 3, 5), histogram(2, 3, 3, 4)), 0.8125714, DELTA);
+    }
+
+    @Test
+    public void testIdenticalHistograms() {
+        Histogram spread = new Histogram(3);
+        for (int i = 1; i <= 200; i++) {
+            spread.recordValue(1000 + i * 37L);
+        }
+        // U is exactly its mean, only the continuity correction moves p above one half
+        double p = MannWhitney.pValueSlower(spread, spread.copy());
+        assertTrue(p > 0.5 && p < 0.51, "p " + p);
+
+        // All values tied: no variance, no evidence either way
+        assertEquals(MannWhitney.pValueSlower(histogram(7, 7, 7), histogram(7, 7)), 1.0);
+    }
+
+    @Test
+    public void testClearlySlowerAndClearlyFaster() {
+        Histogram baseline = new Histogram(3);
+        Histogram slower = new Histogram(3);
+        for (int i = 0; i < 100; i++) {
+            baseline.recordValue(10_000 + i * 10L);
+            slower.recordValue(12_000 + i * 10L);
+        }
+        assertTrue(MannWhitney.pValueSlower(slower, baseline) < 1e-20);
+        assertTrue(MannWhitney.pValueSlower(baseline, slower) > 1 - 1e-9);
+    }
+
+    @Test
+    public void testEmptySide() {
+        assertEquals(MannWhitney.pValueSlower(new Histogram(3), histogram(1, 2)), 1.0);
+        assertEquals(MannWhitney.pValueSlower(histogram(1, 2), new Histogram(3)), 1.0);
+    }
+
+    @Test
+    public void testUpperTail() {
+        assertEquals(MannWhitney.upperTail(0), 0.5, 1e-7);
+        assertEquals(MannWhitney.upperTail(1.96), 0.0249979, DELTA);
+        assertEquals(MannWhitney.upperTail(-1.96), 0.9750021, DELTA);
+        assertEquals(MannWhitney.upperTail(3), 0.0013499, DELTA);
+        assertTrue(MannWhitney.upperTail(40) >= 0 && MannWhitney.upperTail(40) < 1e-300);
+    }
+
+    private static Histogram histogram(long... values) {
+        Histogram histogram = new Histogram(3);
+        for (long value : values) {
+            histogram.recordValue(value);
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.perf;
+
+import org.HdrHistogram.Histogram;
+import org.example.metrics.EndpointMetrics;
+import org.example.metrics.LatencyRecorder;
+import org.example.utils.ConfigReader;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class PerformanceGateTest {
+
+    private static final String USERS = "/public/v2/users";
+    private static final List<String> GATE_PROPERTIES = List.of(
+            "perf.gate.enabled", "perf.baseline.file", "perf.baseline.update");
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("performance-gate-test");
+        LatencyRecorder.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() throws IOException {
+        GATE_PROPERTIES.forEach(System::clearProperty);
+        ConfigReader.getInstance().reload();
+        LatencyRecorder.reset();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSlowerBeyondToleranceIsRegression() {
+        RegressionResult result = compareOne(metrics(10_000, 100), metrics(15_000, 100), 0.01, 10, 30);
+
+        assertEquals(result.getVerdict(), RegressionResult.Verdict.REGRESSION);
+        assertTrue(result.getPValue() < 1e-20, "p " + result.getPValue());
+        // p50 10.49 -> 15.49 ms
+        assertEquals(result.getP50ChangePercent(), 47.6, 0.1);
+        assertEquals(result.getBaselineCount(), 100);
+        assertEquals(result.getCurrentCount(), 100);
+    }
+
+    @Test
+    public void testToleranceIgnoresSmallShifts() {
+        // Every current sample is slower, so the shift is significant, but the median only moved 5%
+        EndpointBaseline baseline = baseline(metrics(10_000, 100));
+        EndpointMetrics current = metrics(10_500, 100);
+
+        RegressionResult tolerated = compareOne(baseline, current, 0.01, 10, 30);
+        assertEquals(tolerated.getVerdict(), RegressionResult.Verdict.PASS);
+        assertTrue(tolerated.getPValue() < 0.01);
+
+        assertEquals(compareOne(baseline, current, 0.01, 2, 30).getVerdict(), RegressionResult.Verdict.REGRESSION);
+    }
+
+    @Test
+    public void testAlphaDecidesSignificance() {
+        // The median moved by 20%, but a third of the samples are as fast as before
+        EndpointBaseline baseline = baseline(metrics(10_000, 40));
+        EndpointMetrics current = new EndpointMetrics("GET", USERS);
+        for (int i = 0; i < 40; i++) {
+            current.record(i < 15 ? 10_000 + i * 10L : 12_000 + i * 10L, 200, 0, 0);
+        }
+
+        RegressionResult result = compareOne(baseline, current, 0.01, 10, 30);
+        double p = result.getPValue();
+        assertEquals(result.getVerdict(), RegressionResult.Verdict.REGRESSION, "p " + p);
+        assertTrue(p > 0, "p " + p);
+        assertEquals(compareOne(baseline, current, p, 10, 30).getVerdict(), RegressionResult.Verdict.PASS,
+                "p must be strictly below alpha");
+    }
+
+    @Test
+    public void testFasterPasses() {
+        RegressionResult result = compareOne(metrics(15_000, 100), metrics(10_000, 100), 0.01, 10, 30);
+
+        assertEquals(result.getVerdict(), RegressionResult.Verdict.PASS);
+        assertTrue(result.getPValue() > 0.99);
+        assertTrue(result.getP50ChangePercent() < 0);
+    }
+
+    @Test
+    public void testTooFewSamples() {
+        RegressionResult fewCurrent = compareOne(metrics(10_000, 100), metrics(30_000, 29), 0.01, 10, 30);
+        assertEquals(fewCurrent.getVerdict(), RegressionResult.Verdict.INSUFFICIENT_SAMPLES);
+        assertEquals(fewCurrent.getPValue(), 1.0);
+
+        RegressionResult fewBaseline = compareOne(metrics(10_000, 29), metrics(30_000, 100), 0.01, 10, 30);
+        assertEquals(fewBaseline.getVerdict(), RegressionResult.Verdict.INSUFFICIENT_SAMPLES);
+
+        assertEquals(compareOne(metrics(10_000, 29), metrics(30_000, 29), 0.01, 10, 29).getVerdict(),
+                RegressionResult.Verdict.REGRESSION);
+    }
+
+    @Test
+    public void testEndpointsMissingOnEitherSide() {
+        EndpointMetrics both = metrics("GET", USERS, 10_000, 50);
+        EndpointMetrics onlyCurrent = metrics("POST", USERS, 10_000, 50);
+        EndpointMetrics onlyBaseline = metrics("DELETE", USERS + "/{id}", 10_000, 50);
+
+        List<RegressionResult> results = PerformanceGate.compare(
+                List.of(baseline(both), baseline(onlyBaseline)), List.of(onlyCurrent, both), 0.01, 10, 30);
+
+        assertEquals(results.stream().map(RegressionResult::getVerdict).collect(Collectors.toList()), List.of(
+                RegressionResult.Verdict.PASS, RegressionResult.Verdict.NEW_ENDPOINT,
+                RegressionResult.Verdict.NOT_RUN));
+        assertEquals(results.get(1).getCurrentCount(), 50);
+        assertEquals(results.get(2).getBaselineCount(), 50);
+    }
+
+    @Test
+    public void testGateDisabledDoesNothing() {
+        LatencyRecorder.record("GET", USERS, 10_000, 200, 0, 0);
+
+        assertFalse(PerformanceGate.isEnabled(), "perf.gate.enabled is off in the config");
+        assertTrue(PerformanceGate.run(directory.resolve("report.json").toString()).isEmpty());
+        assertFalse(Files.exists(directory.resolve("report.json")));
+    }
+
+    @Test
+    public void testMissingBaselineFileSkipsTheGate() {
+        LatencyRecorder.record("GET", USERS, 10_000, 200, 0, 0);
+        enableGate(directory.resolve("missing.json"), false);
+
+        assertTrue(PerformanceGate.run(directory.resolve("report.json").toString()).isEmpty());
+        assertFalse(Files.exists(directory.resolve("report.json")));
+    }
+
+    @Test
+    public void testUpdateThenGate() {
+        Path baselineFile = directory.resolve("baseline.json");
+        String report = directory.resolve("report.json").toString();
+        record(10_000, 100);
+        enableGate(baselineFile, true);
+        assertTrue(PerformanceGate.run(report).isEmpty());
+        assertEquals(PerformanceGate.loadBaseline(baselineFile.toString()).get(0).getCount(), 100);
+
+        LatencyRecorder.reset();
+        record(10_000, 100);
+        enableGate(baselineFile, false);
+        List<RegressionResult> unchanged = PerformanceGate.run(report);
+        assertEquals(unchanged.get(0).getVerdict(), RegressionResult.Verdict.PASS);
+        assertTrue(Files.exists(directory.resolve("report.json")));
+
+        LatencyRecorder.reset();
+        record(20_000, 100);
+        AssertionError error = expectThrows(AssertionError.class, () -> PerformanceGate.run(report));
+        assertTrue(error.getMessage().contains("GET " + USERS + " p50 10.0 -> 20.0 ms"), error.getMessage());
+    }
+
+    private static RegressionResult compareOne(EndpointMetrics baseline, EndpointMetrics current, double alpha,
+                                               double tolerancePercent, int minSamples) {
+        return compareOne(baseline(baseline), current, alpha, tolerancePercent, minSamples);
+    }
+
+    private static RegressionResult compareOne(EndpointBaseline baseline, EndpointMetrics current, double alpha,
+                                               double tolerancePercent, int minSamples) {
+        List<RegressionResult> results = PerformanceGate.compare(List.of(baseline), List.of(current), alpha,
+                tolerancePercent, minSamples);
+        assertEquals(results.size(), 1);
+        return results.get(0);
+    }
+
+    private static EndpointMetrics metrics(long fromMicros, int count) {
+        return metrics("GET", USERS, fromMicros, count);
+    }
+
+    /*
+     * count samples from fromMicros upwards, 10 us apart
+     */
+    private static EndpointMetrics metrics(String method, String endpoint, long fromMicros, int count) {
+        EndpointMetrics metrics = new EndpointMetrics(method, endpoint);
+        for (int i = 0; i < count; i++) {
+            metrics.record(fromMicros + i * 10L, 200, 0, 0);
+        }
+        return metrics;
+    }
+
+    private static void record(long fromMicros, int count) {
+        for (int i = 0; i < count; i++) {
+            LatencyRecorder.record("GET", USERS, fromMicros + (i % 10) * 10L, 200, 0, 0);
+        }
+    }
+
+    private static EndpointBaseline baseline(EndpointMetrics metrics) {
+        Histogram histogram = metrics.getHistogram();
+        return EndpointBaseline.builder()
+                .method(metrics.getMethod())
+                .endpoint(metrics.getEndpoint())
+                .count(histogram.getTotalCount())
+                .histogram(PerformanceGate.encode(histogram))
+                .build();
+    }
+
+    private static void enableGate(Path baselineFile, boolean update) {
+        System.setProperty("perf.gate.enabled", "true");
+        System.setProperty("perf.baseline.file", baselineFile.toString());
+        System.setProperty("perf.baseline.update", String.valueOf(update));
+        ConfigReader.getInstance().reload();
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.replay;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ReplayStoreTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("replay-store-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testPutGetRoundTrip() {
+        RecordedResponse response = response("GET /users/1", "{\"id\":1}");
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response);
+            assertEquals(store.get("GET /users/1"), response);
+            assertNull(store.get("GET /users/2"));
+        }
+        // Reopened from the index written on close
+        try (ReplayStore store = new ReplayStore(directory)) {
+            assertEquals(store.size(), 1);
+            assertEquals(store.get("GET /users/1"), response);
+        }
+    }
+
+    @Test
+    public void testLatestRecordWins() {
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response("GET /users/1", "{\"name\":\"old\"}"));
+            store.put(response("GET /users/1", "{\"name\":\"new\"}"));
+            assertEquals(store.size(), 1);
+            assertEquals(body(store.get("GET /users/1")), "{\"name\":\"new\"}");
+        }
+    }
+
+    @Test
+    public void testHashCollisionReturnsNull() throws IOException {
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response("GET /users/1", "{\"id\":1}"));
+        }
+        // Give the record the hash of another key, as a collision would; the rebuilt index then
+        // points that key at a record whose stored key does not match
+        try (FileChannel log = FileChannel.open(directory.resolve("responses.log"), StandardOpenOption.WRITE)) {
+            ByteBuffer hash = ByteBuffer.allocate(Long.BYTES).putLong(0, ReplayStore.hash("GET /users/2"));
+            log.write(hash, Integer.BYTES);
+        }
+        Files.delete(directory.resolve("responses.idx"));
+
+        try (ReplayStore store = new ReplayStore(directory)) {
+            assertEquals(store.size(), 1);
+            assertNull(store.get("GET /users/2"));
+            assertNull(store.get("GET /users/1"));
+        }
+    }
+
+    @Test
+    public void testTruncatedLastRecordIsDropped() throws IOException {
+        long firstRecordEnd;
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response("GET /users/1", "{\"id\":1}"));
+            firstRecordEnd = Files.size(directory.resolve("responses.log"));
+            store.put(response("GET /users/2", "{\"id\":2}"));
+        }
+        // A run killed mid-append: the last record is torn and the index no longer matches
+        try (FileChannel log = FileChannel.open(directory.resolve("responses.log"), StandardOpenOption.WRITE)) {
+            log.truncate(log.size() - 3);
+        }
+
+        try (ReplayStore store = new ReplayStore(directory)) {
+            assertEquals(store.size(), 1);
+            assertEquals(body(store.get("GET /users/1")), "{\"id\":1}");
+            assertNull(store.get("GET /users/2"));
+            assertEquals(Files.size(directory.resolve("responses.log")), firstRecordEnd);
+
+            // Appends continue after the last complete record
+            store.put(response("GET /users/3", "{\"id\":3}"));
+        }
+        try (ReplayStore store = new ReplayStore(directory)) {
+            assertEquals(store.size(), 2);
+            assertEquals(body(store.get("GET /users/3")), "{\"id\":3}");
+        }
+    }
+
+    @Test
+    public void testStaleIndexIsRebuilt() throws IOException {
+        Path indexFile = directory.resolve("responses.idx");
+        Path staleIndex = directory.resolve("stale.idx");
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response("GET /users/1", "{\"id\":1}"));
+        }
+        Files.copy(indexFile, staleIndex);
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response("GET /users/2", "{\"id\":2}"));
+        }
+        // Index of the first run next to the log of the second: its recorded log length is stale
+        Files.move(staleIndex, indexFile, StandardCopyOption.REPLACE_EXISTING);
+
+        try (ReplayStore store = new ReplayStore(directory)) {
+            assertEquals(store.size(), 2);
+            assertEquals(body(store.get("GET /users/1")), "{\"id\":1}");
+            assertEquals(body(store.get("GET /users/2")), "{\"id\":2}");
+        }
+    }
+
+    @Test
+    public void testLockedDirectoryFailsFast() {
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response("GET /users/1", "{\"id\":1}"));
+            IllegalStateException e = expectThrows(IllegalStateException.class, () -> new ReplayStore(directory));
+            assertTrue(e.getMessage().contains("locked by another run"), e.getMessage());
+            assertThrows(IllegalStateException.class, () -> new ReplayStore(directory, true));
+
+            // The failed opens left the first store working
+            store.put(response("GET /users/2", "{\"id\":2}"));
+        }
+        // The lock goes with the first store
+        try (ReplayStore store = new ReplayStore(directory)) {
+            assertEquals(store.size(), 2);
+        }
+    }
+
+    @Test
+    public void testReadOnlyStoreKeepsFilesUntouched() throws IOException {
+        try (ReplayStore store = new ReplayStore(directory)) {
+            store.put(response("GET /users/1", "{\"id\":1}"));
+            store.put(response("GET /users/2", "{\"id\":2}"));
+        }
+        Path logFile = directory.resolve("responses.log");
+        try (FileChannel log = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            log.truncate(log.size() - 3);
+        }
+        long tornLength = Files.size(logFile);
+        Files.delete(directory.resolve("responses.idx"));
+
+        try (ReplayStore store = new ReplayStore(directory, true)) {
+            assertEquals(store.size(), 1);
+            assertEquals(body(store.get("GET /users/1")), "{\"id\":1}");
+            assertThrows(IllegalStateException.class, () -> store.put(response("GET /users/3", "{}")));
+        }
+        assertEquals(Files.size(logFile), tornLength, "a read-only store does not cut the torn record");
+        assertTrue(Files.notExists(directory.resolve("responses.idx")), "nor write the index");
+    }
+
+    private static RecordedResponse response(String key, String body) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", "application/json; charset=utf-8");
+        headers.put("X-Pagination-Pages", "3");
+        return RecordedResponse.builder()
+                .key(key)
+                .statusCode(200)
+                .statusLine("HTTP/1.1 200 OK")
+                .headers(headers)
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .recordedAtMillis(1_700_000_000_000L)
+                .build();
+    }
+
+    private static String body(RecordedResponse response) {
+        assertNotNull(response);
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
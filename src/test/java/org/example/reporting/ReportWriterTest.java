@@ -0,0 +1,165 @@
+package org.example.reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.NamedAttribute;
+import org.example.utils.ConfigReader;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ReportWriterTest {
+
+    private static final List<String> REPORT_PROPERTIES = List.of("report.flush.interval.ms",
+            "report.max.logs.per.test", "report.max.log.chars", "report.detail.max.tests");
+
+    private Path directory;
+    private Path eventsFile;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("report-writer-test");
+        eventsFile = directory.resolve("events.jsonl");
+        // Render only on close
+        configure(Map.of("report.flush.interval.ms", "0"));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() throws IOException {
+        REPORT_PROPERTIES.forEach(System::clearProperty);
+        ConfigReader.getInstance().reload();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testEventsReplayIntoTheSameTests() {
+        ExtentReports extent = new ExtentReports();
+        ReportWriter writer = new ReportWriter(extent, eventsFile.toString());
+        ReportTest first = writer.startTest("first", "creates a user");
+        first.assignCategory("users", "smoke");
+        first.info("Creating user");
+        first.pass("Created");
+        first.end();
+        ReportTest second = writer.startTest("second", null);
+        second.fail(new IllegalStateException("boom"));
+        second.end();
+        writer.close();
+
+        ExtentReports replayed = new ExtentReports();
+        assertEquals(ReportWriter.replay(eventsFile, replayed, "shard-1"), 2);
+
+        List<com.aventstack.extentreports.model.Test> original = tests(extent);
+        List<com.aventstack.extentreports.model.Test> copies = tests(replayed);
+        assertEquals(copies.size(), 2);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(copies.get(i).getName(), original.get(i).getName());
+            assertEquals(copies.get(i).getStatus(), original.get(i).getStatus());
+            assertEquals(copies.get(i).getStartTime(), original.get(i).getStartTime());
+            assertEquals(copies.get(i).getEndTime(), original.get(i).getEndTime());
+            assertEquals(names(copies.get(i).getDeviceSet()), List.of("shard-1"));
+        }
+        assertEquals(copies.get(0).getDescription(), "creates a user");
+        assertEquals(names(copies.get(0).getCategorySet()), List.of("smoke", "users"));
+        assertEquals(details(replayed, 0), List.of("Creating user", "Created"));
+        assertEquals(copies.get(1).getStatus(), Status.FAIL);
+        assertTrue(details(replayed, 1).get(0).contains("IllegalStateException: boom"));
+    }
+
+    @Test
+    public void testLogsAreCappedPerTest() throws IOException {
+        configure(Map.of("report.max.logs.per.test", "3", "report.max.log.chars", "10"));
+        ExtentReports extent = new ExtentReports();
+        ReportWriter writer = new ReportWriter(extent, eventsFile.toString());
+        ReportTest test = writer.startTest("chatty", null);
+        for (int i = 1; i <= 5; i++) {
+            test.info("line " + i);
+        }
+        test.warning("0123456789abcde");
+        test.end();
+        writer.close();
+
+        // Warnings are not counted against the info cap, only truncated
+        assertEquals(details(extent, 0), List.of("line 1", "line 2", "line 3",
+                "0123456789... (5 more chars)", "2 info lines omitted, see events.jsonl"));
+        // The events file keeps every line in full
+        List<String> lines = Files.readAllLines(eventsFile);
+        assertEquals(lines.size(), 8);
+        assertTrue(lines.get(6).contains("\"details\":\"0123456789abcde\""), lines.get(6));
+    }
+
+    @Test
+    public void testInfoTrimmedAfterDetailMaxTests() {
+        configure(Map.of("report.detail.max.tests", "1"));
+        ExtentReports extent = new ExtentReports();
+        ReportWriter writer = new ReportWriter(extent, eventsFile.toString());
+        for (String name : List.of("detailed", "trimmed")) {
+            ReportTest test = writer.startTest(name, null);
+            test.info("step 1");
+            test.info("step 2");
+            test.pass("done");
+            test.end();
+        }
+        ReportTest failed = writer.startTest("failed", null);
+        failed.info("step 1");
+        failed.fail("broken");
+        failed.end();
+        writer.close();
+
+        assertEquals(details(extent, 0), List.of("step 1", "step 2", "done"));
+        assertEquals(details(extent, 1), List.of("done", "2 info lines omitted, see events.jsonl"));
+        assertEquals(details(extent, 2), List.of("step 1", "broken"), "failed tests keep their details");
+    }
+
+    @Test
+    public void testCloseIsIdempotentAndDropsLateEvents() throws IOException {
+        ExtentReports extent = new ExtentReports();
+        ReportWriter writer = new ReportWriter(extent, eventsFile.toString());
+        ReportTest running = writer.startTest("running", null);
+        running.info("started");
+        writer.close();
+        writer.close();
+
+        List<String> lines = Files.readAllLines(eventsFile);
+        running.info("too late");
+        running.end();
+        writer.startTest("late", null).end();
+
+        assertEquals(Files.readAllLines(eventsFile), lines);
+        assertEquals(tests(extent).size(), 1);
+        assertEquals(details(extent, 0), List.of("started", "Run ended before the test finished"));
+        assertEquals(tests(extent).get(0).getStatus(), Status.WARNING);
+    }
+
+    private static void configure(Map<String, String> properties) {
+        properties.forEach(System::setProperty);
+        ConfigReader.getInstance().reload();
+    }
+
+    private static List<com.aventstack.extentreports.model.Test> tests(ExtentReports extent) {
+        return extent.getReport().getTestList();
+    }
+
+    private static List<String> details(ExtentReports extent, int test) {
+        return tests(extent).get(test).getLogs().stream().map(Log::getDetails).collect(Collectors.toList());
+    }
+
+    private static List<String> names(Set<? extends NamedAttribute> attributes) {
+        return attributes.stream().map(NamedAttribute::getName).sorted().collect(Collectors.toList());
+    }
+}
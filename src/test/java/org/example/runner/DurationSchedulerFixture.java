@@ -0,0 +1,25 @@
+package org.example.runner;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test methods scheduled by DurationSchedulerTest in a nested TestNG run; they take no time
+ */
+public class DurationSchedulerFixture {
+
+    @Test
+    public void independentShort() {
+    }
+
+    @Test
+    public void independentLong() {
+    }
+
+    @Test
+    public void chainStart() {
+    }
+
+    @Test(dependsOnMethods = "chainStart")
+    public void chainEnd() {
+    }
+}
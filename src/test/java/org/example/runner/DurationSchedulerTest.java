@@ -0,0 +1,124 @@
+package org.example.runner;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class DurationSchedulerTest {
+
+    private static final String FIXTURE = DurationSchedulerFixture.class.getName();
+
+    // Bottom levels: chainStart 200 + 400 = 600, independentLong 500, chainEnd 400, independentShort 100
+    private static final Map<String, Long> DURATIONS = Map.of(
+            key("chainStart"), 200L,
+            key("chainEnd"), 400L,
+            key("independentLong"), 500L,
+            key("independentShort"), 100L);
+
+    @BeforeMethod
+    @AfterMethod(alwaysRun = true)
+    public void resetSchedules() {
+        DurationScheduler.reset();
+    }
+
+    @Test
+    public void testOrderedByBottomLevel() {
+        List<String> order = schedule(new DurationScheduler(DURATIONS), 2);
+
+        assertEquals(order, List.of("chainStart", "independentLong", "chainEnd", "independentShort"));
+    }
+
+    @Test
+    public void testSimulatedMakespan() {
+        schedule(new DurationScheduler(DURATIONS), 2);
+
+        ScheduleStats stats = DurationScheduler.getSchedules().get(0);
+        assertEquals(stats.getMethods(), 4);
+        assertEquals(stats.getThreads(), 2);
+        assertEquals(stats.getTotalWorkMs(), 1200);
+        assertEquals(stats.getCriticalPathMs(), 600);
+        assertEquals(stats.getUnknownDurations(), 0);
+        // chainStart and independentLong start together; chainEnd follows chainStart at 200 ms and
+        // independentShort takes the other thread at 500 ms - both end at 600 ms
+        assertEquals(stats.getPredictedMakespanMs(), 600);
+        assertTrue(stats.getPredictedMakespanMs() <= stats.getPriorityOrderMakespanMs());
+    }
+
+    @Test
+    public void testSingleThreadMakespanIsTotalWork() {
+        schedule(new DurationScheduler(DURATIONS), 1);
+
+        ScheduleStats stats = DurationScheduler.getSchedules().get(0);
+        assertEquals(stats.getPredictedMakespanMs(), 1200);
+        assertEquals(stats.getPriorityOrderMakespanMs(), 1200);
+    }
+
+    @Test
+    public void testUnknownMethodsGetHistoryMedian() {
+        // chainStart is not in the history: it weighs the median 400, so its chain is 800
+        Map<String, Long> partial = Map.of(key("chainEnd"), 400L, key("independentLong"), 500L,
+                key("independentShort"), 100L);
+        List<String> order = schedule(new DurationScheduler(partial), 2);
+
+        assertEquals(order, List.of("chainStart", "independentLong", "chainEnd", "independentShort"));
+        ScheduleStats stats = DurationScheduler.getSchedules().get(0);
+        assertEquals(stats.getUnknownDurations(), 1);
+        assertEquals(stats.getCriticalPathMs(), 800);
+    }
+
+    /*
+     * Run the fixture with parallel="methods" and return the order the scheduler gave TestNG.
+     * Only the interceptor and the per-<test> callbacks are registered, so the history file is not touched
+     */
+    private static List<String> schedule(DurationScheduler scheduler, int threads) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Scheduled");
+        XmlTest test = new XmlTest(suite);
+        test.setName("Fixture");
+        test.setParallel(XmlSuite.ParallelMode.METHODS);
+        test.setThreadCount(threads);
+        test.setXmlClasses(new ArrayList<>(List.of(new XmlClass(DurationSchedulerFixture.class))));
+
+        List<String> order = new ArrayList<>();
+        TestNG testng = new TestNG(false);
+        testng.setXmlSuites(List.of(suite));
+        testng.setVerbose(0);
+        testng.setUseDefaultListeners(false);
+        testng.addListener((IMethodInterceptor) (methods, context) -> {
+            List<IMethodInstance> ordered = scheduler.intercept(methods, context);
+            order.addAll(ordered.stream()
+                    .map(instance -> instance.getMethod().getMethodName())
+                    .collect(Collectors.toList()));
+            return ordered;
+        });
+        testng.addListener(new ITestListener() {
+            @Override
+            public void onFinish(ITestContext context) {
+                scheduler.onFinish(context);
+            }
+        });
+        testng.run();
+        assertEquals(testng.getStatus(), 0, "Fixture run failed");
+        return order;
+    }
+
+    private static String key(String method) {
+        return DurationHistory.key(FIXTURE, method);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.runner;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+
+public class ShardMergerTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("shard-merger-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testCountsAreSummedAndSuitesTagged() throws Exception {
+        Path shard1 = directory.resolve("shard-1");
+        Path shard2 = directory.resolve("shard-2");
+        // shard-1 holds one run per suite, shard-2 is a run directory itself
+        writeResults(shard1.resolve("api"), 4, 3, 1, 0, "API");
+        writeResults(shard1.resolve("load"), 2, 2, 0, 0, "Load");
+        writeResults(shard2, 5, 3, 1, 1, "API");
+        writeDurations(shard1.resolve("api"), "{\"A#a\": 100, \"A#b\": 300}");
+        writeDurations(shard2, "{\"A#a\": 250, \"B#c\": 50}");
+
+        Map<String, Integer> counts = ShardMerger.merge(List.of(shard1, shard2), directory.resolve("merged"));
+
+        assertEquals(counts, Map.of("total", 11, "passed", 8, "failed", 2, "skipped", 1, "ignored", 0));
+        Element merged = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(directory.resolve("merged/testng-results.xml").toFile()).getDocumentElement();
+        assertEquals(merged.getAttribute("total"), "11");
+        assertEquals(merged.getAttribute("failed"), "2");
+        NodeList suites = merged.getElementsByTagName("suite");
+        assertEquals(suites.getLength(), 3);
+        assertEquals(((Element) suites.item(0)).getAttribute("name"), "API");
+        assertEquals(((Element) suites.item(0)).getAttribute("shard"), "shard-1");
+        assertEquals(((Element) suites.item(1)).getAttribute("name"), "Load");
+        assertEquals(((Element) suites.item(2)).getAttribute("shard"), "shard-2");
+
+        // The longest duration of a method wins
+        assertEquals(DurationHistory.load(directory.resolve("merged/durations.json").toString()),
+                Map.of("A#a", 250L, "A#b", 300L, "B#c", 50L));
+    }
+
+    @Test
+    public void testMissingResultsStillMerge() throws Exception {
+        Path shard1 = directory.resolve("shard-1");
+        Path shard2 = directory.resolve("shard-2");
+        writeResults(shard1, 3, 3, 0, 0, "API");
+        writeDurations(shard2, "{\"A#a\": 100}");
+
+        Map<String, Integer> counts = ShardMerger.merge(List.of(shard1, shard2), directory.resolve("merged"));
+
+        assertEquals(counts.get("total"), Integer.valueOf(3));
+        assertEquals(counts.get("passed"), Integer.valueOf(3));
+        assertEquals(DurationHistory.load(directory.resolve("merged/durations.json").toString()),
+                Map.of("A#a", 100L));
+    }
+
+    private static void writeResults(Path runDir, int total, int passed, int failed, int skipped, String suite)
+            throws IOException {
+        Path testng = Files.createDirectories(runDir.resolve("testng"));
+        Files.writeString(testng.resolve("testng-results.xml"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<testng-results ignored=\"0\" total=\"" + total + "\" passed=\"" + passed + "\" failed=\""
+                + failed + "\" skipped=\"" + skipped + "\">\n"
+                + "  <reporter-output/>\n"
+                + "  <suite name=\"" + suite + "\" duration-ms=\"10\"/>\n"
+                + "</testng-results>\n");
+    }
+
+    private static void writeDurations(Path runDir, String json) throws IOException {
+        Files.createDirectories(runDir);
+        Files.writeString(runDir.resolve("durations.json"), json);
+    }
+}
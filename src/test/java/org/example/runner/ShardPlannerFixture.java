@@ -0,0 +1,53 @@
+package org.example.runner;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test methods planned by ShardPlannerTest, never run
+ */
+public class ShardPlannerFixture {
+
+    @Test
+    public void m1() {
+    }
+
+    @Test
+    public void m2() {
+    }
+
+    @Test
+    public void m3() {
+    }
+
+    @Test
+    public void m4() {
+    }
+
+    @Test
+    public void m5() {
+    }
+
+    @Test
+    public void chainStart() {
+    }
+
+    @Test(dependsOnMethods = "chainStart")
+    public void chainEnd() {
+    }
+
+    @Test(groups = "setup")
+    public void groupMember() {
+    }
+
+    @Test(dependsOnGroups = "setup")
+    public void grouped() {
+    }
+
+    @Test(invocationCount = 3)
+    public void repeated() {
+    }
+
+    @Test(enabled = false)
+    public void disabled() {
+    }
+}
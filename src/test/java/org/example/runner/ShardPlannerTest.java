@@ -0,0 +1,127 @@
+package org.example.runner;
+
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class ShardPlannerTest {
+
+    private static final String FIXTURE = ShardPlannerFixture.class.getName();
+
+    private static final Map<String, Long> DURATIONS = Map.of(
+            key("m1"), 700L,
+            key("m2"), 500L,
+            key("m3"), 400L,
+            key("m4"), 300L,
+            key("m5"), 200L,
+            key("chainStart"), 100L,
+            key("chainEnd"), 150L,
+            key("grouped"), 60L,
+            key("groupMember"), 40L,
+            key("repeated"), 10L);
+
+    @Test
+    public void testLongestUnitsGoToLeastLoadedShard() {
+        List<List<ShardUnit>> shards = new ShardPlanner(DURATIONS).plan(List.of(suite()), 2);
+
+        // Sorted 700, 500, 400, 300, 250 (chain), 200, 100 (group), 30 (3 x 10), each to the lighter shard
+        assertEquals(methods(shards.get(0)), List.of("m1", "m4", "m5", "repeated"));
+        assertEquals(methods(shards.get(1)), List.of("m2", "m3", "chainEnd+chainStart", "groupMember+grouped"));
+        assertEquals(load(shards.get(0)), 1230);
+        assertEquals(load(shards.get(1)), 1250);
+    }
+
+    @Test
+    public void testDependentMethodsStayTogether() {
+        List<List<ShardUnit>> shards = new ShardPlanner(DURATIONS).plan(List.of(suite()), 4);
+
+        List<ShardUnit> units = shards.stream().flatMap(List::stream).collect(Collectors.toList());
+        ShardUnit chain = unitOf(units, "chainEnd");
+        assertEquals(chain.methods.get(FIXTURE), List.of("chainEnd", "chainStart"));
+        assertEquals(chain.weightMs, 250);
+        assertEquals(unitOf(units, "grouped").size(), 2);
+        assertEquals(unitOf(units, "repeated").weightMs, 30, "invocationCount multiplies the duration");
+        assertEquals(units.stream().mapToInt(ShardUnit::size).sum(), 10);
+    }
+
+    @Test
+    public void testPlanIsDeterministic() {
+        List<List<ShardUnit>> first = new ShardPlanner(DURATIONS).plan(List.of(suite()), 3);
+        List<List<ShardUnit>> second = new ShardPlanner(DURATIONS).plan(List.of(suite()), 3);
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    public void testUnknownMethodsGetHistoryMedian() {
+        // Median of the known durations (500, 700) is 700 - the upper middle
+        Map<String, Long> partial = Map.of(key("m1"), 700L, key("m2"), 500L);
+        List<ShardUnit> units = new ShardPlanner(partial).plan(List.of(suite()), 1).get(0);
+        assertEquals(unitOf(units, "m3").weightMs, 700);
+        assertEquals(unitOf(units, "repeated").weightMs, 2100);
+    }
+
+    @Test
+    public void testToSuitesKeepsOnlyGivenUnits() {
+        XmlSuite suite = suite();
+        List<List<ShardUnit>> shards = new ShardPlanner(DURATIONS).plan(List.of(suite), 2);
+
+        List<XmlSuite> sharded = ShardPlanner.toSuites(List.of(suite), shards.get(1));
+        assertEquals(sharded.size(), 1);
+        assertEquals(sharded.get(0).getParallel(), XmlSuite.ParallelMode.METHODS);
+        XmlTest test = sharded.get(0).getTests().get(0);
+        assertEquals(test.getName(), "Fixture");
+        List<String> included = test.getXmlClasses().get(0).getIncludedMethods().stream()
+                .map(XmlInclude::getName)
+                .collect(Collectors.toList());
+        assertEquals(included, List.of("m2", "m3", "chainEnd", "chainStart", "groupMember", "grouped"));
+
+        assertTrue(ShardPlanner.toSuites(List.of(suite), List.of()).isEmpty());
+    }
+
+    @Test
+    public void testShardCountMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardPlanner(DURATIONS).plan(List.of(suite()), 0));
+    }
+
+    private static XmlSuite suite() {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Sharded");
+        suite.setParallel(XmlSuite.ParallelMode.METHODS);
+        XmlTest test = new XmlTest(suite);
+        test.setName("Fixture");
+        test.setXmlClasses(new ArrayList<>(List.of(new XmlClass(ShardPlannerFixture.class))));
+        return suite;
+    }
+
+    private static String key(String method) {
+        return DurationHistory.key(FIXTURE, method);
+    }
+
+    private static ShardUnit unitOf(List<ShardUnit> units, String method) {
+        return units.stream()
+                .filter(unit -> unit.methods.get(FIXTURE).contains(method))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<String> methods(List<ShardUnit> shard) {
+        return shard.stream()
+                .map(unit -> unit.methods.get(FIXTURE).stream().sorted().collect(Collectors.joining("+")))
+                .collect(Collectors.toList());
+    }
+
+    private static long load(List<ShardUnit> shard) {
+        return shard.stream().mapToLong(unit -> unit.weightMs).sum();
+    }
+}
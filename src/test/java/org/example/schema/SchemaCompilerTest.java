@@ -0,0 +1,130 @@
+package org.example.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.example.utils.JsonUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class SchemaCompilerTest {
+
+    private static final String SCHEMA = "{"
+            + "\"$schema\": \"http://json-schema.org/draft-04/schema#\","
+            + "\"type\": \"object\","
+            + "\"required\": [\"id\", \"name\", \"status\"],"
+            + "\"additionalProperties\": false,"
+            + "\"properties\": {"
+            + "  \"id\": {\"type\": \"integer\", \"minimum\": 1},"
+            + "  \"name\": {\"type\": \"string\", \"minLength\": 2, \"maxLength\": 5},"
+            + "  \"email\": {\"type\": \"string\", \"pattern\": \"^[^@]+@[^@]+$\"},"
+            + "  \"status\": {\"enum\": [\"active\", \"inactive\"]},"
+            + "  \"score\": {\"type\": \"number\", \"maximum\": 10, \"exclusiveMaximum\": true},"
+            + "  \"tags\": {\"type\": \"array\", \"maxItems\": 2, \"items\": {\"type\": \"string\"}}"
+            + "}}";
+
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+
+    @Test
+    public void testRegisteredSchemasCompile() {
+        assertTrue(SchemaRegistry.forResource("schemas/user.json").isCompiled());
+        assertTrue(SchemaRegistry.forResource("schemas/product.json").isCompiled());
+    }
+
+    @Test
+    public void testUnsupportedKeywordFallsBack() throws IOException {
+        assertNull(SchemaCompiler.compile(json("{\"type\": \"string\", \"format\": \"email\"}")));
+        assertNull(SchemaCompiler.compile(json("{\"properties\": {\"a\": {\"$ref\": \"#\"}}}")));
+        assertNull(SchemaCompiler.compile(json("{\"items\": [{\"type\": \"string\"}]}")));
+        assertNotNull(SchemaCompiler.compile(json(SCHEMA)));
+    }
+
+    @Test
+    public void testMessages() throws Exception {
+        CompiledSchema schema = compiled(SCHEMA, 100);
+        SchemaValidationResult result = schema.validate(json("{\"id\": 0, \"name\": \"abcdef\", \"status\": \"gone\","
+                + " \"email\": \"nobody\", \"score\": 10, \"tags\": [\"a\", 2, \"c\"], \"extra\": 1}"));
+
+        assertEquals(result.getErrorCount(), 8);
+        assertEquals(sorted(result.getErrors()), sorted(List.of(
+                "/: object instance has properties which are not allowed by the schema: [\"extra\"]",
+                "/id: numeric instance is lower than the required minimum (minimum: 1, found: 0)",
+                "/name: string \"abcdef\" is too long (length: 6, maximum allowed: 5)",
+                "/status: instance value (\"gone\") not found in enum (possible values: [\"active\",\"inactive\"])",
+                "/email: ECMA 262 regex \"^[^@]+@[^@]+$\" does not match input string \"nobody\"",
+                "/score: numeric instance is not strictly lower than the required maximum (maximum: 10, found: 10)",
+                "/tags: array is too long: must have at most 2 elements but instance has 3 elements",
+                "/tags/1: instance type (integer) does not match any allowed primitive type (allowed: [\"string\"])")));
+    }
+
+    @DataProvider
+    public Object[][] instances() {
+        return new Object[][]{
+                {"{\"id\": 1, \"name\": \"ab\", \"status\": \"active\"}"},
+                {"{\"name\": \"a\"}"},
+                {"{\"id\": 1.0, \"name\": \"ab\", \"status\": \"inactive\", \"score\": 9.5}"},
+                {"{\"id\": \"1\", \"name\": null, \"status\": 1, \"extra\": true, \"other\": false}"},
+                {"{\"id\": 99999999999999999999, \"name\": \"\u00e9\u00e9\", \"status\": \"active\", \"tags\": []}"},
+                {"[1, \"two\"]"},
+        };
+    }
+
+    @Test(dataProvider = "instances")
+    public void testSameErrorsAsGenericValidator(String instance) throws Exception {
+        List<String> compiled = compiled(SCHEMA, 100).validate(json(instance)).getErrors();
+        List<String> generic = generic(SCHEMA, 100).validate(json(instance)).getErrors();
+        assertEquals(sorted(compiled), sorted(generic), instance);
+    }
+
+    @Test
+    public void testErrorMessagesAreCapped() throws Exception {
+        String elements = "[{\"name\": \"a\"}, {\"name\": \"b\"}, {\"name\": \"c\"}]";
+        CompiledSchema schema = compiled(SCHEMA, 3);
+        SchemaValidationResult result = schema.validate(
+                new ByteArrayInputStream(elements.getBytes(StandardCharsets.UTF_8)));
+
+        // Each element misses id and status and has a too-short name
+        assertFalse(result.isValid());
+        assertEquals(result.getElements(), 3);
+        assertEquals(result.getInvalidElements(), 3);
+        assertEquals(result.getErrorCount(), 6);
+        assertEquals(result.getErrors().size(), 3);
+        assertTrue(result.getErrors().get(0).startsWith("[0]"), result.getErrors().get(0));
+        assertTrue(result.describe().endsWith("... 3 more"), result.describe());
+        assertEquals(schema.getStats().getErrors(), 6);
+    }
+
+    private static CompiledSchema compiled(String schema, int maxErrors) throws IOException, ProcessingException {
+        JsonNode node = json(schema);
+        SchemaCompiler.Check checks = SchemaCompiler.compile(node);
+        assertNotNull(checks);
+        return new CompiledSchema("compiled", factory.getJsonSchema(node), checks, maxErrors);
+    }
+
+    private static CompiledSchema generic(String schema, int maxErrors) throws IOException, ProcessingException {
+        JsonNode node = json(schema);
+        return new CompiledSchema("generic", factory.getJsonSchema(node), null, maxErrors);
+    }
+
+    private static JsonNode json(String text) throws IOException {
+        return JsonUtils.getMapper().readTree(text);
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> sorted = new ArrayList<>(values);
+        sorted.sort(null);
+        return sorted;
+    }
+}
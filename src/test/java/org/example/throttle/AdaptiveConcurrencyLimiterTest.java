@@ -0,0 +1,102 @@
+package org.example.throttle;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testInitialLimitIsClamped() {
+        assertEquals(new AdaptiveConcurrencyLimiter(50, 1, 8, 0).getLimit(), 8);
+        assertEquals(new AdaptiveConcurrencyLimiter(0, 2, 8, 0).getLimit(), 2);
+        assertEquals(new AdaptiveConcurrencyLimiter(4, 0, 8, 0).getLimit(), 4);
+    }
+
+    @Test
+    public void testAdditiveIncrease() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4, 0);
+        // 1/limit per success: 2 -> 2.5 -> 2.9 -> 3.24
+        succeed(limiter, 2);
+        assertEquals(limiter.getLimit(), 2);
+        succeed(limiter, 1);
+        assertEquals(limiter.getLimit(), 3);
+
+        succeed(limiter, 20);
+        assertEquals(limiter.getLimit(), 4, "capped at the max");
+        assertEquals(limiter.getInFlight(), 0);
+    }
+
+    @Test
+    public void testThrottledHalvesDownToMin() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(64, 3, 64, 0);
+        int[] expected = {32, 16, 8, 4, 3, 3};
+        for (int limit : expected) {
+            limiter.acquire();
+            limiter.onThrottled();
+            assertEquals(limiter.getLimit(), limit);
+        }
+        assertEquals(limiter.getInFlight(), 0);
+    }
+
+    @Test
+    public void testOneDecreasePerCooldown() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(64, 1, 64, 200);
+        // A burst of 429s is a single congestion signal
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.onThrottled();
+        }
+        assertEquals(limiter.getLimit(), 32);
+
+        Thread.sleep(250);
+        limiter.acquire();
+        limiter.onThrottled();
+        assertEquals(limiter.getLimit(), 16);
+    }
+
+    @Test
+    public void testIgnoredReleasesWithoutChangingLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 1, 10, 0);
+        limiter.acquire();
+        assertEquals(limiter.getInFlight(), 1);
+        limiter.onIgnored();
+        assertEquals(limiter.getInFlight(), 0);
+        assertEquals(limiter.getLimit(), 5);
+    }
+
+    @Test
+    public void testAcquireBlocksAtLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0);
+        limiter.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS), "second caller must wait for a slot");
+
+        limiter.onSuccess();
+        assertTrue(acquired.await(1, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(limiter.getInFlight(), 1);
+    }
+
+    private static void succeed(AdaptiveConcurrencyLimiter limiter, int times) throws InterruptedException {
+        for (int i = 0; i < times; i++) {
+            limiter.acquire();
+            limiter.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.throttle;
+
+import org.testng.annotations.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ThrottleTest {
+
+    @Test
+    public void testRetryAfterSeconds() {
+        assertEquals(Throttle.parseRetryAfterNanos("2"), TimeUnit.SECONDS.toNanos(2));
+        assertEquals(Throttle.parseRetryAfterNanos(" 120 "), TimeUnit.SECONDS.toNanos(120));
+        assertEquals(Throttle.parseRetryAfterNanos("0"), 0);
+        assertEquals(Throttle.parseRetryAfterNanos("-5"), 0);
+    }
+
+    @Test
+    public void testRetryAfterHttpDate() {
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10));
+        long nanos = Throttle.parseRetryAfterNanos(inTenSeconds);
+        // The header has second precision
+        assertTrue(nanos > TimeUnit.SECONDS.toNanos(8) && nanos <= TimeUnit.SECONDS.toNanos(10), "delay " + nanos);
+
+        assertEquals(Throttle.parseRetryAfterNanos("Tue, 14 Nov 2023 22:13:20 GMT"), 0, "date in the past");
+    }
+
+    @Test
+    public void testRetryAfterAbsentOrInvalid() {
+        assertEquals(Throttle.parseRetryAfterNanos(null), 0);
+        assertEquals(Throttle.parseRetryAfterNanos("  "), 0);
+        assertEquals(Throttle.parseRetryAfterNanos("soon"), 0);
+        assertEquals(Throttle.parseRetryAfterNanos("1.5"), 0);
+    }
+
+    @Test
+    public void testThrottledResponsePausesAndHalves() {
+        Throttle throttle = new Throttle("http://throttled", null, new AdaptiveConcurrencyLimiter(8, 1, 8, 0), 150);
+        throttle.acquire();
+        // Retry-After of a minute is capped at 150 ms
+        throttle.onResponse(429, "60");
+
+        long start = System.nanoTime();
+        throttle.acquire();
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        throttle.onResponse(200, null);
+
+        assertTrue(waitedMs >= 100 && waitedMs < 1000, "waited " + waitedMs + " ms");
+        ThrottleStats stats = throttle.getStats();
+        assertEquals(stats.getConcurrencyLimit(), 4);
+        assertEquals(stats.getInFlight(), 0);
+        assertEquals(stats.getRequests(), 2);
+        assertEquals(stats.getThrottledResponses(), 1);
+        assertEquals(stats.getRetryAfterPauses(), 1);
+    }
+}
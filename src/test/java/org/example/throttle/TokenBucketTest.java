@@ -0,0 +1,53 @@
+package org.example.throttle;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testBurstIsServedImmediately() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        assertEquals(bucket.reserve(), 0);
+        assertEquals(bucket.reserve(), 0);
+        assertEquals(bucket.reserve(), 0);
+    }
+
+    @Test
+    public void testEmptyBucketReservesFutureTokens() {
+        // 10 per second: one token every 100 ms
+        TokenBucket bucket = new TokenBucket(10, 1);
+        assertEquals(bucket.reserve(), 0);
+
+        long first = bucket.reserve();
+        long second = bucket.reserve();
+        assertTrue(first > TimeUnit.MILLISECONDS.toNanos(90) && first <= TimeUnit.MILLISECONDS.toNanos(100),
+                "first wait " + first);
+        // The second caller queues behind the first one's reservation
+        assertTrue(second - first > TimeUnit.MILLISECONDS.toNanos(90), "second wait " + second);
+    }
+
+    @Test
+    public void testTokensRefillUpToBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 2);
+        bucket.reserve();
+        bucket.reserve();
+        // 100 ms would refill 10 tokens, but the bucket holds at most 2
+        Thread.sleep(100);
+        assertEquals(bucket.reserve(), 0);
+        assertEquals(bucket.reserve(), 0);
+        assertTrue(bucket.reserve() > 0);
+    }
+
+    @Test
+    public void testRateMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertEquals(new TokenBucket(5, 0).reserve(), 0, "burst is at least 1");
+        assertEquals(new TokenBucket(5, 1).getRatePerSecond(), 5.0, 1e-9);
+    }
+}